@@ -62,6 +62,23 @@ class JavaFxAppWebEngineViewIT {
         }
     }
 
+    void checkScriptValue(String script, String expectedValue) throws InterruptedException {
+        synchronized (javaFxSyncLock) {
+            Runnable assertion = () -> {
+                synchronized (javaFxSyncLock) {
+                    try {
+                        var actualValue = (String) javaFxApp.getBrowser().getEngine().executeScript(script);
+                        assertEquals(expectedValue, actualValue, "'" + script + "' value");
+                    } finally {
+                        javaFxSyncLock.notifyAll();
+                    }
+                }
+            };
+            Platform.runLater(assertion);
+            javaFxSyncLock.wait();
+        }
+    }
+
     @BeforeAll
     public static void setupSpec() {
         System.setProperty("testfx.robot", "glass");
@@ -119,4 +136,18 @@ class JavaFxAppWebEngineViewIT {
         checkElementDisplayProperty("words", "block");
         checkElementDisplayProperty("welcome_screen", "none");
     }
+
+    @Test
+    void showTranslation() throws InterruptedException {
+        Word word = new SimpleWord("testword")
+                .setCount(1)
+                .setContext("This is a testword");
+
+        javaFxApp.getView().showWords(List.of(word), 1);
+        checkScriptValue("document.getElementsByClassName('words_word_translation')[0].textContent", "");
+
+        javaFxApp.getView().showTranslation("testword", "тестовое слово");
+        checkScriptValue("document.getElementsByClassName('words_word_translation')[0].textContent",
+                "тестовое слово");
+    }
 }
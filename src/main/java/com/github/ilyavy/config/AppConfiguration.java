@@ -1,27 +1,89 @@
 package com.github.ilyavy.config;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 
 import com.github.ilyavy.model.Cookie;
+import com.github.ilyavy.service.AddWordsPipeline;
 import com.github.ilyavy.service.LingualeoService;
+import com.github.ilyavy.service.TokenBucket;
+import com.github.ilyavy.service.TranslationCache;
+import com.github.ilyavy.service.TranslationCacheService;
+import com.github.ilyavy.service.TranslationPrefetcher;
 import com.github.ilyavy.service.UserService;
+import com.github.ilyavy.service.parser.CachingLemmatizer;
+import com.github.ilyavy.service.parser.LemmaCache;
+import com.github.ilyavy.service.parser.LemmatizationMode;
+import com.github.ilyavy.service.parser.LemmatizerPools;
+import com.github.ilyavy.service.parser.WordFrequencies;
 import io.github.pepperkit.retry.BackoffFunction;
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import static io.github.pepperkit.retry.Retry.retry;
 
 @Configuration
 public class AppConfiguration {
 
+    private static final Logger logger = LoggerFactory.getLogger(AppConfiguration.class);
+
     private final ApplicationContext applicationContext;
 
+    /**
+     * Client of Lingualeo API shared by all the requests, the URL of the API can be changed to the one of a local
+     * stand-in. The connections are pooled and kept alive, the responses are compressed.
+     */
+    @Bean
+    public WebClient lingualeoWebClient(
+            @Value("${lingualeo.base-url:" + LingualeoService.DEFAULT_BASE_URL + "}") String baseUrl,
+            @Value("${lingualeo.client.max-connections:16}") int maxConnections,
+            @Value("${lingualeo.client.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${lingualeo.client.connect-timeout:5s}") Duration connectTimeout,
+            @Value("${lingualeo.client.read-timeout:10s}") Duration readTimeout,
+            @Value("${lingualeo.client.pending-acquire-timeout:10s}") Duration pendingAcquireTimeout) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("lingualeo")
+                .maxConnections(maxConnections)
+                .maxIdleTime(maxIdleTime)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .keepAlive(true)
+                .compress(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                // Unlike a read timeout handler of the connection, it isn't triggered, while the connection is idle
+                .responseTimeout(readTimeout);
+        return WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    /**
+     * Service of Lingualeo API. Optionally, if the user is logged in, the client of the API is warmed up
+     * in background: the event loop and the DNS resolver are initialized, and a connection to the API is opened,
+     * so the first user's request doesn't pay for them.
+     */
     @Bean
     @DependsOn("userService")
-    public LingualeoService lingualeoService() {
+    public LingualeoService lingualeoService(WebClient lingualeoWebClient,
+                                             @Value("${lingualeo.client.prewarm:false}") boolean prewarm,
+                                             @Value("${lingualeo.translations.max-count:"
+                                                     + LingualeoService.DEFAULT_MAX_TRANSLATIONS + "}")
+                                             int maxTranslations) {
         UserService userService = applicationContext.getBean(UserService.class);
 
         retry(5)
@@ -36,12 +98,103 @@ public class AppConfiguration {
 
         Cookie cookie = userService.getCookie();
         if (cookie != null) {
-            return new LingualeoService(userService.getLingualeoProfile(), cookie.getValue());
+            if (prewarm) {
+                lingualeoWebClient.head()
+                        .exchangeToMono(ClientResponse::releaseBody)
+                        .subscribe(v -> { }, e -> logger.debug("Lingualeo API cannot be reached for warming up", e),
+                                () -> logger.debug("The client of Lingualeo API is warmed up"));
+            }
+            return new LingualeoService(lingualeoWebClient, userService.getLingualeoProfile(), cookie.getValue())
+                    .setMaxTranslations(maxTranslations);
         } else {
-            return new LingualeoService();
+            return new LingualeoService(lingualeoWebClient).setMaxTranslations(maxTranslations);
         }
     }
 
+    /**
+     * Limiter of the rate of all the requests to Lingualeo API, both of the user and of the background ones.
+     */
+    @Bean
+    public TokenBucket lingualeoRateLimiter(
+            @Value("${lingualeo.requests.rate-per-second:20}") double ratePerSecond,
+            @Value("${lingualeo.requests.burst:10}") int burst) {
+        return new TokenBucket(ratePerSecond, burst);
+    }
+
+    /**
+     * Pipeline adding words to the user's dictionary, several words are processed at once, but the rate
+     * of the requests is limited to the one allowed by the API.
+     */
+    @Bean
+    public AddWordsPipeline addWordsPipeline(LingualeoService lingualeoService,
+                                             TranslationCacheService translationCacheService,
+                                             TokenBucket lingualeoRateLimiter,
+                                             @Value("${lingualeo.requests.concurrency:4}") int concurrency) {
+        return new AddWordsPipeline(lingualeoService, translationCacheService, concurrency, lingualeoRateLimiter);
+    }
+
+    /**
+     * Background translation of the words of the pages around the shown one, sharing the rate of the requests
+     * with the other requests.
+     */
+    @Bean
+    public TranslationPrefetcher translationPrefetcher(
+            LingualeoService lingualeoService, TranslationCacheService translationCacheService,
+            TokenBucket lingualeoRateLimiter,
+            @Value("${lingualeo.prefetch.max-words:30}") int maxWords,
+            @Value("${lingualeo.prefetch.concurrency:2}") int concurrency) {
+        return new TranslationPrefetcher(lingualeoService, translationCacheService, concurrency,
+                lingualeoRateLimiter, maxWords);
+    }
+
+    /**
+     * In-memory tier of the cache of the translations of the words.
+     */
+    @Bean
+    public TranslationCache translationCache(@Value("${lingualeo.translation-cache.size:10000}") int size) {
+        return new TranslationCache(size);
+    }
+
+    /**
+     * Pools of lemmatizers for parallel analysis of books, 0 as the size means a lemmatizer per CPU core.
+     */
+    @Bean
+    public LemmatizerPools lemmatizerPools(@Value("${analysis.lemmatizer.pool-size:0}") int poolSize,
+                                           @Value("${analysis.lemma-cache.enabled:true}") boolean cacheEnabled,
+                                           LemmaCache lemmaCache) {
+        int maxSize = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        return new LemmatizerPools(mode -> {
+            if (mode == LemmatizationMode.ACCURATE && cacheEnabled) {
+                return () -> new CachingLemmatizer(lemmaCache);
+            } else {
+                return mode::createLemmatizer;
+            }
+        }, maxSize);
+    }
+
+    /**
+     * Ranks of the words in general English for the difficulty order of the words, if the file of them is missing,
+     * the difficulty order is not available.
+     */
+    @Bean
+    public WordFrequencies wordFrequencies(@Value("${analysis.word-frequencies.file:}") String file) {
+        if (file.isEmpty() || !Files.exists(Path.of(file))) {
+            logger.info("The word frequency table is not found, the difficulty of the words is not ranked");
+            return WordFrequencies.empty();
+        }
+        try {
+            return WordFrequencies.open(Path.of(file));
+        } catch (IOException e) {
+            logger.error("The word frequency table cannot be read", e);
+            return WordFrequencies.empty();
+        }
+    }
+
+    @Bean
+    public LemmaCache lemmaCache(@Value("${analysis.lemma-cache.size:100000}") int size) {
+        return new LemmaCache(size);
+    }
+
     @Autowired
     public AppConfiguration(ApplicationContext applicationContext) {
         this.applicationContext = applicationContext;
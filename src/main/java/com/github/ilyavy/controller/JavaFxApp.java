@@ -1,18 +1,34 @@
 package com.github.ilyavy.controller;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.Callable;
+import java.util.stream.StreamSupport;
 
 import com.github.ilyavy.model.Word;
+import com.github.ilyavy.service.AddWordsPipeline;
+import com.github.ilyavy.service.AnalysisCacheService;
+import com.github.ilyavy.service.KnownWordsService;
+import com.github.ilyavy.service.LemmatizerPreloader;
 import com.github.ilyavy.service.LingualeoService;
+import com.github.ilyavy.service.TranslationPrefetcher;
 import com.github.ilyavy.service.UserService;
-import com.github.ilyavy.service.parser.BookTextParser;
-import com.github.ilyavy.service.parser.Lemmatizer;
-import com.github.ilyavy.service.parser.SimpleSequentialBookTextParser;
+import com.github.ilyavy.service.parser.AnalysisProgress;
+import com.github.ilyavy.service.parser.ChunkedSentenceSplitter;
+import com.github.ilyavy.service.parser.KnownWords;
+import com.github.ilyavy.service.parser.LazilySortedWords;
+import com.github.ilyavy.service.parser.LemmatizationMode;
+import com.github.ilyavy.service.parser.LemmatizerPool;
+import com.github.ilyavy.service.parser.LemmatizerPools;
+import com.github.ilyavy.service.parser.PooledLemmatizerForkJoinBookTextParser;
+import com.github.ilyavy.service.parser.TextStatistics;
+import com.github.ilyavy.service.parser.WordFrequencies;
+import com.github.ilyavy.service.parser.WordsOrder;
 import com.github.ilyavy.service.reader.BookFileReader;
+import com.github.ilyavy.view.AnalysisProgressInfo;
+import com.github.ilyavy.view.ReadabilityInfo;
 import com.github.ilyavy.view.View;
 import com.github.ilyavy.view.ViewEvent;
 import javafx.application.Application;
@@ -28,6 +44,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
@@ -46,6 +64,20 @@ public class JavaFxApp extends Application {
 
     protected static UserService userService;
 
+    protected static LemmatizerPools lemmatizerPools;
+
+    protected static LemmatizerPreloader lemmatizerPreloader;
+
+    protected static AnalysisCacheService analysisCacheService;
+
+    protected static WordFrequencies wordFrequencies;
+
+    protected static KnownWordsService knownWordsService;
+
+    protected static AddWordsPipeline addWordsPipeline;
+
+    protected static TranslationPrefetcher translationPrefetcher;
+
     private View view;
 
     private WebView browser;
@@ -54,13 +86,35 @@ public class JavaFxApp extends Application {
     // it becomes visible for all the threads, the list is supposed to be changed only in 'batch' mode, as a whole.
     private volatile List<? extends Word> words;
 
+    // The order of the results chosen by a user, it's the one selected by default in the view, until it's changed.
+    private volatile WordsOrder wordsOrder = WordsOrder.COUNT;
+
+    // The analysis of a book in progress, it's accessed only from JavaFX application thread.
+    private Disposable analysis;
+
+    // The prefetch of the translations of the shown words, a new one replaces and cancels the previous one.
+    private final Disposable.Swap prefetch = Disposables.swap();
+
+    // Whether the words are being added to the dictionary, the prefetch isn't started meanwhile.
+    private volatile boolean addingWords;
+
     public JavaFxApp() {
     }
 
     @Autowired
-    public JavaFxApp(UserService userService, LingualeoService lingualeoService) {
+    public JavaFxApp(UserService userService, LingualeoService lingualeoService, LemmatizerPools lemmatizerPools,
+                     LemmatizerPreloader lemmatizerPreloader, AnalysisCacheService analysisCacheService,
+                     WordFrequencies wordFrequencies, KnownWordsService knownWordsService,
+                     AddWordsPipeline addWordsPipeline, TranslationPrefetcher translationPrefetcher) {
         JavaFxApp.userService = userService;
         JavaFxApp.lingualeoService = lingualeoService;
+        JavaFxApp.lemmatizerPools = lemmatizerPools;
+        JavaFxApp.lemmatizerPreloader = lemmatizerPreloader;
+        JavaFxApp.analysisCacheService = analysisCacheService;
+        JavaFxApp.wordFrequencies = wordFrequencies;
+        JavaFxApp.knownWordsService = knownWordsService;
+        JavaFxApp.addWordsPipeline = addWordsPipeline;
+        JavaFxApp.translationPrefetcher = translationPrefetcher;
     }
 
     WebView getBrowser() {
@@ -77,12 +131,22 @@ public class JavaFxApp extends Application {
         view = View.from(browser)
                 .setEventHandler(ViewEvent.LOGIN, new ButtonLoginHandler())
                 .setEventHandler(ViewEvent.ANALYZE_BOOK, new ButtonAnalyzeHandler(stage))
+                .setEventHandler(ViewEvent.CANCEL_ANALYSIS, () -> {
+                    cancelAnalysis();
+                    view.hideProgress();
+                })
                 .setEventHandler(ViewEvent.ADD_WORDS_TO_DICTIONARY, new ButtonAddWordsHandler())
-                .setEventHandler(ViewEvent.RESULTS_GOTO_PAGE, () -> view.showWords(words, view.getSpecifiedPageToGo()))
-                .setEventHandler(ViewEvent.RESULTS_NEXT_PAGE,
-                        () -> view.showWords(words, view.getSpecifiedPageToGo() + 1))
-                .setEventHandler(ViewEvent.RESULTS_PREVIOUS_PAGE,
-                        () -> view.showWords(words, view.getSpecifiedPageToGo() - 1));
+                .setEventHandler(ViewEvent.RESULTS_GOTO_PAGE, () -> showWords(view.getSpecifiedPageToGo()))
+                .setEventHandler(ViewEvent.RESULTS_NEXT_PAGE, () -> showWords(view.getSpecifiedPageToGo() + 1))
+                .setEventHandler(ViewEvent.RESULTS_PREVIOUS_PAGE, () -> showWords(view.getSpecifiedPageToGo() - 1))
+                .setEventHandler(ViewEvent.RESULTS_ORDER_CHANGED, () -> {
+                    wordsOrder = WordsOrder.valueOf(view.getWordsOrder());
+                    // The words found so far, while the analysis is in progress, are always the most frequent ones
+                    if (words instanceof LazilySortedWords sortedWords) {
+                        words = sortedWords.reorder(wordsOrder.comparator(wordFrequencies));
+                        showWords(1);
+                    }
+                });
 
         VBox frame = new VBox(1);
         frame.getChildren().add(browser);
@@ -96,6 +160,13 @@ public class JavaFxApp extends Application {
 
         logger.info("Application has started");
 
+        // E.g. the difficulty order is the same as the count one, if the word frequency table is missing
+        for (WordsOrder order : WordsOrder.values()) {
+            if (!order.isAvailable(wordFrequencies)) {
+                view.doOnReady(() -> view.disableWordsOrder(order.name()));
+            }
+        }
+
         if (lingualeoService.isUserAuthenticated()) {
             view.doOnReady(() -> view.showUserProfile(lingualeoService.getLingualeoProfile()));
         }
@@ -104,9 +175,49 @@ public class JavaFxApp extends Application {
     @Override
     public void stop() {
         logger.info("Application is closed");
+        cancelAnalysis();
+        prefetch.dispose();
         Platform.exit();
     }
 
+    /**
+     * Cancels the analysis of a book in progress, if any. The lemmatization stops at the next batch of sentences,
+     * the threads and the lemmatizers are released, the partial results become garbage.
+     */
+    private void cancelAnalysis() {
+        if (analysis != null) {
+            analysis.dispose();
+            analysis = null;
+        }
+    }
+
+    /**
+     * Shows the page of the results and translates the words around it in background: the rest of the page first,
+     * then the next page and the previous one. Showing the page doesn't wait for the translations, they are shown
+     * as they come, the translations of the words of the neighbouring pages come from the cache at once.
+     */
+    private void showWords(int page) {
+        List<? extends Word> shownWords = words;
+        view.showWords(shownWords, page);
+
+        int wordsOnPage = view.getWordsOnPage();
+        if (addingWords || shownWords == null || page < 1 || (page - 1) * wordsOnPage >= shownWords.size()) {
+            return;
+        }
+
+        // The words are taken from the list at once, so the prefetch doesn't access the list, which can be changed
+        List<Word> wordsToTranslate = new ArrayList<>();
+        for (int prefetchPage : new int[] {page, page + 1, page - 1}) {
+            for (int i = Math.max((prefetchPage - 1) * wordsOnPage, 0);
+                 i < Math.min(prefetchPage * wordsOnPage, shownWords.size()); i++) {
+                wordsToTranslate.add(shownWords.get(i));
+            }
+        }
+        prefetch.update(translationPrefetcher.prefetch(wordsToTranslate)
+                .subscribe(prefetched -> view.showTranslation(prefetched.word(), prefetched.translation()),
+                        e -> logger.error("Prefetching translations error", e)));
+    }
+
     /**
      * Login user into Lingualeo.
      */
@@ -117,6 +228,9 @@ public class JavaFxApp extends Application {
                     .doOnSuccess(profile -> userService.persistProfile(profile))
                     .doOnSuccess(profile -> userService
                             .persistCookie(profile, LingualeoService.COOKIE_NAME, lingualeoService.getSessionCookie()))
+                    .doOnSuccess(profile -> knownWordsService.sync()
+                            .subscribe(knownWords -> logger.debug("{} known words", knownWords.size()),
+                                    e -> logger.error("The dictionary cannot be synchronized", e)))
                     .subscribe(profile -> {
                         try {
                             view.showUserProfile(profile);
@@ -133,6 +247,18 @@ public class JavaFxApp extends Application {
      * Listener for analyze button.
      */
     protected class ButtonAnalyzeHandler implements Runnable {
+        /** Books larger than this, in bytes, are analyzed in streaming mode. */
+        private static final long STREAMING_ANALYSIS_THRESHOLD = 512L * 1024 * 1024;
+
+        /** Size of a chunk in bytes, in which a book is read in streaming mode. */
+        private static final int STREAMING_CHUNK_SIZE = 1024 * 1024;
+
+        /** Number of the most frequent words shown, while the analysis is in progress. */
+        private static final int PROGRESS_TOP_WORDS_NUMBER = 60;
+
+        /** Minimal period between the updates of the shown progress of the analysis. */
+        private static final Duration PROGRESS_PERIOD = Duration.ofMillis(500);
+
         Stage stage;
 
         public ButtonAnalyzeHandler(Stage stage) {
@@ -154,27 +280,85 @@ public class JavaFxApp extends Application {
                 return;
             }
 
-            Callable<List<? extends Word>> parseBook = () -> {
-                BookFileReader reader = BookFileReader.createInstance(new File(selectedFile.getAbsolutePath()));
-                Lemmatizer lemmatizer = new Lemmatizer(); // todo: lazy creation? creation at startup?
-                BookTextParser parser = new SimpleSequentialBookTextParser(lemmatizer);
-
-                List<String> sentences = parser.parseTextIntoSentences(reader.readIntoString());
-                var result = new ArrayList<>(parser.countWords(sentences).values());
-                result.sort(Comparator.comparingLong(Word::getCount).reversed());
-                words = result;
-
-                return words;
-            };
-
-            Mono.fromCallable(parseBook)
-                    .subscribeOn(Schedulers.single())
+            // The analysis of the previous book is not needed anymore
+            cancelAnalysis();
+            view.showStatistics(null);
+
+            File bookFile = new File(selectedFile.getAbsolutePath());
+            LemmatizationMode lemmatizationMode = LemmatizationMode.valueOf(view.getLemmatizationMode());
+            LemmatizerPool lemmatizerPool = lemmatizerPools.get(lemmatizationMode);
+
+            PooledLemmatizerForkJoinBookTextParser parser = new PooledLemmatizerForkJoinBookTextParser(lemmatizerPool);
+            // The words of the user's dictionary are not shown
+            KnownWords knownWords = knownWordsService.current();
+            parser.setKnownWords(knownWords);
+
+            Flux<AnalysisProgress> parseBook = Mono.fromCallable(() ->
+                            BookFileReader.createInstance(bookFile, BookFileReader.Mode.MEMORY_MAPPED)
+                                    .readIntoCharSequence())
+                    .flatMapMany(text -> parser.countWordsProgressively(
+                            Flux.fromStream(() -> StreamSupport.stream(parser.sentences(text), false)),
+                            text.length(), PROGRESS_TOP_WORDS_NUMBER, PROGRESS_PERIOD));
+
+            // A book, which may not fit into memory, is read and counted chunk by chunk
+            Flux<AnalysisProgress> parseBookInChunks = Flux.defer(() -> {
+                BookFileReader reader = BookFileReader.createInstance(bookFile);
+
+                return parser.countWordsProgressively(
+                        ChunkedSentenceSplitter.split(reader.readInChunks(STREAMING_CHUNK_SIZE)),
+                        bookFile.length(), PROGRESS_TOP_WORDS_NUMBER, PROGRESS_PERIOD);
+            });
+
+            // Waits for the lemmatizers, if they are still being preloaded
+            Flux<AnalysisProgress> analyzeBook = lemmatizerPreloader.ready(lemmatizationMode)
+                    .thenMany(bookFile.length() > STREAMING_ANALYSIS_THRESHOLD ? parseBookInChunks : parseBook);
+
+            // A book, which was already analyzed with the same settings, is taken from the cache
+            analysis = Mono.fromCallable(() -> analysisCacheService.keyOf(
+                            bookFile, lemmatizationMode, PooledLemmatizerForkJoinBookTextParser.class, knownWords))
+                    .flatMapMany(cacheKey -> analysisCacheService.get(cacheKey)
+                            .flux()
+                            .switchIfEmpty(analyzeBook.doOnNext(progress -> {
+                                if (progress.isComplete()) {
+                                    analysisCacheService.put(cacheKey, progress);
+                                }
+                            })))
+                    .subscribeOn(Schedulers.boundedElastic())
                     .subscribe(
-                            wordsList -> view.showWords(wordsList, 1),
+                            this::showProgress,
                             e -> logger.error("Book parsing error", e)); // TODO: add error window
 
             view.showLoading();
         }
+
+        /**
+         * Shows the most frequent words found so far, or all the words, when the analysis is complete.
+         */
+        private void showProgress(AnalysisProgress progress) {
+            if (progress.isComplete()) {
+                var result = new LazilySortedWords(progress.getWords().values(),
+                        wordsOrder.comparator(wordFrequencies));
+                words = result;
+                showWords(1);
+                view.showStatistics(readabilityOf(progress.getStatistics()));
+            } else {
+                words = progress.getTopWords();
+                view.showProgress(new AnalysisProgressInfo(progress.getTopWords(), progress.getPercent(),
+                        progress.getSentencesPerSecond()));
+            }
+        }
+
+        /**
+         * Returns the readability to show, or null, if there are no words in the book.
+         */
+        private ReadabilityInfo readabilityOf(TextStatistics statistics) {
+            if (statistics == null || statistics.getWords() == 0) {
+                return null;
+            }
+            return new ReadabilityInfo(statistics.getFleschScore(), statistics.getChapters().stream()
+                    .map(chapter -> new ReadabilityInfo.Chapter(chapter.getTitle(), chapter.getFleschScore()))
+                    .toList());
+        }
     }
 
     /**
@@ -183,21 +367,39 @@ public class JavaFxApp extends Application {
     protected class ButtonAddWordsHandler implements Runnable {
         @Override
         public void run() {
-            Mono.fromCallable(() -> view.getSelectedWords())
-                    .flatMapMany(Flux::fromIterable)
-                    .concatMap(lingualeoService::requestAndSetTranslation)
-                    .concatMap(lingualeoService::addWordToDictionary)
-                    .index()
-                    .subscribeOn(Schedulers.single())
-                    .subscribe(tuple -> {
-                                int indexToRemove = (int) (tuple.getT2().getId() - tuple.getT1());
-                                words.remove(indexToRemove);
-                                logger.debug("{} - word is added", tuple.getT2().getWord());
+            // The selected words are read on FX thread, the ids of the words are their indexes in the shown list
+            List<Word> selectedWords = view.getSelectedWords();
+            List<? extends Word> shownWords = words;
+            // The requests of the user go first, the prefetch is resumed, when the words are added,
+            // paging meanwhile doesn't start it again
+            addingWords = true;
+            prefetch.update(Disposables.single());
+            addWordsPipeline.addWords(selectedWords)
+                    .doOnNext(word -> logger.debug("{} - word is added", word.getWord()))
+                    .collectList()
+                    .subscribe(addedWords -> {
+                                addingWords = false;
+                                removeAddedWords(shownWords, addedWords);
+                                showWords(view.getCurrentPage());
                             },
-                            e -> logger.error("Adding words to the dictionary error", e),
-                            () -> view.showWords(words, view.getCurrentPage()));
+                            e -> {
+                                addingWords = false;
+                                logger.error("Adding words to the dictionary error", e);
+                            });
 
             view.showLoading();
         }
+
+        /**
+         * Removes the added words from the list by their indexes. The words are removed from the last one,
+         * so the indexes of the words not removed yet stay the same, whichever order the words are added in.
+         */
+        private void removeAddedWords(List<? extends Word> shownWords, List<Word> addedWords) {
+            addedWords.stream()
+                    .sorted(Comparator.comparingInt(Word::getId).reversed())
+                    .filter(word -> word.getId() < shownWords.size()
+                            && shownWords.get(word.getId()).getWord().equals(word.getWord()))
+                    .forEach(word -> shownWords.remove(word.getId()));
+        }
     }
 }
@@ -1,14 +1,22 @@
 package com.github.ilyavy.dao;
 
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
 import com.github.ilyavy.model.Cookie;
 import com.github.ilyavy.model.LingualeoProfile;
 import io.r2dbc.h2.H2ConnectionConfiguration;
 import io.r2dbc.h2.H2ConnectionFactory;
 import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
@@ -25,15 +33,30 @@ public class UserDataDao {
 
     private static final String PERSISTENCE_FILE = "~/book-reading-assistant/localdata";
 
+    private final String persistenceFile;
+
     private R2dbcEntityTemplate dbTemplate;
 
+    public UserDataDao() {
+        this(PERSISTENCE_FILE);
+    }
+
+    /**
+     * @param persistenceFile path to the file of the DB, without the extension
+     */
+    UserDataDao(final String persistenceFile) {
+        this.persistenceFile = persistenceFile;
+    }
+
     /**
      * Creates the necessary tables if they don't exist.
      * @return just Mono to continue the pipeline
      */
     public Mono<?> initializeTablesIfNecessary() {
         ConnectionFactory connectionFactory = new H2ConnectionFactory(H2ConnectionConfiguration.builder()
-                .file(PERSISTENCE_FILE)
+                .file(persistenceFile)
+                // The cookie table has the column "value", it's a keyword since H2 2
+                .property("NON_KEYWORDS", "VALUE")
                 .build());
         logger.debug("-" + connectionFactory.getMetadata().getName() + "-");
         dbTemplate = new R2dbcEntityTemplate(connectionFactory);
@@ -52,9 +75,258 @@ public class UserDataDao {
                             ALTER TABLE cookie ADD FOREIGN KEY (user_id) REFERENCES lingualeo_profile(id);
                             """)
                         .fetch()
+                        .rowsUpdated())
+                .then(dbTemplate.getDatabaseClient().sql("""
+                            CREATE TABLE IF NOT EXISTS lemma_cache
+                            (cache_key VARCHAR(255) PRIMARY KEY, lemma VARCHAR(255));
+                            ALTER TABLE lemma_cache ADD COLUMN IF NOT EXISTS version VARCHAR(64);
+                            """)
+                        .fetch()
+                        .rowsUpdated())
+                .then(dbTemplate.getDatabaseClient().sql("""
+                            CREATE TABLE IF NOT EXISTS analysis_cache
+                            (cache_key VARCHAR(255) PRIMARY KEY, payload VARBINARY, payload_size BIGINT,
+                            last_used TIMESTAMP)
+                            """)
+                        .fetch()
+                        .rowsUpdated())
+                .then(dbTemplate.getDatabaseClient().sql("""
+                            CREATE TABLE IF NOT EXISTS known_word
+                            (word VARCHAR(255) PRIMARY KEY, word_id BIGINT)
+                            """)
+                        .fetch()
+                        .rowsUpdated())
+                .then(dbTemplate.getDatabaseClient().sql("""
+                            CREATE TABLE IF NOT EXISTS translation_cache
+                            (word VARCHAR(255) PRIMARY KEY, translations CLOB, created TIMESTAMP);
+                            ALTER TABLE translation_cache ADD COLUMN IF NOT EXISTS max_translations INT;
+                            """)
+                        .fetch()
                         .rowsUpdated());
     }
 
+    /**
+     * Retrieves the result of a book's analysis, marking it as recently used.
+     * @param cacheKey key of the analysis
+     * @return serialized result of the analysis, or empty Mono if there is no such analysis
+     */
+    public Mono<byte[]> getAnalysis(final String cacheKey) {
+        return dbTemplate.getDatabaseClient()
+                .sql("SELECT payload FROM analysis_cache WHERE cache_key = :key")
+                .bind("key", cacheKey)
+                .map(row -> row.get("payload", byte[].class))
+                .one()
+                .flatMap(payload -> dbTemplate.getDatabaseClient()
+                        .sql("UPDATE analysis_cache SET last_used = CURRENT_TIMESTAMP WHERE cache_key = :key")
+                        .bind("key", cacheKey)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(payload));
+    }
+
+    /**
+     * Persists the result of a book's analysis, then evicts the least recently used analyses,
+     * so the total size of them does not exceed the specified one.
+     * @param cacheKey key of the analysis
+     * @param payload serialized result of the analysis
+     * @param maxTotalSize maximum total size of the persisted analyses in bytes
+     * @return Mono completing, when the analysis is persisted
+     */
+    public Mono<Void> persistAnalysis(final String cacheKey, final byte[] payload, final long maxTotalSize) {
+        return dbTemplate.getDatabaseClient()
+                .sql("""
+                    MERGE INTO analysis_cache (cache_key, payload, payload_size, last_used) KEY (cache_key)
+                    VALUES (:key, :payload, :size, CURRENT_TIMESTAMP)
+                    """)
+                .bind("key", cacheKey)
+                .bind("payload", payload)
+                .bind("size", (long) payload.length)
+                .fetch()
+                .rowsUpdated()
+                .thenMany(dbTemplate.getDatabaseClient()
+                        .sql("SELECT cache_key, payload_size FROM analysis_cache ORDER BY last_used DESC")
+                        .map(row -> Map.entry(row.get("cache_key", String.class), row.get("payload_size", Long.class)))
+                        .all())
+                .scan(Map.entry("", 0L), (total, analysis) ->
+                        Map.entry(analysis.getKey(), total.getValue() + analysis.getValue()))
+                .filter(total -> total.getValue() > maxTotalSize)
+                .concatMap(total -> dbTemplate.getDatabaseClient()
+                        .sql("DELETE FROM analysis_cache WHERE cache_key = :key")
+                        .bind("key", total.getKey())
+                        .fetch()
+                        .rowsUpdated())
+                .then();
+    }
+
+    /**
+     * Retrieves the lemmas persisted by {@link #persistLemmas(Map, String)}.
+     * @param version version of the lemmatization, by which the lemmas are produced
+     * @return map of the lemmas by the keys of the lemma cache
+     */
+    public Mono<Map<String, String>> getCachedLemmas(final String version) {
+        return dbTemplate.getDatabaseClient()
+                .sql("SELECT cache_key, lemma FROM lemma_cache WHERE version = :version")
+                .bind("version", version)
+                .map(row -> Map.entry(row.get("cache_key", String.class), row.get("lemma", String.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    /**
+     * Deletes the lemmas produced by other versions of the lemmatization, e.g. with another list of stop words.
+     * @param version current version of the lemmatization
+     * @return Mono of the number of the deleted lemmas
+     */
+    public Mono<Long> deleteLemmasExcept(final String version) {
+        return dbTemplate.getDatabaseClient()
+                .sql("DELETE FROM lemma_cache WHERE version IS NULL OR version <> :version")
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated()
+                .map(Number::longValue);
+    }
+
+    /**
+     * Persists the lemmas, replacing the ones with the same keys.
+     * @param lemmas map of the lemmas by the keys of the lemma cache
+     * @param version version of the lemmatization, by which the lemmas are produced
+     * @return Mono completing, when the lemmas are persisted
+     */
+    public Mono<Void> persistLemmas(final Map<String, String> lemmas, final String version) {
+        if (lemmas.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return dbTemplate.getDatabaseClient()
+                .inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(
+                            "MERGE INTO lemma_cache (cache_key, lemma, version) KEY (cache_key) VALUES ($1, $2, $3)");
+                    Iterator<Map.Entry<String, String>> entries = lemmas.entrySet().iterator();
+                    while (entries.hasNext()) {
+                        Map.Entry<String, String> entry = entries.next();
+                        // r2dbc-h2 finishes a row of the batch only, when its parameters are bound by the names
+                        statement.bind("$1", entry.getKey()).bind("$2", entry.getValue()).bind("$3", version);
+                        if (entries.hasNext()) {
+                            statement.add();
+                        }
+                    }
+                    return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+                })
+                .then();
+    }
+
+    /**
+     * Retrieves the words of the user's dictionary persisted by {@link #persistKnownWords(Map)}.
+     * @return list of the words
+     */
+    public Mono<List<String>> getKnownWords() {
+        return dbTemplate.getDatabaseClient()
+                .sql("SELECT word FROM known_word")
+                .map(row -> row.get("word", String.class))
+                .all()
+                .collectList();
+    }
+
+    /**
+     * Retrieves the id of the most recently added word of the user's dictionary, which is persisted.
+     * @return id of the word, 0 if there are no words
+     */
+    public Mono<Long> getLastKnownWordId() {
+        return dbTemplate.getDatabaseClient()
+                .sql("SELECT COALESCE(MAX(word_id), 0) AS last_id FROM known_word")
+                .map(row -> row.get("last_id", Long.class))
+                .one();
+    }
+
+    /**
+     * Persists the words of the user's dictionary, replacing the same words.
+     * @param words map of the ids of the words in the dictionary by the words
+     * @return Mono completing, when the words are persisted
+     */
+    public Mono<Void> persistKnownWords(final Map<String, Long> words) {
+        if (words.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return dbTemplate.getDatabaseClient()
+                .inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(
+                            "MERGE INTO known_word (word, word_id) KEY (word) VALUES ($1, $2)");
+                    Iterator<Map.Entry<String, Long>> entries = words.entrySet().iterator();
+                    while (entries.hasNext()) {
+                        Map.Entry<String, Long> entry = entries.next();
+                        statement.bind("$1", entry.getKey()).bind("$2", entry.getValue());
+                        if (entries.hasNext()) {
+                            statement.add();
+                        }
+                    }
+                    return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+                })
+                .then();
+    }
+
+    /**
+     * Retrieves the translations of the word, persisted not earlier than the specified moment.
+     * @param word lowercased word
+     * @param notBefore the earliest moment of persisting, the translations persisted before it are expired
+     * @param maxTranslations maximum number of the translations of a word, with which they are persisted
+     * @return serialized translations, or empty Mono if there are no such translations
+     */
+    public Mono<String> getTranslations(final String word, final LocalDateTime notBefore,
+                                        final int maxTranslations) {
+        return dbTemplate.getDatabaseClient()
+                .sql("""
+                    SELECT translations FROM translation_cache
+                    WHERE word = :word AND created >= :notBefore AND max_translations = :max
+                    """)
+                .bind("word", word)
+                .bind("notBefore", notBefore)
+                .bind("max", maxTranslations)
+                .map(row -> row.get("translations", String.class))
+                .one();
+    }
+
+    /**
+     * Persists the translations of the word, replacing the previous ones.
+     * @param word lowercased word
+     * @param translations serialized translations
+     * @param maxTranslations maximum number of the translations of a word, with which they are requested
+     * @return Mono completing, when the translations are persisted
+     */
+    public Mono<Void> persistTranslations(final String word, final String translations, final int maxTranslations) {
+        return dbTemplate.getDatabaseClient()
+                .sql("""
+                    MERGE INTO translation_cache (word, translations, created, max_translations) KEY (word)
+                    VALUES (:word, :translations, CURRENT_TIMESTAMP, :max)
+                    """)
+                .bind("word", word)
+                .bind("translations", translations)
+                .bind("max", maxTranslations)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    /**
+     * Deletes the translations persisted before the specified moment, and the ones requested with another maximum
+     * number of the translations of a word, they may be truncated.
+     * @param before the moment, the translations persisted before it are expired
+     * @param maxTranslations current maximum number of the translations of a word
+     * @return Mono of the number of the deleted translations
+     */
+    public Mono<Long> deleteTranslations(final LocalDateTime before, final int maxTranslations) {
+        return dbTemplate.getDatabaseClient()
+                .sql("""
+                    DELETE FROM translation_cache
+                    WHERE created < :before OR max_translations IS NULL OR max_translations <> :max
+                    """)
+                .bind("before", before)
+                .bind("max", maxTranslations)
+                .fetch()
+                .rowsUpdated()
+                .map(Number::longValue);
+    }
+
     /**
      * Retrieves user's profile from the DB.
      * @return lingualeo user's profile
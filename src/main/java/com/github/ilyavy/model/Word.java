@@ -1,13 +1,18 @@
 package com.github.ilyavy.model;
 
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.Objects;
+import java.util.List;
+import java.util.function.ToIntFunction;
 
 /**
  * Represents word entity.
  * It is an abstract class - logic for counting should be implemented by ancestors.
  */
 public abstract class Word implements Comparable<Word> {
+
+    private static final CharSequence[] NO_CONTEXTS = new CharSequence[0];
+
     /**
      * Id of the word.
      */
@@ -24,9 +29,11 @@ public abstract class Word implements Comparable<Word> {
     private String translate = "";
 
     /**
-     * A sentence, in which the word is used.
+     * Sentences, in which the word is used, a sample of them, if the word is used more often. They can be views
+     * of the book's text, then they are materialized into strings only when they are requested, e.g. when
+     * the word is shown.
      */
-    private String context = "";
+    private CharSequence[] contexts = NO_CONTEXTS;
 
     /**
      * The flag, which shows either the word is known by the user or not.
@@ -53,11 +60,11 @@ public abstract class Word implements Comparable<Word> {
      * Creates the word entity by its string value and a context.
      *
      * @param word    string representation of the word
-     * @param context sentence, in which the word is used
+     * @param context sentence, in which the word is used, it's not copied
      */
-    public Word(final String word, final String context) {
+    public Word(final String word, final CharSequence context) {
         this(word);
-        setContext(context);
+        this.contexts = new CharSequence[] {context};
     }
 
     public int getId() {
@@ -77,12 +84,47 @@ public abstract class Word implements Comparable<Word> {
         return translate;
     }
 
+    /**
+     * Returns the first of the sentences, in which the word is used.
+     *
+     * @return the sentence, or empty string, if there are no sentences
+     */
     public String getContext() {
-        return context;
+        return contexts.length > 0 ? contexts[0].toString() : "";
     }
 
     public Word setContext(final String context) {
-        this.context = context;
+        this.contexts = new CharSequence[] {context};
+        return this;
+    }
+
+    /**
+     * Returns the sentences, in which the word is used, materialized into strings.
+     *
+     * @return list of the sentences
+     */
+    public List<String> getContexts() {
+        return Arrays.stream(contexts).map(CharSequence::toString).toList();
+    }
+
+    /**
+     * Returns the sentences, in which the word is used, as they are kept, e.g. as views of the book's text.
+     * The array should not be modified.
+     *
+     * @return array of the sentences
+     */
+    public CharSequence[] contextSequences() {
+        return contexts;
+    }
+
+    /**
+     * Sets the sentences, in which the word is used, the array is not copied.
+     *
+     * @param contexts sentences
+     * @return this word
+     */
+    public Word setContexts(final CharSequence... contexts) {
+        this.contexts = contexts;
         return this;
     }
 
@@ -161,7 +203,7 @@ public abstract class Word implements Comparable<Word> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(word);
+        return word.hashCode();
     }
 
     /**
@@ -173,6 +215,19 @@ public abstract class Word implements Comparable<Word> {
         return new CountComparator();
     }
 
+    /**
+     * Creates the comparator of the words by their difficulty: the word is bigger, if it's used more often
+     * in the text, but more rarely in general. By Zipf's law the general frequency of a word is inversely
+     * proportional to its rank, so the logarithm of the rank tells how rare the word is, it weighs the count
+     * like the inverse document frequency does in tf-idf.
+     *
+     * @param globalRank rank of the word by its general frequency, from 1 for the most frequent word
+     * @return comparator by the difficulty
+     */
+    public static Comparator<Word> difficultyOrder(final ToIntFunction<String> globalRank) {
+        return Comparator.comparingDouble(word -> word.getCount() * Math.log1p(globalRank.applyAsInt(word.word)));
+    }
+
 
     /**
      * Comparator for words, which uses count value of the words in order to compare them.
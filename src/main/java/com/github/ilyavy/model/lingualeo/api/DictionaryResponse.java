@@ -0,0 +1,101 @@
+package com.github.ilyavy.model.lingualeo.api;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Response of LL api call to get a page of the user's dictionary. The words are grouped by the date,
+ * when they were added, the most recently added words go first.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DictionaryResponse {
+
+    @JsonProperty("userdict3")
+    private List<WordGroup> groups = List.of();
+
+    @JsonProperty("show_more")
+    private boolean showMore;
+
+    public List<WordGroup> getGroups() {
+        return groups;
+    }
+
+    public DictionaryResponse setGroups(List<WordGroup> groups) {
+        this.groups = groups;
+        return this;
+    }
+
+    /**
+     * Returns whether there are more pages of the dictionary.
+     *
+     * @return true - if there is the next page, false - otherwise
+     */
+    public boolean isShowMore() {
+        return showMore;
+    }
+
+    public DictionaryResponse setShowMore(boolean showMore) {
+        this.showMore = showMore;
+        return this;
+    }
+
+    /**
+     * Returns the words of all the groups of the page.
+     *
+     * @return list of the words, the most recently added go first
+     */
+    public List<DictionaryWord> words() {
+        return groups.stream().flatMap(group -> group.getWords().stream()).toList();
+    }
+
+    /**
+     * Words added to the dictionary on the same date.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class WordGroup {
+
+        private List<DictionaryWord> words = List.of();
+
+        public List<DictionaryWord> getWords() {
+            return words;
+        }
+
+        public WordGroup setWords(List<DictionaryWord> words) {
+            this.words = words;
+            return this;
+        }
+    }
+
+    /**
+     * Word of the dictionary, ids of the words grow in the order, in which they are added.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class DictionaryWord {
+
+        @JsonProperty("word_id")
+        private long id;
+
+        @JsonProperty("word_value")
+        private String value;
+
+        public long getId() {
+            return id;
+        }
+
+        public DictionaryWord setId(long id) {
+            this.id = id;
+            return this;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public DictionaryWord setValue(String value) {
+            this.value = value;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.ilyavy.model.lingualeo.api;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.github.ilyavy.model.Translation;
+
+/**
+ * Incremental parser of the body of the response of "gettranslates" call of LL api, which takes only the first,
+ * the most popular, translations of the word. The body is fed chunk by chunk, as it comes from the network,
+ * into a non-blocking JSON parser, the tokens of every object of "translate" array are buffered and bound
+ * to {@link Translation}, once the object is complete. The rest of the body, usually dozens of rarely used
+ * translations, is not parsed at all. Not thread-safe, a parser is used for a single response.
+ */
+public final class TranslationsParser {
+
+    private static final String TRANSLATIONS_FIELD = "translate";
+
+    private final ObjectMapper objectMapper;
+
+    private final int maxTranslations;
+
+    private final JsonParser parser;
+
+    private final List<Translation> translations = new ArrayList<>();
+
+    /** Tokens of the translation, which is being parsed. */
+    private TokenBuffer tokens;
+
+    private int depth;
+
+    private boolean completed;
+
+    /**
+     * Creates the parser.
+     * @param objectMapper mapper, which binds the translations
+     * @param maxTranslations maximum number of the translations parsed
+     * @throws IOException if the parser cannot be created
+     */
+    public TranslationsParser(ObjectMapper objectMapper, int maxTranslations) throws IOException {
+        if (maxTranslations < 1) {
+            throw new IllegalArgumentException("At least one translation should be parsed: " + maxTranslations);
+        }
+        this.objectMapper = objectMapper;
+        this.maxTranslations = maxTranslations;
+        this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+    }
+
+    /**
+     * Parses the next chunk of the body, unless the translations are parsed already.
+     * @param chunk bytes of the body
+     * @return true - if the translations are parsed, the rest of the body is not needed, false - otherwise
+     * @throws IOException if the body is not valid JSON
+     */
+    public boolean feed(byte[] chunk) throws IOException {
+        if (completed) {
+            return true;
+        }
+
+        ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(chunk, 0, chunk.length);
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (tokens != null) {
+                tokens.copyCurrentEvent(parser);
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd() && --depth == 0) {
+                    translations.add(objectMapper.readValue(tokens.asParser(objectMapper), Translation.class));
+                    tokens = null;
+                    if (translations.size() == maxTranslations) {
+                        return complete();
+                    }
+                }
+            } else if (token == JsonToken.START_OBJECT && parser.getParsingContext().getParent().inArray()
+                    && isResponseAt(parser.getParsingContext().getParent().getParent(), TRANSLATIONS_FIELD)) {
+                tokens = new TokenBuffer(parser);
+                tokens.copyCurrentEvent(parser);
+                depth = 1;
+            } else if (token == JsonToken.END_ARRAY && isResponseAt(parser.getParsingContext(), TRANSLATIONS_FIELD)) {
+                return complete();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the translations are parsed, the rest of the body is not needed.
+     * @return true - if the translations are parsed, false - otherwise
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Returns the parsed translations.
+     * @return the translations in the order of the response, the list is empty, if the response has no translations
+     */
+    public List<Translation> getTranslations() {
+        return translations;
+    }
+
+    private boolean complete() throws IOException {
+        completed = true;
+        parser.close();
+        return true;
+    }
+
+    /**
+     * Checks whether the context is the root object, i.e. the response, at the value of the field.
+     */
+    private static boolean isResponseAt(JsonStreamContext context, String field) {
+        return context.inObject() && context.getParent().inRoot() && field.equals(context.getCurrentName());
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.ilyavy.service;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import com.github.ilyavy.model.Word;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Translates words and adds them to the user's Lingualeo dictionary. Several words are in flight at once,
+ * up to the configured concurrency, so the round-trips to the API overlap instead of going one after another,
+ * and every request takes a token of the shared {@link TokenBucket}, so the rate of the requests stays within
+ * the limits of the API. The translations are taken from {@link TranslationCacheService}, if they are cached,
+ * without any request. The responses can come back in any order, the added words are emitted in the order
+ * of the specified ones regardless.
+ */
+public class AddWordsPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(AddWordsPipeline.class);
+
+    private final LingualeoService lingualeoService;
+
+    private final TranslationCacheService translationCacheService;
+
+    private final int concurrency;
+
+    private final TokenBucket rateLimiter;
+
+    /**
+     * Creates the pipeline.
+     * @param lingualeoService service of Lingualeo API
+     * @param translationCacheService cache of the translations
+     * @param concurrency maximum number of the words processed at once
+     * @param rateLimiter limiter of the rate of the requests to the API
+     */
+    public AddWordsPipeline(LingualeoService lingualeoService, TranslationCacheService translationCacheService,
+                            int concurrency, TokenBucket rateLimiter) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency should be positive: " + concurrency);
+        }
+        this.lingualeoService = lingualeoService;
+        this.translationCacheService = translationCacheService;
+        this.concurrency = concurrency;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Requests the translations of the words and adds them with the translations to the dictionary,
+     * the call is non-blocking. A word, which cannot be translated or added, is logged and skipped,
+     * the other words are added anyway.
+     * @param words words to add
+     * @return flux of the added words, in the order of the specified ones
+     */
+    public Flux<Word> addWords(List<? extends Word> words) {
+        return Flux.fromIterable(words)
+                .flatMapSequential(word -> translationCacheService.get(word.getWord(),
+                                () -> rateLimited(() -> lingualeoService.requestTranslations(word.getWord())))
+                        .map(translations -> word.setTranslate(translations.get(0).getValue()))
+                        .flatMap(translated -> rateLimited(() -> lingualeoService.addWordToDictionary(translated)))
+                        .onErrorResume(e -> {
+                            logger.error("The word `{}` cannot be added to the dictionary", word.getWord(), e);
+                            return Mono.empty();
+                        }), concurrency)
+                .doOnComplete(() -> logger.debug("Translation cache: {}", translationCacheService.getStatistics()));
+    }
+
+    private <T> Mono<T> rateLimited(Supplier<Mono<T>> request) {
+        return Mono.defer(() -> rateLimiter.acquire().then(Mono.defer(request)));
+    }
+}
@@ -0,0 +1,176 @@
+package com.github.ilyavy.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.ilyavy.dao.UserDataDao;
+import com.github.ilyavy.model.Word;
+import com.github.ilyavy.service.parser.AnalysisProgress;
+import com.github.ilyavy.service.parser.KnownWords;
+import com.github.ilyavy.service.parser.LemmatizationMode;
+import com.github.ilyavy.service.parser.Lemmatizer;
+import com.github.ilyavy.service.parser.TextStatistics;
+import com.github.ilyavy.service.parser.word.SimpleWord;
+import com.github.ilyavy.service.reader.ContentHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Keeps the results of the analysis of books in the DB, so a book, which is opened again, is not analyzed again.
+ * The results are keyed by the hash of the book's content and the configuration of the analysis, any change
+ * of the configuration, e.g. of the lemmatization mode, the list of stop words or the known words, makes the results
+ * unreachable.
+ * The least recently used results are evicted, when the total size of them exceeds the configured one.
+ */
+@Service
+public class AnalysisCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisCacheService.class);
+
+    /** Should be changed, when the format of the results or the way of the analysis changes. */
+    private static final int FORMAT_VERSION = 4;
+
+    private final UserDataDao userDataDao;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final long maxTotalSize;
+
+    private final boolean enabled;
+
+    private final String stopWordsHash;
+
+    @Autowired
+    public AnalysisCacheService(UserDataDao userDataDao,
+                                @Value("${analysis.cache.enabled:true}") boolean enabled,
+                                @Value("${analysis.cache.max-size-mb:256}") long maxSizeMb) {
+        this.userDataDao = userDataDao;
+        this.enabled = enabled;
+        this.maxTotalSize = maxSizeMb * 1024 * 1024;
+        this.stopWordsHash = Lemmatizer.stopWordsHash();
+    }
+
+    /**
+     * Returns the key of the analysis of the book with the specified configuration. The book's file is read,
+     * so the call is blocking.
+     * @param bookFile book's file
+     * @param mode lemmatization mode
+     * @param parserClass class of the parser analyzing the book
+     * @param knownWords words dropped from the results of the analysis
+     * @return key of the analysis
+     * @throws IOException if the book's file cannot be read
+     */
+    public String keyOf(File bookFile, LemmatizationMode mode, Class<?> parserClass, KnownWords knownWords)
+            throws IOException {
+        return ContentHash.of(bookFile) + "-" + mode + "-" + stopWordsHash + "-" + parserClass.getSimpleName()
+                + "-" + Long.toHexString(knownWords.fingerprint()) + "-v" + FORMAT_VERSION;
+    }
+
+    /**
+     * Returns the persisted result of the analysis.
+     * @param cacheKey key of the analysis
+     * @return complete snapshot of the analysis, or empty Mono if the book was not analyzed
+     */
+    public Mono<AnalysisProgress> get(String cacheKey) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+
+        return userDataDao.getAnalysis(cacheKey)
+                .map(this::deserialize)
+                .doOnNext(analysis -> logger.debug("The analysis `{}` is taken from the cache", cacheKey))
+                .onErrorResume(e -> {
+                    logger.error("The analysis cannot be taken from the cache", e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Persists the result of the analysis, the call is non-blocking.
+     * @param cacheKey key of the analysis
+     * @param analysis complete snapshot of the analysis
+     */
+    public void put(String cacheKey, AnalysisProgress analysis) {
+        if (!enabled) {
+            return;
+        }
+
+        Mono.fromCallable(() -> serialize(analysis))
+                .flatMap(payload -> userDataDao.persistAnalysis(cacheKey, payload, maxTotalSize))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(ignored -> { },
+                        e -> logger.error("The analysis cannot be persisted", e),
+                        () -> logger.debug("The analysis `{}` is persisted", cacheKey));
+    }
+
+    private byte[] serialize(AnalysisProgress analysis) throws IOException {
+        List<CachedWord> cachedWords = analysis.getWords().entrySet().stream()
+                .map(e -> new CachedWord(e.getKey(), e.getValue().getCount(), e.getValue().getContexts()))
+                .collect(Collectors.toList());
+        List<CachedChapter> cachedChapters = analysis.getStatistics() == null ? List.of()
+                : analysis.getStatistics().getChapters().stream()
+                        .map(c -> new CachedChapter(c.getTitle(), c.getSentences(), c.getWords(), c.getSyllables()))
+                        .collect(Collectors.toList());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, new CachedAnalysis(cachedWords, cachedChapters));
+        }
+        return bytes.toByteArray();
+    }
+
+    private AnalysisProgress deserialize(byte[] payload) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            CachedAnalysis cachedAnalysis = objectMapper.readValue(in, CachedAnalysis.class);
+
+            Map<String, Word> words = new HashMap<>(cachedAnalysis.words().size() * 2);
+            for (CachedWord cachedWord : cachedAnalysis.words()) {
+                Word word = new SimpleWord(cachedWord.key())
+                        .setContexts(cachedWord.contexts().toArray(new CharSequence[0]))
+                        .setCount(cachedWord.count());
+                words.put(cachedWord.key(), word);
+            }
+            TextStatistics statistics = new TextStatistics(cachedAnalysis.chapters().stream()
+                    .map(c -> new TextStatistics.Chapter(c.title(), c.sentences(), c.words(), c.syllables()))
+                    .collect(Collectors.toList()));
+            return AnalysisProgress.completed(words, statistics);
+
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Analysis as it's persisted: the words and the readability statistics of the chapters.
+     */
+    record CachedAnalysis(List<CachedWord> words, List<CachedChapter> chapters) {
+    }
+
+    /**
+     * Word as it's persisted, the key is the one, by which the word is found in the map of the analysis.
+     */
+    record CachedWord(String key, long count, List<String> contexts) {
+    }
+
+    /**
+     * Readability statistics of a chapter as they are persisted.
+     */
+    record CachedChapter(String title, long sentences, long words, long syllables) {
+    }
+}
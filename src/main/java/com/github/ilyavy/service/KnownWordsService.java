@@ -0,0 +1,104 @@
+package com.github.ilyavy.service;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.PostConstruct;
+
+import com.github.ilyavy.dao.UserDataDao;
+import com.github.ilyavy.model.lingualeo.api.DictionaryResponse.DictionaryWord;
+import com.github.ilyavy.service.parser.KnownWords;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps the words of the user's Lingualeo dictionary in the DB and in memory as {@link KnownWords}, so the words,
+ * which the user already has in the dictionary, are dropped from the results of the analysis of books.
+ * The dictionary is synchronized incrementally, only the words added after the last synchronized one are requested.
+ * Words removed from the dictionary on Lingualeo side stay known.
+ */
+@Service
+@DependsOn("userService")
+public class KnownWordsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KnownWordsService.class);
+
+    private final UserDataDao userDataDao;
+
+    private final LingualeoService lingualeoService;
+
+    private final boolean enabled;
+
+    private final AtomicReference<KnownWords> knownWords = new AtomicReference<>(KnownWords.none());
+
+    @Autowired
+    public KnownWordsService(UserDataDao userDataDao, LingualeoService lingualeoService,
+                             @Value("${analysis.known-words.enabled:true}") boolean enabled) {
+        this.userDataDao = userDataDao;
+        this.lingualeoService = lingualeoService;
+        this.enabled = enabled;
+    }
+
+    /** Loads the persisted words, then synchronizes them with the dictionary, the call is non-blocking. */
+    @PostConstruct
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+
+        userDataDao.getKnownWords()
+                .doOnNext(words -> knownWords.set(KnownWords.of(words)))
+                .then(sync())
+                .subscribe(words -> logger.debug("{} known words are loaded", words.size()),
+                        e -> logger.error("The known words cannot be loaded", e));
+    }
+
+    /**
+     * Requests the words added to the user's dictionary since the last synchronization and persists them.
+     * Nothing is requested, if the user is not authenticated.
+     * @return Mono of the known words after the synchronization
+     */
+    public Mono<KnownWords> sync() {
+        if (!enabled) {
+            return Mono.just(KnownWords.none());
+        }
+
+        return Mono.defer(() -> {
+            if (!lingualeoService.isUserAuthenticated()) {
+                return Mono.just(knownWords.get());
+            }
+
+            return userDataDao.getLastKnownWordId()
+                    .flatMap(lastWordId -> lingualeoService.getDictionaryWords(lastWordId)
+                            .collectMap(word -> word.getValue().toLowerCase(), DictionaryWord::getId))
+                    .flatMap(this::add);
+        });
+    }
+
+    /**
+     * Returns the known words at the moment, they are not changed, when the words are synchronized later.
+     * @return known words
+     */
+    public KnownWords current() {
+        return knownWords.get();
+    }
+
+    private Mono<KnownWords> add(Map<String, Long> newWords) {
+        if (newWords.isEmpty()) {
+            return Mono.just(knownWords.get());
+        }
+
+        return userDataDao.persistKnownWords(newWords)
+                .then(userDataDao.getKnownWords())
+                .map(KnownWords::of)
+                .doOnNext(words -> {
+                    knownWords.set(words);
+                    logger.debug("{} words of the dictionary are synchronized", newWords.size());
+                });
+    }
+}
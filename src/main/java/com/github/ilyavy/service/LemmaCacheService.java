@@ -0,0 +1,88 @@
+package com.github.ilyavy.service;
+
+import java.time.Duration;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.github.ilyavy.dao.UserDataDao;
+import com.github.ilyavy.service.parser.CachingLemmatizer;
+import com.github.ilyavy.service.parser.LemmaCache;
+import com.github.ilyavy.service.parser.LemmatizationMode;
+import com.github.ilyavy.service.parser.Lemmatizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the lemma cache in the DB between the runs of the application, so the words already met in other books
+ * are not lemmatized again. The cache is loaded at startup and persisted at shutdown. The lemmas are persisted
+ * with the version of the lemmatization, which produced them, the lemmas of other versions, e.g. with another list
+ * of stop words, are deleted at startup.
+ */
+@Service
+@DependsOn("userService")
+public class LemmaCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LemmaCacheService.class);
+
+    private static final Duration PERSISTENCE_TIMEOUT = Duration.ofSeconds(30);
+
+    /** Should be changed, when the keys of the cache or the way of the lemmatization change. */
+    private static final int FORMAT_VERSION = 2;
+
+    /** The lemmas are cached only by {@link CachingLemmatizer}, which lemmatizes in this mode. */
+    private static final LemmatizationMode MODE = LemmatizationMode.ACCURATE;
+
+    private final UserDataDao userDataDao;
+
+    private final LemmaCache lemmaCache;
+
+    private final boolean persistent;
+
+    private final String version = MODE + "-" + Lemmatizer.stopWordsHash() + "-v" + FORMAT_VERSION;
+
+    @Autowired
+    public LemmaCacheService(UserDataDao userDataDao, LemmaCache lemmaCache,
+                             @Value("${analysis.lemma-cache.persistent:true}") boolean persistent) {
+        this.userDataDao = userDataDao;
+        this.lemmaCache = lemmaCache;
+        this.persistent = persistent;
+    }
+
+    /** Loads the persisted lemmas into the cache. */
+    @PostConstruct
+    public void load() {
+        if (!persistent) {
+            return;
+        }
+
+        userDataDao.deleteLemmasExcept(version)
+                .doOnNext(deleted -> logger.debug("{} lemmas of other versions of the lemmatization are deleted",
+                        deleted))
+                .then(userDataDao.getCachedLemmas(version))
+                .subscribe(lemmas -> {
+                            lemmaCache.putAll(lemmas);
+                            logger.debug("{} lemmas are loaded into the cache", lemmas.size());
+                        },
+                        e -> logger.error("The lemma cache cannot be loaded", e));
+    }
+
+    /** Persists the lemmas of the cache, the work of this part is blocking. */
+    @PreDestroy
+    public void persist() {
+        logger.debug("Lemma cache hits: {}, misses: {}", lemmaCache.getHits(), lemmaCache.getMisses());
+        if (!persistent) {
+            return;
+        }
+
+        try {
+            userDataDao.persistLemmas(lemmaCache.snapshot(), version).block(PERSISTENCE_TIMEOUT);
+        } catch (RuntimeException e) {
+            logger.error("The lemma cache cannot be persisted", e);
+        }
+    }
+}
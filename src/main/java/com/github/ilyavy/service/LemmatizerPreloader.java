@@ -0,0 +1,108 @@
+package com.github.ilyavy.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.github.ilyavy.service.parser.Cancellation;
+import com.github.ilyavy.service.parser.LemmatizationMode;
+import com.github.ilyavy.service.parser.LemmatizerPools;
+import com.github.ilyavy.service.parser.PooledLemmatizerForkJoinBookTextParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Loads the models of the lemmatizers in background at startup, while the GUI is being shown, and warms them up
+ * on a short text, so the hot paths are compiled by the time the first book is analyzed. The warm-up is cancelled,
+ * if the application is closed before it is finished.
+ */
+@Service
+public class LemmatizerPreloader {
+
+    private static final Logger logger = LoggerFactory.getLogger(LemmatizerPreloader.class);
+
+    private static final String WARM_UP_TEXT = "little-red-riding-hood.txt";
+
+    private static final int WARM_UP_ROUNDS = 3;
+
+    /** The mode, which lemmatizers are slow to create, others do not need preloading. */
+    private static final LemmatizationMode PRELOADED_MODE = LemmatizationMode.ACCURATE;
+
+    private final Mono<Void> preloading;
+
+    private final Cancellation cancellation = new Cancellation();
+
+    @Autowired
+    public LemmatizerPreloader(LemmatizerPools lemmatizerPools,
+                               @Value("${analysis.lemmatizer.preload:true}") boolean enabled) {
+        this.preloading = enabled
+                ? Mono.<Void>fromRunnable(() -> warmUp(lemmatizerPools, cancellation))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .onErrorResume(CancellationException.class, e -> {
+                            logger.debug("The preloading of the lemmatizers is cancelled");
+                            return Mono.empty();
+                        })
+                        .onErrorResume(e -> {
+                            logger.error("The lemmatizers cannot be preloaded", e);
+                            return Mono.empty();
+                        })
+                        .cache()
+                : Mono.empty();
+    }
+
+    /** Starts the preloading in background. */
+    @PostConstruct
+    public void preload() {
+        preloading.subscribe();
+    }
+
+    /** Cancels the preloading, if it is still in progress. */
+    @PreDestroy
+    public void cancel() {
+        cancellation.cancel();
+    }
+
+    /**
+     * Returns Mono, which completes, when the lemmatizers of the mode are ready. If they are already ready,
+     * or the mode does not need preloading, it completes immediately.
+     * @param mode lemmatization mode
+     * @return Mono completing, when the lemmatizers are ready
+     */
+    public Mono<Void> ready(LemmatizationMode mode) {
+        return mode == PRELOADED_MODE ? preloading : Mono.empty();
+    }
+
+    private static void warmUp(LemmatizerPools lemmatizerPools, Cancellation cancellation) {
+        long start = System.nanoTime();
+        String text = readWarmUpText();
+        PooledLemmatizerForkJoinBookTextParser parser =
+                new PooledLemmatizerForkJoinBookTextParser(lemmatizerPools.get(PRELOADED_MODE));
+
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            parser.countWords(parser.sentences(text), cancellation);
+        }
+        logger.debug("The lemmatizers are preloaded in {} ms",
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private static String readWarmUpText() {
+        try (InputStream text = LemmatizerPreloader.class.getClassLoader().getResourceAsStream(WARM_UP_TEXT)) {
+            if (text == null) {
+                throw new IllegalStateException("Warm-up text is not found: " + WARM_UP_TEXT);
+            }
+            return new String(text.readAllBytes(), StandardCharsets.UTF_8).replaceAll("[\\r\\n]", " ");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -1,13 +1,25 @@
 package com.github.ilyavy.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.ilyavy.model.LingualeoProfile;
+import com.github.ilyavy.model.Translation;
 import com.github.ilyavy.model.Word;
+import com.github.ilyavy.model.lingualeo.api.DictionaryResponse;
+import com.github.ilyavy.model.lingualeo.api.DictionaryResponse.DictionaryWord;
 import com.github.ilyavy.model.lingualeo.api.LoginResponse;
-import com.github.ilyavy.model.lingualeo.api.TranslateResponse;
+import com.github.ilyavy.model.lingualeo.api.TranslationsParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -19,13 +31,24 @@ public class LingualeoService {
 
     private static final Logger logger = LoggerFactory.getLogger(LingualeoService.class);
 
-    private static final String BASE_URL = "https://api.lingualeo.com/";
+    /** URL of the real Lingualeo API, a local stand-in can be used instead, e.g. in development. */
+    public static final String DEFAULT_BASE_URL = "https://api.lingualeo.com/";
+
+    /** Default maximum number of the translations of a word taken from a response, the most popular ones. */
+    public static final int DEFAULT_MAX_TRANSLATIONS = 5;
 
     /** The name of the cookie, responsible for a user's session. */
     public static final String COOKIE_NAME = "remember";
 
+    private final WebClient webClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
     private volatile String sessionCookie;
 
+    private int maxTranslations = DEFAULT_MAX_TRANSLATIONS;
+
     /** An active user's profile. */
     private LingualeoProfile lingualeoProfile;
 
@@ -33,7 +56,16 @@ public class LingualeoService {
      * Creates LingualeoApi object.
      */
     public LingualeoService() {
+        this(WebClient.create(DEFAULT_BASE_URL));
+    }
 
+    /**
+     * Creates LingualeoApi object sending the requests with the specified client, all the requests share it,
+     * so the connections to the API are reused.
+     * @param webClient client with the URL of the API as the base one
+     */
+    public LingualeoService(WebClient webClient) {
+        this.webClient = webClient;
     }
 
     /**
@@ -42,6 +74,17 @@ public class LingualeoService {
      * @param sessionCookie user's session cookie
      */
     public LingualeoService(LingualeoProfile lingualeoProfile, String sessionCookie) {
+        this(WebClient.create(DEFAULT_BASE_URL), lingualeoProfile, sessionCookie);
+    }
+
+    /**
+     * Creates LingualeoApi object with the specified parameters.
+     * @param webClient client with the URL of the API as the base one
+     * @param lingualeoProfile previously persisted user's profile
+     * @param sessionCookie user's session cookie
+     */
+    public LingualeoService(WebClient webClient, LingualeoProfile lingualeoProfile, String sessionCookie) {
+        this.webClient = webClient;
         this.lingualeoProfile = lingualeoProfile;
         this.sessionCookie = sessionCookie;
     }
@@ -53,7 +96,7 @@ public class LingualeoService {
      * @return JsonObject, containing user's profile data.
      */
     public Mono<LingualeoProfile> login(final String email, final String password) {
-        return WebClient.create(BASE_URL)
+        return webClient
                 .get()
                 .uri(uriBuilder -> uriBuilder
                         .path("login")
@@ -94,7 +137,30 @@ public class LingualeoService {
      * @return Mono of the word with the translation
      */
     public Mono<Word> requestAndSetTranslation(Word word) {
-        return WebClient.create(BASE_URL)
+        return requestTranslations(word.getWord())
+                .map(translations -> word.setTranslate(translations.get(0).getValue()));
+    }
+
+    /**
+     * Sets the maximum number of the translations of a word taken from a response. The translations are cached
+     * by {@link TranslationCacheService}, it should be created with the same maximum.
+     * @param maxTranslations maximum number of the translations, the most popular ones
+     * @return this service
+     */
+    public LingualeoService setMaxTranslations(int maxTranslations) {
+        this.maxTranslations = maxTranslations;
+        return this;
+    }
+
+    /**
+     * Returns the translations of the specified word, the call is non-blocking. Only the first, the most popular,
+     * translations are parsed from the response, see {@link #setMaxTranslations(int)}, the rest of the response
+     * is skipped.
+     * @param word word to translate
+     * @return Mono of the translations, the most popular goes first, there is at least one translation
+     */
+    public Mono<List<Translation>> requestTranslations(String word) {
+        return webClient
                 .get()
                 .uri(uriBuilder -> uriBuilder
                         .path("gettranslates")
@@ -102,8 +168,71 @@ public class LingualeoService {
                         .build())
                 .cookie(COOKIE_NAME, sessionCookie)
                 .retrieve()
-                .bodyToMono(TranslateResponse.class)
-                .map(r -> word.setTranslate(r.getTranslate()[0].getValue()));
+                .bodyToFlux(DataBuffer.class)
+                .reduceWith(this::createTranslationsParser, (parser, buffer) -> {
+                    try {
+                        // The rest of the body is only read out, so the connection can be reused
+                        if (!parser.isCompleted()) {
+                            byte[] chunk = new byte[buffer.readableByteCount()];
+                            buffer.read(chunk);
+                            parser.feed(chunk);
+                        }
+                        return parser;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                })
+                .map(TranslationsParser::getTranslations)
+                .filter(translations -> !translations.isEmpty())
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("No translation of the word: " + word)));
+    }
+
+    private TranslationsParser createTranslationsParser() {
+        try {
+            return new TranslationsParser(objectMapper, maxTranslations);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the words of the user's dictionary added after the specified one, the most recently added go first.
+     * The pages of the dictionary are requested one by one, until the specified word is reached, so only the new
+     * words are transferred, when the dictionary is synchronized incrementally. The call is non-blocking.
+     * @param afterWordId id of the last word already known, 0 to get all the words
+     * @return flux of the words
+     */
+    public Flux<DictionaryWord> getDictionaryWords(long afterWordId) {
+        return getDictionaryPage(1)
+                .expand(page -> page.response().isShowMore()
+                        && page.response().words().stream().allMatch(word -> word.getId() > afterWordId)
+                        ? getDictionaryPage(page.number() + 1)
+                        : Mono.empty())
+                .concatMapIterable(page -> page.response().words())
+                .takeWhile(word -> word.getId() > afterWordId);
+    }
+
+    private Mono<DictionaryPage> getDictionaryPage(int number) {
+        return requestDictionaryPage(number).map(response -> new DictionaryPage(number, response));
+    }
+
+    /**
+     * Requests the page of the user's dictionary.
+     * @param number number of the page starting from 1
+     * @return Mono of the page
+     */
+    Mono<DictionaryResponse> requestDictionaryPage(int number) {
+        return webClient
+                .get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("userdict")
+                        .queryParam("page", number)
+                        .build())
+                .cookie(COOKIE_NAME, sessionCookie)
+                .retrieve()
+                .bodyToMono(DictionaryResponse.class);
     }
 
     /**
@@ -111,7 +240,7 @@ public class LingualeoService {
      * @param word word to add to a dictionary
      */
     public Mono<Word> addWordToDictionary(Word word) {
-        return WebClient.create(BASE_URL)
+        return webClient
                 .get()
                 .uri(uriBuilder -> uriBuilder
                         .path("addword")
@@ -124,4 +253,10 @@ public class LingualeoService {
                 .bodyToMono(String.class)
                 .map(r -> word);
     }
+
+    /**
+     * Page of the user's dictionary with its number.
+     */
+    private record DictionaryPage(int number, DictionaryResponse response) {
+    }
 }
@@ -0,0 +1,71 @@
+package com.github.ilyavy.service;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking rate limiter: a bucket of tokens refilled at a constant rate up to its capacity, every request takes
+ * a token. A request, which finds the bucket empty, reserves the next token to come and is delayed until then,
+ * no thread is blocked while waiting. So bursts up to the capacity go at once, and the long-run rate of the requests
+ * never exceeds the rate of the refill. Thread-safe.
+ */
+public class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long nanosPerToken;
+
+    private final long capacityNanos;
+
+    private final LongSupplier nanoTime;
+
+    /**
+     * The time, when the bucket becomes full, it can be in the past; the tokens available now are the time
+     * left till the moment, divided by the interval of a token.
+     */
+    private long fullAt;
+
+    /**
+     * Creates the bucket, which is full at first.
+     * @param tokensPerSecond rate of the refill
+     * @param capacity maximum number of the tokens, which can be taken at once
+     */
+    public TokenBucket(double tokensPerSecond, int capacity) {
+        this(tokensPerSecond, capacity, System::nanoTime);
+    }
+
+    TokenBucket(double tokensPerSecond, int capacity, LongSupplier nanoTime) {
+        if (tokensPerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("The rate and the capacity of the bucket should be positive");
+        }
+        this.nanosPerToken = (long) (NANOS_PER_SECOND / tokensPerSecond);
+        this.capacityNanos = nanosPerToken * capacity;
+        this.nanoTime = nanoTime;
+        this.fullAt = nanoTime.getAsLong();
+    }
+
+    /**
+     * Takes a token, the returned Mono completes, when the token is available. The token is reserved
+     * at the moment of the call, not of the subscription, so the call should be deferred till the request.
+     * @return Mono completing, when the request can be sent
+     */
+    public Mono<Void> acquire() {
+        long delay = reserve();
+        return delay > 0 ? Mono.delay(Duration.ofNanos(delay)).then() : Mono.empty();
+    }
+
+    /**
+     * Reserves a token.
+     * @return nanoseconds to wait for the token, 0 - if it's available now
+     */
+    synchronized long reserve() {
+        long now = nanoTime.getAsLong();
+        // A full bucket doesn't get more tokens
+        long emptyAt = Math.max(fullAt, now) - capacityNanos;
+        long tokenAt = emptyAt + nanosPerToken;
+        fullAt = Math.max(fullAt, now) + nanosPerToken;
+        return Math.max(0, tokenAt - now);
+    }
+}
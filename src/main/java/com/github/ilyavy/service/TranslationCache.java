@@ -0,0 +1,96 @@
+package com.github.ilyavy.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.ilyavy.model.Translation;
+
+/**
+ * Concurrent size-bounded in-memory cache of the translations by the words. The cache is split into segments,
+ * every segment is guarded by its own lock and evicts the least recently used entries, when it is full.
+ */
+public class TranslationCache {
+
+    private static final int SEGMENTS_NUMBER = 16;
+
+    private final int maxSize;
+
+    private final Segment[] segments = new Segment[SEGMENTS_NUMBER];
+
+    /**
+     * Creates the cache.
+     * @param maxSize maximum number of the words in the cache
+     */
+    public TranslationCache(final int maxSize) {
+        if (maxSize < SEGMENTS_NUMBER) {
+            throw new IllegalArgumentException("Size of the cache should be at least " + SEGMENTS_NUMBER + ": "
+                    + maxSize);
+        }
+        this.maxSize = maxSize;
+        for (int i = 0; i < SEGMENTS_NUMBER; i++) {
+            segments[i] = new Segment(maxSize / SEGMENTS_NUMBER);
+        }
+    }
+
+    /**
+     * Returns the translations of the word.
+     * @param word lowercased word
+     * @return translations, or null if they are not cached
+     */
+    public List<Translation> get(final String word) {
+        Segment segment = segmentOf(word);
+        synchronized (segment) {
+            return segment.get(word);
+        }
+    }
+
+    /**
+     * Puts the translations of the word.
+     * @param word lowercased word
+     * @param translations translations, the list should not be changed afterwards
+     */
+    public void put(final String word, final List<Translation> translations) {
+        Segment segment = segmentOf(word);
+        synchronized (segment) {
+            segment.put(word, translations);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    private Segment segmentOf(final String word) {
+        int hash = word.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS_NUMBER - 1)];
+    }
+
+    /**
+     * Part of the cache, ordered by access, which removes the eldest entry, when the capacity is exceeded.
+     */
+    private static final class Segment extends LinkedHashMap<String, List<Translation>> {
+
+        private final int capacity;
+
+        Segment(final int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, List<Translation>> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.github.ilyavy.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.ilyavy.dao.UserDataDao;
+import com.github.ilyavy.model.Translation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Two-tier cache of the translations of the words: the words translated recently are kept in memory,
+ * in {@link TranslationCache}, and all the translations are kept in the DB for the configured time, so the words
+ * translated in the previous runs of the application are not requested from Lingualeo again. The translations
+ * found in the DB are put into memory. The hits of both tiers are counted. Only the first, the most popular,
+ * translations of a word are requested, so the translations persisted with another maximum number of them
+ * are invalidated.
+ */
+@Service
+@DependsOn("userService")
+public class TranslationCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TranslationCacheService.class);
+
+    private static final TypeReference<List<Translation>> TRANSLATIONS_TYPE = new TypeReference<>() { };
+
+    private final UserDataDao userDataDao;
+
+    private final TranslationCache translationCache;
+
+    private final Duration ttl;
+
+    private final boolean persistent;
+
+    private final int maxTranslations;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final LongAdder memoryHits = new LongAdder();
+
+    private final LongAdder persistentHits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates the cache of the translations requested with the default maximum number of them.
+     */
+    public TranslationCacheService(UserDataDao userDataDao, TranslationCache translationCache, Duration ttl,
+                                   boolean persistent) {
+        this(userDataDao, translationCache, ttl, persistent, LingualeoService.DEFAULT_MAX_TRANSLATIONS);
+    }
+
+    /**
+     * Creates the cache of the translations.
+     * @param maxTranslations maximum number of the translations of a word, with which they are requested
+     */
+    @Autowired
+    public TranslationCacheService(UserDataDao userDataDao, TranslationCache translationCache,
+                                   @Value("${lingualeo.translation-cache.ttl:30d}") Duration ttl,
+                                   @Value("${lingualeo.translation-cache.persistent:true}") boolean persistent,
+                                   @Value("${lingualeo.translations.max-count:"
+                                           + LingualeoService.DEFAULT_MAX_TRANSLATIONS + "}") int maxTranslations) {
+        this.userDataDao = userDataDao;
+        this.translationCache = translationCache;
+        this.ttl = ttl;
+        this.persistent = persistent;
+        this.maxTranslations = maxTranslations;
+    }
+
+    /** Deletes the expired translations and the ones requested with another maximum number of them from the DB. */
+    @PostConstruct
+    public void deleteExpired() {
+        if (!persistent) {
+            return;
+        }
+
+        userDataDao.deleteTranslations(LocalDateTime.now().minus(ttl), maxTranslations)
+                .subscribe(deleted -> logger.debug("{} expired translations are deleted", deleted),
+                        e -> logger.error("The expired translations cannot be deleted", e));
+    }
+
+    /**
+     * Returns the cached translations of the word, or loads them and puts into the cache, if they are not cached,
+     * the call is non-blocking.
+     * @param word word in any case
+     * @param loader loader of the translations, e.g. requesting them from Lingualeo, it's called on a miss only
+     * @return Mono of the translations
+     */
+    public Mono<List<Translation>> get(String word, Supplier<Mono<List<Translation>>> loader) {
+        String key = word.toLowerCase();
+        return Mono.defer(() -> {
+            List<Translation> translations = translationCache.get(key);
+            if (translations != null) {
+                memoryHits.increment();
+                return Mono.just(translations);
+            }
+
+            return getPersisted(key)
+                    .doOnNext(persisted -> {
+                        persistentHits.increment();
+                        translationCache.put(key, persisted);
+                    })
+                    .switchIfEmpty(Mono.defer(() -> {
+                        misses.increment();
+                        return loader.get().flatMap(loaded -> put(key, loaded).thenReturn(loaded));
+                    }));
+        });
+    }
+
+    /**
+     * Returns the statistics of the cache since the start of the application.
+     * @return statistics
+     */
+    public Statistics getStatistics() {
+        return new Statistics(memoryHits.sum(), persistentHits.sum(), misses.sum());
+    }
+
+    /** Logs the statistics of the cache. */
+    @PreDestroy
+    public void logStatistics() {
+        logger.info("Translation cache: {}", getStatistics());
+    }
+
+    private Mono<List<Translation>> getPersisted(String word) {
+        if (!persistent) {
+            return Mono.empty();
+        }
+
+        return userDataDao.getTranslations(word, LocalDateTime.now().minus(ttl), maxTranslations)
+                .<List<Translation>>handle((json, sink) -> {
+                    try {
+                        sink.next(objectMapper.readValue(json, TRANSLATIONS_TYPE));
+                    } catch (JsonProcessingException e) {
+                        // The word is requested again and the translations are replaced
+                        logger.error("The cached translations of `{}` cannot be read", word, e);
+                    }
+                })
+                .onErrorResume(e -> {
+                    logger.error("The cached translations of `{}` cannot be retrieved", word, e);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> put(String word, List<Translation> translations) {
+        List<Translation> cached = List.copyOf(translations);
+        translationCache.put(word, cached);
+        if (!persistent) {
+            return Mono.empty();
+        }
+
+        try {
+            return userDataDao.persistTranslations(word, objectMapper.writeValueAsString(cached), maxTranslations)
+                    .onErrorResume(e -> {
+                        logger.error("The translations of `{}` cannot be persisted", word, e);
+                        return Mono.empty();
+                    });
+        } catch (JsonProcessingException e) {
+            logger.error("The translations of `{}` cannot be persisted", word, e);
+            return Mono.empty();
+        }
+    }
+
+    /**
+     * Numbers of the hits of the tiers of the cache and of the misses.
+     * @param memoryHits translations found in memory
+     * @param persistentHits translations found in the DB
+     * @param misses translations requested from Lingualeo
+     */
+    public record Statistics(long memoryHits, long persistentHits, long misses) {
+
+        /**
+         * Returns the share of the translations found in any tier of the cache.
+         * @return hit rate from 0 to 1, 0 if there were no lookups
+         */
+        public double hitRate() {
+            long lookups = memoryHits + persistentHits + misses;
+            return lookups == 0 ? 0 : (double) (memoryHits + persistentHits) / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("memory hits: %d, DB hits: %d, misses: %d, hit rate: %.1f%%",
+                    memoryHits, persistentHits, misses, hitRate() * 100);
+        }
+    }
+}
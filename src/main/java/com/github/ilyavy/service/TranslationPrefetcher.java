@@ -0,0 +1,85 @@
+package com.github.ilyavy.service;
+
+import java.util.List;
+
+import com.github.ilyavy.model.Word;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Translates the words, which are likely to be shown or added next, in background, so their translations are
+ * at hand, when they are needed. The prefetch has a lower priority than the requests of the user: it has its own
+ * budget and a smaller number of the words in flight, and it stops after the budget of the words is spent.
+ * The requests take the tokens of the {@link TokenBucket} shared with {@link AddWordsPipeline}, so together they
+ * don't exceed the rate allowed by the API. The translations are put into {@link TranslationCacheService},
+ * so adding the prefetched words to the dictionary doesn't request them again. The words themselves are not
+ * changed, they can be shown at the same time, the translations are only emitted.
+ */
+public class TranslationPrefetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TranslationPrefetcher.class);
+
+    private final LingualeoService lingualeoService;
+
+    private final TranslationCacheService translationCacheService;
+
+    private final int concurrency;
+
+    private final TokenBucket rateLimiter;
+
+    private final int maxWords;
+
+    /**
+     * Creates the prefetcher.
+     * @param lingualeoService service of Lingualeo API
+     * @param translationCacheService cache of the translations
+     * @param concurrency maximum number of the words translated at once
+     * @param rateLimiter limiter of the rate of the requests to the API, shared with the other requests
+     * @param maxWords maximum number of the words translated by a prefetch, 0 disables the prefetch
+     */
+    public TranslationPrefetcher(LingualeoService lingualeoService, TranslationCacheService translationCacheService,
+                                 int concurrency, TokenBucket rateLimiter, int maxWords) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency should be positive: " + concurrency);
+        }
+        if (maxWords < 0) {
+            throw new IllegalArgumentException("Number of the prefetched words should not be negative: " + maxWords);
+        }
+        this.lingualeoService = lingualeoService;
+        this.translationCacheService = translationCacheService;
+        this.concurrency = concurrency;
+        this.rateLimiter = rateLimiter;
+        this.maxWords = maxWords;
+    }
+
+    /**
+     * Translates the words, which are not translated yet, in the specified order, and emits the most popular
+     * translation of every word, the call is non-blocking. A word, which cannot be translated, is skipped.
+     * The prefetch is stopped by cancelling the subscription, e.g. when other words are shown.
+     * @param words words in the order of priority, the first ones are translated first
+     * @return flux of the translations, in the order of their translation
+     */
+    public Flux<Prefetched> prefetch(List<? extends Word> words) {
+        return Flux.fromIterable(words)
+                .filter(word -> word.getTranslate() == null || word.getTranslate().isEmpty())
+                .take(maxWords)
+                .flatMap(word -> translationCacheService.get(word.getWord(),
+                                () -> rateLimiter.acquire().then(Mono.defer(
+                                        () -> lingualeoService.requestTranslations(word.getWord()))))
+                        .map(translations -> new Prefetched(word.getWord(), translations.get(0).getValue()))
+                        .onErrorResume(e -> {
+                            logger.debug("The translation of `{}` cannot be prefetched", word.getWord(), e);
+                            return Mono.empty();
+                        }), concurrency);
+    }
+
+    /**
+     * The most popular translation of a word.
+     * @param word the word
+     * @param translation its translation
+     */
+    public record Prefetched(String word, String translation) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.List;
+import java.util.Map;
+
+import com.github.ilyavy.model.Word;
+
+/**
+ * Snapshot of the analysis of a book in progress: the most frequent words found so far, the part of the book
+ * analyzed and the speed of the analysis. The last snapshot is complete, it holds all the words of the book
+ * and the readability statistics of it.
+ */
+public final class AnalysisProgress {
+
+    private final List<Word> topWords;
+
+    private final double percent;
+
+    private final double sentencesPerSecond;
+
+    private final Map<String, Word> words;
+
+    private final TextStatistics statistics;
+
+    AnalysisProgress(final List<Word> topWords, final double percent, final double sentencesPerSecond,
+                     final Map<String, Word> words, final TextStatistics statistics) {
+        this.topWords = topWords;
+        this.percent = percent;
+        this.sentencesPerSecond = sentencesPerSecond;
+        this.words = words;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Creates the complete snapshot of the analysis, which has been done before, e.g. taken from a cache.
+     *
+     * @param words map of all the words by their string values
+     * @param statistics readability statistics of the book
+     * @return complete snapshot
+     */
+    public static AnalysisProgress completed(final Map<String, Word> words, final TextStatistics statistics) {
+        return new AnalysisProgress(List.of(), 100, 0, words, statistics);
+    }
+
+    /**
+     * Returns the most frequent words found so far, in descending order of their counts.
+     *
+     * @return list of the words
+     */
+    public List<Word> getTopWords() {
+        return topWords;
+    }
+
+    /**
+     * Returns the approximate part of the book analyzed.
+     *
+     * @return percent from 0 to 100
+     */
+    public double getPercent() {
+        return percent;
+    }
+
+    public double getSentencesPerSecond() {
+        return sentencesPerSecond;
+    }
+
+    /**
+     * Returns all the words of the book, if the analysis is complete.
+     *
+     * @return map of the words by their string values, or null if the analysis is in progress
+     */
+    public Map<String, Word> getWords() {
+        return words;
+    }
+
+    /**
+     * Returns the readability statistics of the book, if the analysis is complete.
+     *
+     * @return statistics, or null if the analysis is in progress
+     */
+    public TextStatistics getStatistics() {
+        return statistics;
+    }
+
+    public boolean isComplete() {
+        return words != null;
+    }
+}
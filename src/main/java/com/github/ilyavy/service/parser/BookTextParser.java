@@ -3,14 +3,19 @@ package com.github.ilyavy.service.parser;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import com.github.ilyavy.model.Word;
 import com.github.ilyavy.service.parser.word.SimpleWord;
 import com.github.ilyavy.service.reader.BookFileReader;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Utility class. Allows to parse a text of a specified book.
@@ -27,8 +32,23 @@ public abstract class BookTextParser {
      */
     protected static final int WORD_LENGTH_THRESHOLD = 3;
 
+    /**
+     * Number of sentences lemmatized in one pass of the lemmatizer's pipeline.
+     */
+    protected static final int LEMMATIZATION_BATCH_SIZE = 64;
+
+    /**
+     * Maximum number of the sentences kept for a word as the examples of its usage.
+     */
+    protected static final int CONTEXTS_PER_WORD = 3;
+
     protected Lemmatizer lemmatizer;
 
+    /**
+     * Words, which are not counted, e.g. the ones a user already knows.
+     */
+    protected KnownWords knownWords = KnownWords.none();
+
     /**
      * The default constructor.
      */
@@ -43,13 +63,36 @@ public abstract class BookTextParser {
         this.lemmatizer = lemmatizer;
     }
 
+    /**
+     * Sets the words, which are dropped while counting, e.g. the words of the user's dictionary.
+     * @param knownWords known words
+     * @return this parser
+     */
+    public BookTextParser setKnownWords(final KnownWords knownWords) {
+        this.knownWords = knownWords;
+        return this;
+    }
+
+    /**
+     * Returns whether the parser processes the sentences in parallel, then the text is split into the sentences
+     * in parallel as well, see {@link ParallelSentenceSplitter}.
+     * @return true, if the sentences are processed in parallel, false by default
+     */
+    protected boolean isParallel() {
+        return false;
+    }
+
     /**
      * Returns the list of strings, each of which is a sentence
-     * from the provided text.
+     * from the provided text. Parallel parsers split the text in parallel, the sentences are the same.
      * @param text text to analyze.
      * @return list of sentences.
      */
     public List<String> parseTextIntoSentences(final String text) {
+        if (isParallel()) {
+            return new ParallelSentenceSplitter().split(text);
+        }
+
         List<String> sentences = new ArrayList<>();
         Pattern splitter = Pattern.compile("[^!?.]+");
         Matcher matcher = splitter.matcher(text);
@@ -62,85 +105,183 @@ public abstract class BookTextParser {
         return sentences;
     }
 
+    /**
+     * Returns the lazy spliterator of the sentences of the provided text. The sentences are the same
+     * as returned by {@link #parseTextIntoSentences(String)}, but they are not copied from the text.
+     * @param text text to analyze.
+     * @return spliterator of sentences.
+     */
+    public Spliterator<TextSpan> sentences(final CharSequence text) {
+        return new SentenceSpliterator(text);
+    }
+
     public abstract Map<String, Word> countWords(List<String> sentences);
 
+    /**
+     * Counts the words in the sentences provided by the spliterator. By default, every sentence is copied
+     * into a list of strings first, so the sentences are held in memory all at once, as if the text was split
+     * by {@link #parseTextIntoSentences(String)}. Parsers able to consume the sentences directly should override
+     * this method.
+     * @param sentences spliterator of sentences, e.g. returned by {@link #sentences(CharSequence)}.
+     * @return map of the words by their string values.
+     */
+    public Map<String, Word> countWords(Spliterator<? extends CharSequence> sentences) {
+        return countWords(copySentences(sentences));
+    }
+
+    /**
+     * Counts the words like {@link #countWords(List)} does, until the counting is cancelled. By default,
+     * the cancellation is checked only before and after the counting, parsers should override this method
+     * to check it between the sentences.
+     * @param sentences list of sentences
+     * @param cancellation cancellation of the counting
+     * @return map of the words by their string values
+     * @throws java.util.concurrent.CancellationException if the counting is cancelled
+     */
+    public Map<String, Word> countWords(List<String> sentences, Cancellation cancellation) {
+        cancellation.throwIfCancelled();
+        Map<String, Word> words = countWords(sentences);
+        cancellation.throwIfCancelled();
+        return words;
+    }
+
+    /**
+     * Counts the words like {@link #countWords(Spliterator)} does, until the counting is cancelled. By default,
+     * every sentence is copied into a list of strings and counted by {@link #countWords(List, Cancellation)},
+     * parsers able to consume the sentences directly should override this method.
+     * @param sentences spliterator of sentences
+     * @param cancellation cancellation of the counting
+     * @return map of the words by their string values
+     * @throws java.util.concurrent.CancellationException if the counting is cancelled
+     */
+    public Map<String, Word> countWords(Spliterator<? extends CharSequence> sentences, Cancellation cancellation) {
+        return countWords(copySentences(sentences), cancellation);
+    }
+
+    /**
+     * Counts the words in the sentences incrementally, as they arrive, without holding all of them in memory.
+     * Memory used for counting is bounded by the size of the vocabulary, not by the size of the text.
+     * @param sentences flux of sentences, e.g. returned by {@link ChunkedSentenceSplitter#split(Flux)}.
+     * @return mono of the map of the words by their string values.
+     */
+    public Mono<Map<String, Word>> countWords(Flux<? extends CharSequence> sentences) {
+        return sentences
+                .map(CharSequence::toString)
+                .buffer(LEMMATIZATION_BATCH_SIZE)
+                .reduceWith(HashMap::new, (wordsMap, batch) -> parseSentences(batch, wordsMap));
+    }
+
+    /**
+     * Counts the words like {@link #countWords(Spliterator, Cancellation)} does and collects the readability
+     * statistics of the sentences. By default, every sentence is copied into a list of strings and the statistics
+     * are collected in a separate pass, parsers tokenizing the sentences themselves should override this method
+     * to collect them in the same pass.
+     * @param sentences spliterator of sentences in the order of the text
+     * @param statistics statistics, to which the statistics of the sentences are added
+     * @param cancellation cancellation of the counting
+     * @return map of the words by their string values.
+     * @throws java.util.concurrent.CancellationException if the counting is cancelled
+     */
+    public Map<String, Word> countWords(Spliterator<? extends CharSequence> sentences, TextStatistics statistics,
+                                        Cancellation cancellation) {
+        List<String> list = copySentences(sentences);
+        cancellation.throwIfCancelled();
+        list.forEach(statistics::addSentence);
+        return countWords(list, cancellation);
+    }
+
+    /**
+     * Copies every sentence of the spliterator into a list of strings.
+     */
+    private static List<String> copySentences(final Spliterator<? extends CharSequence> sentences) {
+        List<String> list = new ArrayList<>();
+        sentences.forEachRemaining(sentence -> list.add(sentence.toString()));
+        return list;
+    }
+
     /**
      * Return the Flesch readability score of this document.
+     * @see TextStatistics#fleschScore(long, long, long)
      */
     public double getFleschScore(final long numSentences,
                                  final long numWords, final long numSyllables) {
-        double secArg = (double) numWords / numSentences;
-        double thirdArg = (double) numSyllables / numWords;
-        double result = 206.835 - (1.015 * secArg) - (84.6 * thirdArg);
-        return result;
+        return TextStatistics.fleschScore(numSentences, numWords, numSyllables);
     }
 
     /**
-     * This is a helper function that returns the number of syllables
-     * in a word.  You should write this and use it in your
-     * BasicDocument class.
-     * You will probably NOT need to add a countWords or a countSentences method
-     * here.  The reason we put countSyllables here because we'll use it again
-     * next week when we implement the EfficientDocument class.
+     * Returns the number of syllables in a word.
+     * @see TextStatistics#countSyllables(char[], int)
      */
     protected int countSyllables(String word) {
-        int counter = 0;
-        char[] tokens = word.toCharArray();
-        if (isVowel(tokens[0])) {
-            counter = 1;
-        }
-        for (int i = 1; i < tokens.length; i++) {
-            if (i == tokens.length - 1 && Character.toLowerCase(tokens[i]) == 'e') {
-                if (!isVowel(tokens[i - 1])) {
-                    if (counter == 0) {
-                        counter = 1;
-                    }
-                }
-            } else if (!isVowel(tokens[i - 1]) && isVowel(tokens[i])) {
-                counter++;
-            }
-        }
-
-        return counter;
+        return TextStatistics.countSyllables(word.toCharArray(), word.length());
     }
 
-
     /**
      * Returns is a given char symbol a vowel or not.
      * @param letter provided char symbol
      * @return boolean: false or true.
      */
     protected boolean isVowel(final char letter) {
-        char[] vowels = new char[6];
-        vowels[0] = 'a';
-        vowels[1] = 'e';
-        vowels[2] = 'i';
-        vowels[3] = 'o';
-        vowels[4] = 'u';
-        vowels[5] = 'y';
-
-        for (int i = 0; i < 6; i++) {
-            if (Character.toLowerCase(letter) == vowels[i]) {
-                return true;
-            }
-        }
-        return false;
+        return TextStatistics.isVowel(letter);
     }
 
     protected Map<String, Word> parseSentence(final String sentence, final Map<String, Word> wordsMap) {
-        lemmatizer.lemmatize(sentence)
-                .forEach(w -> {
-                    Word word = wordsMap.merge(
-                            w,
-                            new SimpleWord(w, sentence),
-                            (w1, w2) -> w1
-                    );
-                    word.incrementCount();
-                });
+        return parseSentence(lemmatizer, sentence, wordsMap);
+    }
+
+    protected Map<String, Word> parseSentence(final Lemmatizer lemmatizer, final String sentence,
+                                              final Map<String, Word> wordsMap) {
+        return countLemmas(lemmatizer.lemmatize(sentence), sentence, wordsMap);
+    }
+
+    /**
+     * Parses the batch of sentences at once, which is cheaper than parsing them one by one.
+     * The batch should not be larger than {@link #LEMMATIZATION_BATCH_SIZE}.
+     */
+    protected Map<String, Word> parseSentences(final List<String> sentences, final Map<String, Word> wordsMap) {
+        return parseSentences(lemmatizer, sentences, wordsMap);
+    }
+
+    protected Map<String, Word> parseSentences(final Lemmatizer lemmatizer, final List<String> sentences,
+                                               final Map<String, Word> wordsMap) {
+        List<List<String>> lemmas = lemmatizer.lemmatize(sentences);
+        for (int i = 0; i < sentences.size(); i++) {
+            countLemmas(lemmas.get(i), sentences.get(i), wordsMap);
+        }
 
         return wordsMap;
     }
 
+    private Map<String, Word> countLemmas(final List<String> lemmas, final String sentence,
+                                          final Map<String, Word> wordsMap) {
+        lemmas.forEach(w -> {
+            if (knownWords.contains(w)) {
+                return;
+            }
+            Word word = wordsMap.computeIfAbsent(w, SimpleWord::new);
+            long count = word.incrementCount();
+            word.setContexts(ContextReservoir.offer(word.contextSequences(), count, sentence, CONTEXTS_PER_WORD));
+        });
+
+        return wordsMap;
+    }
+
+    /**
+     * Adds the count and the sampled contexts of the other word to the word, e.g. when the words counted
+     * in two parts of the text are merged.
+     * @param word word to merge into
+     * @param other the same word counted in another part of the text
+     * @return the word
+     */
+    protected static Word mergeWords(final Word word, final Word other) {
+        CharSequence[] contexts = Arrays.copyOf(word.contextSequences(),
+                (int) Math.min(word.getCount() + other.getCount(), CONTEXTS_PER_WORD));
+        ContextReservoir.merge(contexts, 0, word.getCount(),
+                other.contextSequences(), 0, other.getCount(), CONTEXTS_PER_WORD);
+
+        return word.setContexts(contexts).setCount(word.getCount() + other.getCount());
+    }
+
     /**
      * Debug method.
      * @throws IOException by book parser
@@ -0,0 +1,123 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.ling.CoreLabel;
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.StanfordCoreNLP;
+import edu.stanford.nlp.util.ArrayCoreMap;
+import edu.stanford.nlp.util.CoreMap;
+import io.github.pepperkit.corenlp.stopwords.StopWordsAnnotator;
+
+/**
+ * Lemmatizer, which remembers the lemmas of the words in {@link LemmaCache} by their forms and parts of speech.
+ * The lemma of a word and whether it's a stop word depend only on its form and part of speech, so the lemmas
+ * are the same as {@link Lemmatizer}'s ones. The sentences are tokenized and tagged, the rest of the pipeline,
+ * lemmatization and filtering of stop words, is run only for the sentences with the words, which are not cached.
+ */
+public class CachingLemmatizer extends Lemmatizer {
+
+    /**
+     * Longer tokens are not cached, they are usually not words.
+     */
+    private static final int MAX_CACHED_FORM_LENGTH = 64;
+
+    /**
+     * Cached instead of the lemma for the forms filtered out as stop words.
+     */
+    private static final String STOP_WORD = "";
+
+    private final LemmaCache cache;
+
+    /**
+     * The rest of the full pipeline, it annotates the sentences already tokenized and tagged.
+     */
+    private final StanfordCoreNLP lemmatizingPipeline;
+
+    /**
+     * Constructor.
+     * @param cache  cache of the lemmas, can be shared by several lemmatizers
+     */
+    public CachingLemmatizer(LemmaCache cache) {
+        super(new StanfordCoreNLP(createProperties("tokenize, ssplit, pos")));
+        this.cache = cache;
+
+        Properties props = createProperties("lemma, stopwords");
+        props.setProperty("enforceRequirements", "false");
+        this.lemmatizingPipeline = new StanfordCoreNLP(props);
+    }
+
+    @Override
+    public List<String> lemmatize(String text) {
+        return lemmatize(List.of(text)).get(0);
+    }
+
+    @Override
+    public List<List<String>> lemmatize(List<String> sentences) {
+        List<List<String>> lemmas = new ArrayList<>(sentences.size());
+        List<Integer> missedIndexes = new ArrayList<>();
+        List<CoreMap> missedSentences = new ArrayList<>();
+        List<CoreLabel> missedTokens = new ArrayList<>();
+
+        List<List<CoreLabel>> tokens = annotate(pipeline, sentences);
+        for (int i = 0; i < sentences.size(); i++) {
+            List<String> sentenceLemmas = lemmasFromCache(tokens.get(i));
+            if (sentenceLemmas == null) {
+                missedIndexes.add(i);
+                CoreMap sentence = new ArrayCoreMap();
+                sentence.set(CoreAnnotations.TokensAnnotation.class, tokens.get(i));
+                missedSentences.add(sentence);
+                missedTokens.addAll(tokens.get(i));
+            }
+            lemmas.add(sentenceLemmas);
+        }
+
+        if (!missedIndexes.isEmpty()) {
+            Annotation missed = new Annotation("");
+            missed.set(CoreAnnotations.SentencesAnnotation.class, missedSentences);
+            missed.set(CoreAnnotations.TokensAnnotation.class, missedTokens);
+            lemmatizingPipeline.annotate(missed);
+        }
+        for (int index : missedIndexes) {
+            lemmas.set(index, lemmasToCache(tokens.get(index)));
+        }
+
+        return lemmas;
+    }
+
+    /**
+     * Returns the lemmas of the tagged tokens, or null if any of them is not cached.
+     */
+    private List<String> lemmasFromCache(List<CoreLabel> tokens) {
+        List<String> lemmas = new ArrayList<>();
+        for (CoreLabel token : tokens) {
+            String lemma = cache.get(token.word(), token.tag());
+            if (lemma == null) {
+                return null;
+            }
+            if (!lemma.equals(STOP_WORD)) {
+                lemmas.add(lemma);
+            }
+        }
+        return lemmas;
+    }
+
+    private List<String> lemmasToCache(List<CoreLabel> tokens) {
+        List<String> lemmas = new ArrayList<>();
+        for (CoreLabel token : tokens) {
+            String lemma = token.get(CoreAnnotations.LemmaAnnotation.class);
+            boolean isStopWord = token.get(StopWordsAnnotator.class);
+
+            if (token.word().length() <= MAX_CACHED_FORM_LENGTH) {
+                cache.put(token.word(), token.tag(), isStopWord ? STOP_WORD : lemma);
+            }
+            if (!isStopWord) {
+                lemmas.add(lemma);
+            }
+        }
+        return lemmas;
+    }
+}
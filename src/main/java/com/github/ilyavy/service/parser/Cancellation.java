@@ -0,0 +1,49 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.Spliterator;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * Flag of the cancellation of an analysis. The parsers check it cooperatively between the units of work,
+ * e.g. before forking a task or lemmatizing the next batch of sentences, so a cancelled analysis stops soon
+ * and releases its threads and lemmatizers. Once cancelled, the flag cannot be reset.
+ */
+public final class Cancellation {
+
+    private volatile boolean cancelled;
+
+    /** Cancels the analysis, the work already in progress is stopped at the next check. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Throws the exception, if the analysis is cancelled.
+     *
+     * @throws CancellationException if the analysis is cancelled
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("The analysis is cancelled");
+        }
+    }
+
+    /**
+     * Performs the action for the remaining elements like {@link Spliterator#forEachRemaining(Consumer)} does,
+     * but stops before the next element, once the analysis is cancelled.
+     *
+     * @param elements spliterator of the elements, e.g. of the sentences
+     * @param action action for every element
+     */
+    public <T> void forEachRemaining(final Spliterator<T> elements, final Consumer<? super T> action) {
+        boolean hasNext = true;
+        while (hasNext && !cancelled) {
+            hasNext = elements.tryAdvance(action);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.Arrays;
+
+/**
+ * Hand-written tokenizer, which finds the same words as {@link BookTextParser#PATTERN} does, but without regex
+ * and without allocating a String per token. Letters are classified with a lookup table, every found token is
+ * lowercased in place into a reusable buffer, and its hash is computed on the fly, compatible with
+ * {@link String#hashCode()}.
+ * Not thread-safe, every thread should use its own instance.
+ */
+final class CharTokenizer {
+
+    /**
+     * Lowercase value of an ASCII letter, or 0 for any other character.
+     */
+    private static final char[] LETTERS = new char[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            LETTERS[c] = c;
+            LETTERS[Character.toUpperCase(c)] = c;
+        }
+    }
+
+    private CharSequence text = "";
+
+    private int position;
+
+    private int end;
+
+    private char[] buffer = new char[32];
+
+    private int length;
+
+    private int hash;
+
+    /**
+     * Starts tokenizing of the specified text.
+     *
+     * @param text text to tokenize
+     * @return this tokenizer
+     */
+    CharTokenizer reset(final CharSequence text) {
+        return reset(text, 0, text.length());
+    }
+
+    /**
+     * Starts tokenizing of the specified range of the text.
+     *
+     * @param text  text to tokenize
+     * @param start index of the first char of the range, inclusive
+     * @param end   index of the last char of the range, exclusive
+     * @return this tokenizer
+     */
+    CharTokenizer reset(final CharSequence text, final int start, final int end) {
+        this.text = text;
+        this.position = start;
+        this.end = end;
+        this.length = 0;
+        this.hash = 0;
+        return this;
+    }
+
+    /**
+     * Moves to the next token in the text.
+     *
+     * @return true - if the token is found, false - if the end of the text is reached
+     */
+    boolean next() {
+        int pos = position;
+        while (pos < end && letterAt(pos) == 0) {
+            pos++;
+        }
+        if (pos == end) {
+            position = pos;
+            length = 0;
+            return false;
+        }
+
+        int len = 0;
+        int h = 0;
+        char c;
+        while (pos < end && (c = letterAt(pos)) != 0) {
+            if (len == buffer.length) {
+                buffer = Arrays.copyOf(buffer, len * 2);
+            }
+            buffer[len++] = c;
+            h = 31 * h + c;
+            pos++;
+        }
+
+        position = pos;
+        length = len;
+        hash = h;
+        return true;
+    }
+
+    private char letterAt(final int index) {
+        char c = text.charAt(index);
+        return c < LETTERS.length ? LETTERS[c] : 0;
+    }
+
+    /**
+     * Returns the buffer holding the current lowercased token. The buffer is reused between tokens.
+     *
+     * @return buffer, only the first {@link #length()} chars of which are valid
+     */
+    char[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * Returns the length of the current token.
+     *
+     * @return length of the current token
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Returns the index of the first char of the current token in the text.
+     *
+     * @return index of the current token
+     */
+    int start() {
+        return position - length;
+    }
+
+    /**
+     * Returns the hash of the current token, equal to {@link String#hashCode()} of the token.
+     *
+     * @return hash of the current token
+     */
+    int hash() {
+        return hash;
+    }
+
+    /**
+     * Checks whether the current token has the same chars as the specified string.
+     *
+     * @param str string to compare the token with
+     * @return true - if they are equal, false - otherwise
+     */
+    boolean tokenEquals(final String str) {
+        if (str.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (str.charAt(i) != buffer[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Materializes the current token into a new string.
+     *
+     * @return the current token
+     */
+    String token() {
+        return new String(buffer, 0, length);
+    }
+}
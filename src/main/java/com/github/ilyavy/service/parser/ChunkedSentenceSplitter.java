@@ -0,0 +1,118 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Splits a text, provided as consecutive chunks, into sentences. A sentence, which is not finished at the end
+ * of a chunk, is carried over to the next chunk, so only the current chunk and the unfinished sentence are held
+ * in memory. The sentences are the same as {@link BookTextParser#parseTextIntoSentences(String)} finds in the whole
+ * text, except for the text without delimiters, e.g. poetry or tables: the unfinished sentence longer than
+ * {@link #MAX_SENTENCE_LENGTH} is ended at its last whitespace, so the memory stays bounded anyway.
+ * Not thread-safe, a new instance should be used for every text.
+ */
+public final class ChunkedSentenceSplitter {
+
+    /** Maximum length of a sentence, a longer one is split between the words. */
+    static final int MAX_SENTENCE_LENGTH = 10_000;
+
+    private final int maxSentenceLength;
+
+    private final StringBuilder unfinishedSentence = new StringBuilder();
+
+    ChunkedSentenceSplitter() {
+        this(MAX_SENTENCE_LENGTH);
+    }
+
+    ChunkedSentenceSplitter(final int maxSentenceLength) {
+        this.maxSentenceLength = maxSentenceLength;
+    }
+
+    /**
+     * Splits the chunks of the text into sentences.
+     *
+     * @param chunks consecutive chunks of the text
+     * @return flux of the sentences of the text
+     */
+    public static Flux<String> split(final Flux<? extends CharSequence> chunks) {
+        return Flux.defer(() -> {
+            ChunkedSentenceSplitter splitter = new ChunkedSentenceSplitter();
+            return chunks
+                    .concatMapIterable(splitter::sentencesOf)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(splitter.rest())));
+        });
+    }
+
+    /**
+     * Returns the sentences finished in the chunk, including the sentence carried over from the previous chunks.
+     *
+     * @param chunk next chunk of the text
+     * @return list of the finished sentences
+     */
+    List<String> sentencesOf(final CharSequence chunk) {
+        int lastDelimiter = chunk.length() - 1;
+        while (lastDelimiter >= 0 && !SentenceSpliterator.isSentenceDelimiter(chunk.charAt(lastDelimiter))) {
+            lastDelimiter--;
+        }
+        if (lastDelimiter < 0) {
+            unfinishedSentence.append(chunk);
+            return unfinishedSentence.length() > maxSentenceLength ? endUnfinishedSentence() : List.of();
+        }
+
+        CharSequence finished;
+        if (unfinishedSentence.length() > 0) {
+            finished = unfinishedSentence.append(chunk, 0, lastDelimiter + 1).toString();
+        } else {
+            finished = chunk.subSequence(0, lastDelimiter + 1);
+        }
+        unfinishedSentence.setLength(0);
+        unfinishedSentence.append(chunk, lastDelimiter + 1, chunk.length());
+
+        List<String> sentences = sentences(finished);
+        if (unfinishedSentence.length() > maxSentenceLength) {
+            sentences.addAll(endUnfinishedSentence());
+        }
+        return sentences;
+    }
+
+    /**
+     * Ends the unfinished sentence, which is too long, at its last whitespace, the rest of it stays unfinished.
+     * The sentence has no delimiters, it's either the tail of the text after the last delimiter or the text
+     * of the chunks without delimiters.
+     *
+     * @return list with the ended sentence, or empty list
+     */
+    private List<String> endUnfinishedSentence() {
+        int end = unfinishedSentence.length();
+        while (end > 0 && !Character.isWhitespace(unfinishedSentence.charAt(end - 1))) {
+            end--;
+        }
+        if (end == 0) {
+            // A single word is longer than the limit, it isn't split
+            end = unfinishedSentence.length();
+        }
+
+        List<String> sentences = sentences(unfinishedSentence.substring(0, end));
+        unfinishedSentence.delete(0, end);
+        return sentences;
+    }
+
+    /**
+     * Returns the last sentence, which is not finished by a delimiter.
+     *
+     * @return list with the last sentence, or empty list
+     */
+    List<String> rest() {
+        List<String> sentences = sentences(unfinishedSentence.toString());
+        unfinishedSentence.setLength(0);
+        return sentences;
+    }
+
+    private static List<String> sentences(final CharSequence text) {
+        List<String> sentences = new ArrayList<>();
+        new SentenceSpliterator(text).forEachRemaining(sentence -> sentences.add(sentence.toString()));
+        return sentences;
+    }
+}
@@ -16,6 +16,11 @@ import com.github.ilyavy.service.parser.word.WordWithAtomicCounter;
  */
 public class ConcurrentMapWithAtomicWordCountersUsingForkJoinBookTextParser extends BookTextParser {
 
+    @Override
+    protected boolean isParallel() {
+        return true;
+    }
+
     @Override
     public Map<String, Word> countWords(final List<String> sentences) {
         int numberOfCores = Runtime.getRuntime().availableProcessors();
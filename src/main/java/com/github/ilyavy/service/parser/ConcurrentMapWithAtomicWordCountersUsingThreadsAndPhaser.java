@@ -16,6 +16,11 @@ import com.github.ilyavy.service.parser.word.WordWithAtomicCounter;
  */
 public class ConcurrentMapWithAtomicWordCountersUsingThreadsAndPhaser extends BookTextParser {
 
+    @Override
+    protected boolean isParallel() {
+        return true;
+    }
+
     @Override
     public Map<String, Word> countWords(final List<String> sentences) {
         double numberOfProcessors = Runtime.getRuntime().availableProcessors();
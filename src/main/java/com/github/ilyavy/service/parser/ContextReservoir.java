@@ -0,0 +1,111 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Reservoir sampling of the contexts of a word. A word keeps a uniform random sample of at most {@code size}
+ * sentences among all its occurrences, so the memory is bounded by the size of the vocabulary, not by the size
+ * of the text. The samples are filled by every thread with its own random numbers, and merged weighted by
+ * the numbers of the occurrences they represent, so the merged sample is uniform as well, regardless of how
+ * the sentences were split between the threads.
+ */
+final class ContextReservoir {
+
+    private ContextReservoir() {
+    }
+
+    /**
+     * Returns the slot of the sample, into which the context of the occurrence should be put, or -1, if the context
+     * is not sampled. The first occurrences fill the sample, every next one replaces a random slot with
+     * the probability of size / count.
+     *
+     * @param count number of the occurrences, including the current one
+     * @param size  maximum size of the sample
+     * @return index of the slot, or -1
+     */
+    static int slotOf(final long count, final int size) {
+        if (count <= size) {
+            return (int) count - 1;
+        }
+        long slot = (long) (ThreadLocalRandom.current().nextDouble() * count);
+        return slot < size ? (int) slot : -1;
+    }
+
+    /**
+     * Offers the context of the occurrence to the sample.
+     *
+     * @param sample  sample of the contexts of the previous occurrences, its length is min(count - 1, size)
+     * @param count   number of the occurrences, including the current one
+     * @param context context of the current occurrence
+     * @param size    maximum size of the sample
+     * @return the sample, a new array, if it has grown
+     */
+    static CharSequence[] offer(CharSequence[] sample, final long count, final CharSequence context, final int size) {
+        int slot = slotOf(count, size);
+        if (slot >= sample.length) {
+            sample = Arrays.copyOf(sample, slot + 1);
+        }
+        if (slot >= 0) {
+            sample[slot] = context;
+        }
+        return sample;
+    }
+
+    /**
+     * Merges the samples of two sets of the occurrences into the sample of their union. Every next context is taken
+     * from one of the samples with the probability proportional to the number of the occurrences of its set,
+     * which are not taken yet, i.e. without replacement.
+     *
+     * @param left       array with the left sample, the merged sample is written into the same range
+     * @param leftFrom   index of the left sample in the array, there should be room for size contexts
+     * @param leftCount  number of the occurrences of the left sample, its length is min(leftCount, size)
+     * @param right      array with the right sample
+     * @param rightFrom  index of the right sample in the array
+     * @param rightCount number of the occurrences of the right sample, its length is min(rightCount, size)
+     * @param size       maximum size of the sample
+     */
+    static void merge(final CharSequence[] left, final int leftFrom, final long leftCount,
+                      final CharSequence[] right, final int rightFrom, final long rightCount, final int size) {
+        int leftSize = (int) Math.min(leftCount, size);
+        int rightSize = (int) Math.min(rightCount, size);
+
+        // All the occurrences fit, or one of the samples is empty, nothing to choose from
+        if (leftCount == 0 || leftCount + rightCount <= size) {
+            System.arraycopy(right, rightFrom, left, leftFrom + leftSize, rightSize);
+            return;
+        }
+        if (rightCount == 0) {
+            return;
+        }
+
+        CharSequence[] leftSample = Arrays.copyOfRange(left, leftFrom, leftFrom + leftSize);
+        CharSequence[] rightSample = Arrays.copyOfRange(right, rightFrom, rightFrom + rightSize);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long leftRest = leftCount;
+        long rightRest = rightCount;
+        int leftTaken = 0;
+        int rightTaken = 0;
+        for (int i = 0; i < size; i++) {
+            if (random.nextDouble() * (leftRest + rightRest) < leftRest) {
+                left[leftFrom + i] = take(leftSample, leftTaken++, random);
+                leftRest--;
+            } else {
+                left[leftFrom + i] = take(rightSample, rightTaken++, random);
+                rightRest--;
+            }
+        }
+    }
+
+    /**
+     * Takes a random context of the sample, which is not taken yet, the taken ones are moved to the beginning.
+     */
+    private static CharSequence take(final CharSequence[] sample, final int taken, final ThreadLocalRandom random) {
+        int i = taken + random.nextInt(sample.length - taken);
+        CharSequence context = sample[i];
+        sample[i] = sample[taken];
+        sample[taken] = context;
+        return context;
+    }
+}
@@ -3,6 +3,7 @@ package com.github.ilyavy.service.parser;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
 import java.util.concurrent.RecursiveTask;
 
 import com.github.ilyavy.model.Word;
@@ -10,16 +11,56 @@ import com.github.ilyavy.model.Word;
 /**
  * Book parser, which recursively forks the sentences into chunks, the number of which is equal to available CPU cores,
  * and processes all the chunks in parallel, joining the results.
+ * The counting can be cancelled, the chunks are not forked and not parsed further after the cancellation.
  */
 public class ForkJoinBookTextParser extends BookTextParser {
 
+    @Override
+    protected boolean isParallel() {
+        return true;
+    }
+
     @Override
     public Map<String, Word> countWords(List<String> sentences) {
+        return countWords(sentences, new Cancellation());
+    }
+
+    @Override
+    public Map<String, Word> countWords(List<String> sentences, Cancellation cancellation) {
         int numberOfCores = Runtime.getRuntime().availableProcessors();
         int sequentialThreshold = (int) Math.ceil(sentences.size() / Double.valueOf(numberOfCores));
 
-        ParseSentencesTask task = new ParseSentencesTask(0, sentences.size(), sentences, sequentialThreshold);
-        return task.compute();
+        ParseSentencesTask task = new ParseSentencesTask(0, sentences.size(), sentences, sequentialThreshold,
+                cancellation);
+        Map<String, Word> words = task.compute();
+        // The map of a cancelled counting is incomplete
+        cancellation.throwIfCancelled();
+        return words;
+    }
+
+    @Override
+    public Map<String, Word> countWords(Spliterator<? extends CharSequence> sentences) {
+        return countWords(sentences, new Cancellation());
+    }
+
+    @Override
+    public Map<String, Word> countWords(Spliterator<? extends CharSequence> sentences, Cancellation cancellation) {
+        int numberOfCores = Runtime.getRuntime().availableProcessors();
+        long sequentialThreshold = (long) Math.ceil(sentences.estimateSize() / (double) numberOfCores);
+
+        ParseSpliteratorTask task = new ParseSpliteratorTask(sentences, sequentialThreshold, cancellation);
+        Map<String, Word> words = task.compute();
+        cancellation.throwIfCancelled();
+        return words;
+    }
+
+    /**
+     * Merges the left map into the right one.
+     */
+    private Map<String, Word> mergeMaps(Map<String, Word> left, Map<String, Word> right) {
+        left.forEach((k, v) -> right.merge(k, v, BookTextParser::mergeWords));
+
+        return right;
     }
 
     /**
@@ -35,19 +76,27 @@ public class ForkJoinBookTextParser extends BookTextParser {
 
         private int sequentialThreshold;
 
-        ParseSentencesTask(int lo, int hi, List<String> sentences, int sequentialThreshold) {
+        private Cancellation cancellation;
+
+        ParseSentencesTask(int lo, int hi, List<String> sentences, int sequentialThreshold,
+                           Cancellation cancellation) {
             this.lo = lo;
             this.hi = hi;
             this.sentences = sentences;
             this.sequentialThreshold = sequentialThreshold;
+            this.cancellation = cancellation;
         }
 
         @Override
         protected Map<String, Word> compute() {
+            if (cancellation.isCancelled()) {
+                return new HashMap<>();
+            }
+
             if (hi - lo <= sequentialThreshold) {
                 Map<String, Word> map = new HashMap<>();
 
-                for (int i = lo; i < hi; i++) {
+                for (int i = lo; i < hi && !cancellation.isCancelled(); i++) {
                     String sentence = sentences.get(i);
                     parseSentence(sentence, map);
                 }
@@ -55,24 +104,16 @@ public class ForkJoinBookTextParser extends BookTextParser {
 
             } else {
                 int mid = (hi - lo) / 2;
-                ParseSentencesTask left = new ParseSentencesTask(lo, lo + mid, sentences, sequentialThreshold);
+                ParseSentencesTask left = new ParseSentencesTask(lo, lo + mid, sentences, sequentialThreshold,
+                        cancellation);
                 left.fork();
-                ParseSentencesTask right = new ParseSentencesTask(lo + mid, hi, sentences, sequentialThreshold);
+                ParseSentencesTask right = new ParseSentencesTask(lo + mid, hi, sentences, sequentialThreshold,
+                        cancellation);
 
                 return mergeMaps(right.compute(), left.join());
             }
         }
 
-        private Map<String, Word> mergeMaps(Map<String, Word> left, Map<String, Word> right) {
-            left.forEach((k, v) ->
-                    right.merge(k, v, (w1, w2) -> {
-                        w1.setCount(w1.getCount() + w2.getCount());
-                        return w1;
-                    }));
-
-            return right;
-        }
-
         @Override
         public String toString() {
             return "ParseTextTask{" +
@@ -82,4 +123,45 @@ public class ForkJoinBookTextParser extends BookTextParser {
                     '}';
         }
     }
+
+    /**
+     * Recursive task's implementation, splits the spliterator of sentences at sentence boundaries
+     * up to sequentialThreshold specified.
+     */
+    class ParseSpliteratorTask extends RecursiveTask<Map<String, Word>> {
+
+        private Spliterator<? extends CharSequence> sentences;
+
+        private long sequentialThreshold;
+
+        private Cancellation cancellation;
+
+        ParseSpliteratorTask(Spliterator<? extends CharSequence> sentences, long sequentialThreshold,
+                             Cancellation cancellation) {
+            this.sentences = sentences;
+            this.sequentialThreshold = sequentialThreshold;
+            this.cancellation = cancellation;
+        }
+
+        @Override
+        protected Map<String, Word> compute() {
+            if (cancellation.isCancelled()) {
+                return new HashMap<>();
+            }
+
+            Spliterator<? extends CharSequence> prefix;
+            if (sentences.estimateSize() > sequentialThreshold && (prefix = sentences.trySplit()) != null) {
+                ParseSpliteratorTask left = new ParseSpliteratorTask(prefix, sequentialThreshold, cancellation);
+                left.fork();
+                ParseSpliteratorTask right = new ParseSpliteratorTask(sentences, sequentialThreshold, cancellation);
+
+                return mergeMaps(right.compute(), left.join());
+
+            } else {
+                Map<String, Word> map = new HashMap<>();
+                cancellation.forEachRemaining(sentences, sentence -> parseSentence(sentence.toString(), map));
+                return map;
+            }
+        }
+    }
 }
@@ -17,6 +17,11 @@ import com.github.ilyavy.model.Word;
  */
 public class FuturesBookTextParser extends BookTextParser {
 
+    @Override
+    protected boolean isParallel() {
+        return true;
+    }
+
     @Override
     public Map<String, Word> countWords(List<String> sentences) {
         final int availableProcessors = Runtime.getRuntime().availableProcessors();
@@ -80,11 +85,7 @@ public class FuturesBookTextParser extends BookTextParser {
     }
 
     private Map<String, Word> mergeMaps(Map<String, Word> left, Map<String, Word> right) {
-        left.forEach((k, v) ->
-                right.merge(k, v, (w1, w2) -> {
-                    w1.setCount(w1.getCount() + w2.getCount());
-                    return w1;
-                }));
+        left.forEach((k, v) -> right.merge(k, v, BookTextParser::mergeWords));
 
         return right;
     }
@@ -0,0 +1,163 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.Collection;
+
+/**
+ * Words, which a user already knows, e.g. has in the Lingualeo dictionary. The parsers drop them while counting,
+ * before any id or word entity is allocated for them. Most of the tokens of a book are not known words,
+ * so every token is checked by a Bloom filter first, a compact bit array answering "definitely not known"
+ * in a few probes, and only the tokens passing it are looked up in the exact set of the words.
+ * Immutable, so thread-safe.
+ */
+public final class KnownWords {
+
+    private static final KnownWords NONE = new KnownWords(new Vocabulary(), new long[0], 0);
+
+    /**
+     * Number of the bits of the filter per word, with {@link #HASH_FUNCTIONS} it gives about 1% of false positives.
+     */
+    private static final int BITS_PER_WORD = 10;
+
+    private static final int HASH_FUNCTIONS = 7;
+
+    private final Vocabulary words;
+
+    private final long[] bits;
+
+    private final int mask;
+
+    private final long fingerprint;
+
+    private KnownWords(final Vocabulary words, final long[] bits, final long fingerprint) {
+        this.words = words;
+        this.bits = bits;
+        this.mask = bits.length * Long.SIZE - 1;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Returns the empty set of the known words, nothing is dropped by it.
+     *
+     * @return empty set
+     */
+    public static KnownWords none() {
+        return NONE;
+    }
+
+    /**
+     * Creates the set of the known words.
+     *
+     * @param knownWords lowercased words
+     * @return set of the words
+     */
+    public static KnownWords of(final Collection<String> knownWords) {
+        Vocabulary words = new Vocabulary();
+        for (String word : knownWords) {
+            words.idOf(word);
+        }
+        if (words.size() == 0) {
+            return NONE;
+        }
+
+        // The number of the bits is a power of two, so a bit is selected by masking
+        int bitsNumber = Integer.highestOneBit(Math.max(Long.SIZE, words.size() * BITS_PER_WORD - 1)) << 1;
+        long[] bits = new long[bitsNumber / Long.SIZE];
+        int mask = bitsNumber - 1;
+        long fingerprint = 0;
+        for (int id = 0; id < words.size(); id++) {
+            String word = words.word(id);
+            int hash = word.hashCode();
+            int h1 = mix(hash);
+            int h2 = mix(h1) | 1;
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                int bit = (h1 + i * h2) & mask;
+                bits[bit >>> 6] |= 1L << bit;
+            }
+            // Sum of the hashes of the words doesn't depend on their order
+            fingerprint += mix64(((long) hash << 32) | word.length());
+        }
+        return new KnownWords(words, bits, fingerprint);
+    }
+
+    /**
+     * Checks whether the current token of the tokenizer is a known word, without materializing the token.
+     *
+     * @param tokenizer tokenizer positioned at a token
+     * @return true - if the word is known, false - otherwise
+     */
+    boolean contains(final CharTokenizer tokenizer) {
+        return mightContain(tokenizer.hash()) && words.find(tokenizer) >= 0;
+    }
+
+    /**
+     * Checks whether the word is known.
+     *
+     * @param word lowercased word
+     * @return true - if the word is known, false - otherwise
+     */
+    public boolean contains(final String word) {
+        return mightContain(word.hashCode()) && words.find(word) >= 0;
+    }
+
+    /**
+     * Checks the word by its hash with the Bloom filter only.
+     *
+     * @param hash hash of the word, equal to {@link String#hashCode()}
+     * @return false - if the word is definitely not known, true - if it may be known
+     */
+    boolean mightContain(final int hash) {
+        if (bits.length == 0) {
+            return false;
+        }
+        int h1 = mix(hash);
+        int h2 = mix(h1) | 1;
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            int bit = (h1 + i * h2) & mask;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of the known words.
+     *
+     * @return number of the words
+     */
+    public int size() {
+        return words.size();
+    }
+
+    /**
+     * Returns the fingerprint of the set, which is the same for the same words, regardless of their order,
+     * e.g. to tell whether the results of an analysis were filtered by the same known words.
+     *
+     * @return fingerprint of the set, 0 for the empty set
+     */
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Finalization step of MurmurHash3, spreads the bits of the hash, as the hashes of similar short words
+     * differ only in their low bits.
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    private static long mix64(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
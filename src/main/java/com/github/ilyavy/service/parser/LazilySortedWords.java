@@ -0,0 +1,166 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.github.ilyavy.model.Word;
+
+/**
+ * List of the words in descending order of their counts, or in another order, e.g. {@link WordsOrder#DIFFICULTY},
+ * which is sorted lazily, only as far as it is accessed.
+ * When a word beyond the sorted part is requested, the next most frequent words are selected from the rest
+ * with introselect, and only they are sorted. So showing the first page of the results costs linear time,
+ * not the time of sorting the whole vocabulary.
+ */
+public class LazilySortedWords extends AbstractList<Word> {
+
+    /**
+     * Minimal number of the words sorted at once.
+     */
+    private static final int MIN_SORTED_BLOCK = 64;
+
+    private static final Comparator<Word> COUNT_DESCENDING = Comparator.comparingLong(Word::getCount).reversed();
+
+    private final Word[] words;
+
+    private final Comparator<? super Word> order;
+
+    private int size;
+
+    /**
+     * Number of the words at the beginning of the array, which are already in their final order.
+     */
+    private int sortedSize;
+
+    /**
+     * Creates the list of the words, the words are not sorted at this point.
+     *
+     * @param words words to sort
+     */
+    public LazilySortedWords(final Collection<? extends Word> words) {
+        this(words, COUNT_DESCENDING);
+    }
+
+    /**
+     * Creates the list of the words in the specified order, the words are not sorted at this point.
+     *
+     * @param words words to sort
+     * @param order comparator, by which the first words are the least
+     */
+    public LazilySortedWords(final Collection<? extends Word> words, final Comparator<? super Word> order) {
+        this(words.toArray(new Word[0]), order);
+    }
+
+    private LazilySortedWords(final Word[] words, final Comparator<? super Word> order) {
+        this.words = words;
+        this.size = words.length;
+        this.order = order;
+    }
+
+    /**
+     * Returns the list of the same words in another order, the words are not sorted at this point.
+     *
+     * @param newOrder comparator, by which the first words are the least
+     * @return new list
+     */
+    public synchronized LazilySortedWords reorder(final Comparator<? super Word> newOrder) {
+        return new LazilySortedWords(Arrays.copyOf(words, size), newOrder);
+    }
+
+    @Override
+    public synchronized Word get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        ensureSorted(index + 1);
+        return words[index];
+    }
+
+    @Override
+    public synchronized Word remove(final int index) {
+        Word word = get(index);
+        System.arraycopy(words, index + 1, words, index, size - index - 1);
+        words[--size] = null;
+        sortedSize--;
+        modCount++;
+        return word;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of the words, which are already sorted.
+     *
+     * @return number of the sorted words
+     */
+    synchronized int sortedSize() {
+        return sortedSize;
+    }
+
+    private void ensureSorted(final int requiredSize) {
+        if (requiredSize <= sortedSize) {
+            return;
+        }
+
+        // Every next block is at least as large as the sorted part, so sorting all the words costs O(V log V)
+        int newSortedSize = Math.min(size, Math.max(requiredSize, sortedSize + Math.max(MIN_SORTED_BLOCK, sortedSize)));
+        if (newSortedSize < size) {
+            select(sortedSize, size, newSortedSize);
+        }
+        Arrays.sort(words, sortedSize, newSortedSize, order);
+        sortedSize = newSortedSize;
+    }
+
+    /**
+     * Moves the first words of the range [from, to) in the order to its beginning, up to the index boundary,
+     * in no particular order. Quickselect with three-way partitioning, which handles many equal counts well,
+     * falls back to sorting, if partitioning goes badly.
+     */
+    private void select(int from, int to, final int boundary) {
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(to - from));
+
+        while (to - from > 1) {
+            if (depthLimit-- == 0) {
+                Arrays.sort(words, from, to, order);
+                return;
+            }
+
+            Word pivot = words[from + ThreadLocalRandom.current().nextInt(to - from)];
+
+            // [from, greater) go before pivot, [greater, i) are equal to it, [less, to) go after it
+            int greater = from;
+            int less = to;
+            int i = from;
+            while (i < less) {
+                int cmp = order.compare(words[i], pivot);
+                if (cmp < 0) {
+                    swap(greater++, i++);
+                } else if (cmp > 0) {
+                    swap(i, --less);
+                } else {
+                    i++;
+                }
+            }
+
+            if (boundary < greater) {
+                to = greater;
+            } else if (boundary > less) {
+                from = less;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(final int i, final int j) {
+        Word word = words[i];
+        words[i] = words[j];
+        words[j] = word;
+    }
+}
@@ -0,0 +1,170 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent size-bounded cache of lemmas by surface forms of the words, optionally qualified by part of speech.
+ * The cache is split into segments, every segment is guarded by its own lock and evicts the least recently used
+ * entries, when it is full.
+ */
+public class LemmaCache {
+
+    private static final int SEGMENTS_NUMBER = 16;
+
+    /**
+     * Separates the form and part of speech in the key, never appears in a token.
+     */
+    private static final char POS_SEPARATOR = '\u0000';
+
+    private final int maxSize;
+
+    private final Segment[] segments = new Segment[SEGMENTS_NUMBER];
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates the cache.
+     *
+     * @param maxSize maximum number of lemmas in the cache
+     */
+    public LemmaCache(final int maxSize) {
+        if (maxSize < SEGMENTS_NUMBER) {
+            throw new IllegalArgumentException("Size of the cache should be at least " + SEGMENTS_NUMBER + ": "
+                    + maxSize);
+        }
+        this.maxSize = maxSize;
+        for (int i = 0; i < SEGMENTS_NUMBER; i++) {
+            segments[i] = new Segment(maxSize / SEGMENTS_NUMBER);
+        }
+    }
+
+    /**
+     * Returns the lemma of the form regardless of its part of speech.
+     *
+     * @param form surface form of the word
+     * @return lemma, or null if it is not cached
+     */
+    public String get(final String form) {
+        return getByKey(form);
+    }
+
+    /**
+     * Returns the lemma of the form used as the part of speech.
+     *
+     * @param form surface form of the word
+     * @param pos  part of speech tag
+     * @return lemma, or null if it is not cached
+     */
+    public String get(final String form, final String pos) {
+        return getByKey(key(form, pos));
+    }
+
+    public void put(final String form, final String lemma) {
+        putByKey(form, lemma);
+    }
+
+    public void put(final String form, final String pos, final String lemma) {
+        putByKey(key(form, pos), lemma);
+    }
+
+    /**
+     * Returns the copy of all the cached entries, e.g. to persist them. The keys of the map are internal keys
+     * of the cache, the map can only be put back with {@link #putAll(Map)}.
+     *
+     * @return map of the lemmas by the keys
+     */
+    public Map<String, String> snapshot() {
+        Map<String, String> entries = new HashMap<>();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                entries.putAll(segment);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Puts the entries returned by {@link #snapshot()} into the cache.
+     *
+     * @param entries map of the lemmas by the keys
+     */
+    public void putAll(final Map<String, String> entries) {
+        entries.forEach(this::putByKey);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private String getByKey(final String key) {
+        Segment segment = segmentOf(key);
+        String lemma;
+        synchronized (segment) {
+            lemma = segment.get(key);
+        }
+
+        if (lemma != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return lemma;
+    }
+
+    private void putByKey(final String key, final String lemma) {
+        Segment segment = segmentOf(key);
+        synchronized (segment) {
+            segment.put(key, lemma);
+        }
+    }
+
+    private Segment segmentOf(final String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS_NUMBER - 1)];
+    }
+
+    private static String key(final String form, final String pos) {
+        return pos == null ? form : form + POS_SEPARATOR + pos;
+    }
+
+    /**
+     * Part of the cache, ordered by access, which removes the eldest entry, when the capacity is exceeded.
+     */
+    private static final class Segment extends LinkedHashMap<String, String> {
+
+        private final int capacity;
+
+        Segment(final int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+            return size() > capacity;
+        }
+    }
+}
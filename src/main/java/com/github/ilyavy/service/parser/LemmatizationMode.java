@@ -0,0 +1,33 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.function.Supplier;
+
+/**
+ * Modes of lemmatization, which trade the accuracy of the analysis for its speed.
+ */
+public enum LemmatizationMode {
+
+    /** Words are taken as they are, without lemmatization. */
+    FAST(RegexLemmatizer::new),
+
+    /** Words are stemmed by their morphology, without part of speech tagging. */
+    BALANCED(MorphologyLemmatizer::new),
+
+    /** Words are lemmatized by the full pipeline with part of speech tagging. */
+    ACCURATE(Lemmatizer::new);
+
+    private final Supplier<Lemmatizer> factory;
+
+    LemmatizationMode(Supplier<Lemmatizer> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Creates a new lemmatizer working in this mode.
+     *
+     * @return lemmatizer
+     */
+    public Lemmatizer createLemmatizer() {
+        return factory.get();
+    }
+}
@@ -1,11 +1,16 @@
 package com.github.ilyavy.service.parser;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.zip.CRC32C;
 
 import edu.stanford.nlp.ling.CoreAnnotations;
 import edu.stanford.nlp.ling.CoreLabel;
 import edu.stanford.nlp.pipeline.Annotation;
 import edu.stanford.nlp.pipeline.StanfordCoreNLP;
+import edu.stanford.nlp.util.CoreMap;
 import io.github.pepperkit.corenlp.stopwords.StopWordsAnnotator;
 
 /**
@@ -18,17 +23,42 @@ public class Lemmatizer {
      */
     protected static final String WORD_LENGTH_THRESHOLD = "4";
 
+    /**
+     * Resource with the list of the stop words.
+     */
+    protected static final String STOP_WORDS_RESOURCE = "stopwords.txt";
+
+    private static final String STOP_WORDS_HASH = hashOfResource(STOP_WORDS_RESOURCE);
+
     protected StanfordCoreNLP pipeline;
 
     /**
      * Constructor.
      */
     public Lemmatizer() {
-        Properties props;
-        props = new Properties();
-        props.put("annotators", "tokenize, ssplit, pos, lemma, stopwords");
+        this.pipeline = new StanfordCoreNLP(createProperties("tokenize, ssplit, pos, lemma, stopwords"));
+    }
+
+    /**
+     * Constructor for the lemmatizers, which use their own pipeline, or no pipeline at all.
+     * @param pipeline  pipeline to annotate the texts with
+     */
+    protected Lemmatizer(StanfordCoreNLP pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * Creates the properties of the pipeline of the annotators, the annotators are configured the same way
+     * in all the pipelines, which are parts of the full one.
+     * @param annotators  annotators of the pipeline
+     * @return  properties of the pipeline
+     */
+    protected static Properties createProperties(String annotators) {
+        Properties props = new Properties();
+        props.put("annotators", annotators);
         props.setProperty("customAnnotatorClass.stopwords", "io.github.pepperkit.corenlp.stopwords.StopWordsAnnotator");
-        props.setProperty("ssplit.isOneSentence", "true");
+        // Every line is a sentence, so a batch of sentences can be annotated at once
+        props.setProperty("ssplit.eolonly", "true");
         props.setProperty("stopwords.shorterThan", WORD_LENGTH_THRESHOLD);
         props.setProperty("stopwords.withLemmasShorterThan", WORD_LENGTH_THRESHOLD);
         props.setProperty("stopwords.withPosCategories",
@@ -49,9 +79,40 @@ public class Lemmatizer {
                         "WRB" // wh-adverb
         );
         props.setProperty("stopwords.checkOnlyLemmas", "false");
-        props.setProperty("stopwords.customListResourcesFilePath", "stopwords.txt");
+        props.setProperty("stopwords.customListResourcesFilePath", STOP_WORDS_RESOURCE);
+        return props;
+    }
+
+    /**
+     * Creates the pipeline, which only splits the texts into tokens and the lines into sentences.
+     * @return  tokenizing pipeline
+     */
+    protected static StanfordCoreNLP createTokenizingPipeline() {
+        Properties props = new Properties();
+        props.put("annotators", "tokenize, ssplit");
+        props.setProperty("ssplit.eolonly", "true");
+        return new StanfordCoreNLP(props);
+    }
+
+    /**
+     * Returns the hash of the list of the stop words. The results of the lemmatization, which are kept between
+     * the runs of the application, are valid only for the same list.
+     * @return  hex string of the hash
+     */
+    public static String stopWordsHash() {
+        return STOP_WORDS_HASH;
+    }
 
-        this.pipeline = new StanfordCoreNLP(props);
+    private static String hashOfResource(String resource) {
+        try (InputStream in = Lemmatizer.class.getClassLoader().getResourceAsStream(resource)) {
+            CRC32C crc32c = new CRC32C();
+            if (in != null) {
+                crc32c.update(in.readAllBytes());
+            }
+            return String.format("%08x", crc32c.getValue());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -64,14 +125,69 @@ public class Lemmatizer {
         this.pipeline.annotate(document);
 
         List<String> lemmas = new ArrayList<>();
-        List<CoreLabel> tokens = document.get(CoreAnnotations.TokensAnnotation.class);
+        collectLemmas(document.get(CoreAnnotations.TokensAnnotation.class), lemmas);
+
+        return lemmas;
+    }
+
+    /**
+     * Lemmatizes the sentences in one pass of the pipeline, instead of annotating every sentence separately.
+     * Line breaks inside the sentences are treated as spaces.
+     * @param sentences  sentences to be lemmatized
+     * @return  the lists of lemmas of words of every sentence, in the order of the sentences
+     */
+    public List<List<String>> lemmatize(List<String> sentences) {
+        List<List<String>> lemmas = new ArrayList<>(sentences.size());
+        for (List<CoreLabel> tokens : annotate(pipeline, sentences)) {
+            List<String> sentenceLemmas = new ArrayList<>();
+            collectLemmas(tokens, sentenceLemmas);
+            lemmas.add(sentenceLemmas);
+        }
+
+        return lemmas;
+    }
+
+    /**
+     * Annotates the sentences in one pass of the pipeline, which should split the text into sentences by lines.
+     * @param pipeline  pipeline to annotate the sentences with
+     * @param sentences  sentences to be annotated
+     * @return  the lists of tokens of every sentence, in the order of the sentences
+     */
+    protected List<List<CoreLabel>> annotate(StanfordCoreNLP pipeline, List<String> sentences) {
+        if (sentences.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        int[] starts = new int[sentences.size()];
+        StringBuilder text = new StringBuilder();
+        List<List<CoreLabel>> tokens = new ArrayList<>(sentences.size());
+
+        for (int i = 0; i < sentences.size(); i++) {
+            starts[i] = text.length();
+            text.append(sentences.get(i).replace('\n', ' ').replace('\r', ' ')).append('\n');
+            tokens.add(List.of());
+        }
+
+        Annotation document = new Annotation(text.toString());
+        pipeline.annotate(document);
+
+        // Blank sentences are skipped by the pipeline, so the annotated sentences are matched by their offsets
+        for (CoreMap sentence : document.get(CoreAnnotations.SentencesAnnotation.class)) {
+            int index = Arrays.binarySearch(starts, sentence.get(CoreAnnotations.CharacterOffsetBeginAnnotation.class));
+            if (index < 0) {
+                index = -index - 2;
+            }
+            tokens.set(index, sentence.get(CoreAnnotations.TokensAnnotation.class));
+        }
+
+        return tokens;
+    }
 
+    private void collectLemmas(List<CoreLabel> tokens, List<String> lemmas) {
         for (CoreLabel token : tokens) {
             if (!token.get(StopWordsAnnotator.class)) {
                 lemmas.add(token.get(CoreAnnotations.LemmaAnnotation.class));
             }
         }
-
-        return lemmas;
     }
 }
@@ -0,0 +1,184 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Pool of lemmatizers, so the sentences can be lemmatized in parallel, every worker using its own CoreNLP pipeline.
+ * Lemmatizers are created lazily, when there is no idle one, up to the maximum size of the pool. When all of them
+ * are busy, a worker waits for one to be released. The waiting is managed blocking, so a fork/join pool can add
+ * a worker meanwhile, and the waiting worker re-checks the pool periodically: it creates a lemmatizer itself,
+ * if the creation of another one fails, and it stops waiting, once the analysis is cancelled.
+ */
+public class LemmatizerPool {
+
+    /** Interval of re-checking the pool, while waiting for a lemmatizer. */
+    private static final long WAIT_MILLIS = 100;
+
+    private final Supplier<Lemmatizer> factory;
+
+    private final int maxSize;
+
+    private final BlockingQueue<Lemmatizer> idle = new LinkedBlockingQueue<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Creates the pool of default lemmatizers.
+     *
+     * @param maxSize maximum number of lemmatizers
+     */
+    public LemmatizerPool(final int maxSize) {
+        this(Lemmatizer::new, maxSize);
+    }
+
+    /**
+     * Creates the pool of lemmatizers created by the factory.
+     *
+     * @param factory factory of lemmatizers
+     * @param maxSize maximum number of lemmatizers
+     */
+    public LemmatizerPool(final Supplier<Lemmatizer> factory, final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Maximum size of the pool should be positive: " + maxSize);
+        }
+        this.factory = factory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Takes an idle lemmatizer from the pool, creates a new one, or waits for one to be released.
+     * The lemmatizer should be returned with {@link #release(Lemmatizer)}.
+     *
+     * @return lemmatizer for exclusive use
+     * @throws IllegalStateException if the thread is interrupted while waiting
+     */
+    public Lemmatizer borrow() {
+        return borrow(new Cancellation());
+    }
+
+    /**
+     * Takes an idle lemmatizer from the pool, creates a new one, or waits for one to be released,
+     * until the analysis is cancelled. The lemmatizer should be returned with {@link #release(Lemmatizer)}.
+     *
+     * @param cancellation cancellation of the analysis, which needs the lemmatizer
+     * @return lemmatizer for exclusive use
+     * @throws IllegalStateException if the thread is interrupted while waiting
+     * @throws java.util.concurrent.CancellationException if the analysis is cancelled
+     */
+    public Lemmatizer borrow(final Cancellation cancellation) {
+        while (true) {
+            cancellation.throwIfCancelled();
+            Lemmatizer lemmatizer = idle.poll();
+            if (lemmatizer != null) {
+                return lemmatizer;
+            }
+
+            if (size.incrementAndGet() <= maxSize) {
+                try {
+                    return factory.get();
+                } catch (RuntimeException e) {
+                    size.decrementAndGet();
+                    throw e;
+                }
+            }
+            size.decrementAndGet();
+
+            // Nothing may be released, if the lemmatizer being created fails, so the size is checked again
+            lemmatizer = awaitIdle();
+            if (lemmatizer != null) {
+                return lemmatizer;
+            }
+        }
+    }
+
+    private Lemmatizer awaitIdle() {
+        IdleLemmatizerBlocker blocker = new IdleLemmatizerBlocker();
+        try {
+            ForkJoinPool.managedBlock(blocker);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a lemmatizer", e);
+        }
+        return blocker.lemmatizer;
+    }
+
+    /**
+     * Returns the lemmatizer to the pool.
+     *
+     * @param lemmatizer lemmatizer taken by {@link #borrow()}
+     */
+    public void release(final Lemmatizer lemmatizer) {
+        idle.add(lemmatizer);
+    }
+
+    /**
+     * Applies the action to a lemmatizer from the pool, returns the lemmatizer back afterwards.
+     *
+     * @param action action to apply
+     * @param <T>    type of the result
+     * @return result of the action
+     */
+    public <T> T withLemmatizer(final Function<Lemmatizer, T> action) {
+        return withLemmatizer(new Cancellation(), action);
+    }
+
+    /**
+     * Applies the action to a lemmatizer from the pool, returns the lemmatizer back afterwards.
+     * The lemmatizer isn't waited for, once the analysis is cancelled.
+     *
+     * @param cancellation cancellation of the analysis
+     * @param action       action to apply
+     * @param <T>          type of the result
+     * @return result of the action
+     * @throws java.util.concurrent.CancellationException if the analysis is cancelled
+     */
+    public <T> T withLemmatizer(final Cancellation cancellation, final Function<Lemmatizer, T> action) {
+        Lemmatizer lemmatizer = borrow(cancellation);
+        try {
+            return action.apply(lemmatizer);
+        } finally {
+            release(lemmatizer);
+        }
+    }
+
+    /**
+     * Returns the number of lemmatizers created by the pool.
+     *
+     * @return number of created lemmatizers
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Waits for a released lemmatizer no longer than the interval of re-checking the pool.
+     */
+    private final class IdleLemmatizerBlocker implements ForkJoinPool.ManagedBlocker {
+
+        private Lemmatizer lemmatizer;
+
+        @Override
+        public boolean block() throws InterruptedException {
+            lemmatizer = idle.poll(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            if (lemmatizer == null) {
+                lemmatizer = idle.poll();
+            }
+            return lemmatizer != null;
+        }
+    }
+}
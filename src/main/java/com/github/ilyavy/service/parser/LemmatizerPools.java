@@ -0,0 +1,37 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Pools of lemmatizers for every {@link LemmatizationMode}. The pools are cheap to hold, since lemmatizers are created
+ * lazily, only when the mode is used.
+ */
+public class LemmatizerPools {
+
+    private final Map<LemmatizationMode, LemmatizerPool> pools = new EnumMap<>(LemmatizationMode.class);
+
+    /**
+     * Creates the pools.
+     *
+     * @param factories factories of lemmatizers by the modes
+     * @param maxSize   maximum number of lemmatizers in every pool
+     */
+    public LemmatizerPools(final Function<LemmatizationMode, Supplier<Lemmatizer>> factories, final int maxSize) {
+        for (LemmatizationMode mode : LemmatizationMode.values()) {
+            pools.put(mode, new LemmatizerPool(factories.apply(mode), maxSize));
+        }
+    }
+
+    /**
+     * Returns the pool of lemmatizers working in the mode.
+     *
+     * @param mode lemmatization mode
+     * @return pool of lemmatizers
+     */
+    public LemmatizerPool get(final LemmatizationMode mode) {
+        return pools.get(mode);
+    }
+}
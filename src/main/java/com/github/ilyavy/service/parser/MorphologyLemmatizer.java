@@ -0,0 +1,91 @@
+package com.github.ilyavy.service.parser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import edu.stanford.nlp.ling.CoreLabel;
+import edu.stanford.nlp.process.Morphology;
+
+/**
+ * Lemmatizer, which stems the words by their morphology only, without part of speech tagging, which is
+ * the most expensive part of the full pipeline. Stop words are filtered out like {@link Lemmatizer} does,
+ * but since parts of speech are unknown, capitalized words in the middle of a sentence are taken
+ * for proper nouns.
+ */
+public class MorphologyLemmatizer extends Lemmatizer {
+
+    private static final int MIN_WORD_LENGTH = Integer.parseInt(WORD_LENGTH_THRESHOLD);
+
+    private static final Set<String> STOP_WORDS = readStopWords();
+
+    private final Morphology morphology = new Morphology();
+
+    /**
+     * Constructor.
+     */
+    public MorphologyLemmatizer() {
+        super(createTokenizingPipeline());
+    }
+
+    @Override
+    public List<String> lemmatize(String text) {
+        return lemmatize(List.of(text)).get(0);
+    }
+
+    @Override
+    public List<List<String>> lemmatize(List<String> sentences) {
+        List<List<String>> lemmas = new ArrayList<>(sentences.size());
+        for (List<CoreLabel> tokens : annotate(pipeline, sentences)) {
+            List<String> sentenceLemmas = new ArrayList<>();
+            for (int i = 0; i < tokens.size(); i++) {
+                String lemma = lemmaOf(tokens.get(i).word(), i == 0);
+                if (lemma != null) {
+                    sentenceLemmas.add(lemma);
+                }
+            }
+            lemmas.add(sentenceLemmas);
+        }
+        return lemmas;
+    }
+
+    /**
+     * Returns the lemma of the word, or null if the word is a stop word.
+     */
+    private String lemmaOf(String word, boolean isFirstInSentence) {
+        if (word.length() < MIN_WORD_LENGTH || !Character.isLetter(word.charAt(0))
+                || (!isFirstInSentence && Character.isUpperCase(word.charAt(0)))) {
+            return null;
+        }
+
+        String lowerCaseWord = word.toLowerCase();
+        String lemma = morphology.stem(lowerCaseWord);
+        if (lemma.length() < MIN_WORD_LENGTH || STOP_WORDS.contains(lowerCaseWord) || STOP_WORDS.contains(lemma)) {
+            return null;
+        }
+        return lemma;
+    }
+
+    private static Set<String> readStopWords() {
+        InputStream stopWords = MorphologyLemmatizer.class.getClassLoader().getResourceAsStream(STOP_WORDS_RESOURCE);
+        if (stopWords == null) {
+            return Set.of();
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stopWords, StandardCharsets.UTF_8))) {
+            return reader.lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty())
+                    .map(String::toLowerCase)
+                    .collect(Collectors.toSet());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
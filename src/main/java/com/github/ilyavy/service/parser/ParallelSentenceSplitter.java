@@ -0,0 +1,137 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Splits a text into sentences in parallel. The text is cut into ranges at arbitrary offsets, every range
+ * is scanned for sentences independently, then the fragments of the sentences, which straddle the edges
+ * of the ranges, are joined. The result is the same as {@link BookTextParser#parseTextIntoSentences(String)}
+ * returns.
+ */
+public final class ParallelSentenceSplitter {
+
+    /**
+     * Texts shorter than this are split sequentially.
+     */
+    private static final int MIN_PARALLEL_LENGTH = 1 << 16;
+
+    private final int parallelism;
+
+    /**
+     * Creates the splitter, which cuts the text into the number of ranges equal to available CPU cores.
+     */
+    public ParallelSentenceSplitter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates the splitter, which cuts the text into the specified number of ranges.
+     *
+     * @param parallelism number of ranges
+     */
+    public ParallelSentenceSplitter(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism should be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the list of strings, each of which is a sentence from the provided text.
+     *
+     * @param text text to analyze
+     * @return list of sentences
+     */
+    public List<String> split(final CharSequence text) {
+        if (parallelism == 1 || text.length() < MIN_PARALLEL_LENGTH) {
+            List<String> sentences = new ArrayList<>();
+            new SentenceSpliterator(text).forEachRemaining(sentence -> sentences.add(sentence.toString()));
+            return sentences;
+        }
+
+        // The edges are computed in long, they overflow int for texts close to the maximum length
+        long step = (long) Math.ceil(text.length() / (double) parallelism);
+        List<Fragments> ranges = IntStream.range(0, parallelism)
+                .parallel()
+                .mapToObj(i -> scan(text, (int) Math.min(i * step, text.length()),
+                        (int) Math.min((i + 1) * step, text.length())))
+                .collect(Collectors.toList());
+
+        Fragments sentences = join(ranges);
+        return IntStream.range(0, sentences.size)
+                .parallel()
+                .mapToObj(i -> text.subSequence(sentences.starts[i], sentences.ends[i]).toString())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Finds the maximal runs of chars without sentence delimiters in the range of the text.
+     */
+    static Fragments scan(final CharSequence text, final int start, final int end) {
+        Fragments fragments = new Fragments();
+        int position = start;
+
+        while (position < end) {
+            while (position < end && SentenceSpliterator.isSentenceDelimiter(text.charAt(position))) {
+                position++;
+            }
+            if (position == end) {
+                break;
+            }
+            int fragmentStart = position;
+            while (position < end && !SentenceSpliterator.isSentenceDelimiter(text.charAt(position))) {
+                position++;
+            }
+            fragments.add(fragmentStart, position);
+        }
+
+        return fragments;
+    }
+
+    /**
+     * Joins the fragments of all the ranges in order. Fragments of the same range are always separated
+     * by a delimiter, so a fragment starting exactly where the previous one ends is a sentence cut
+     * by the edge of a range.
+     */
+    static Fragments join(final List<Fragments> ranges) {
+        Fragments sentences = new Fragments();
+
+        for (Fragments range : ranges) {
+            for (int i = 0; i < range.size; i++) {
+                if (sentences.size > 0 && sentences.ends[sentences.size - 1] == range.starts[i]) {
+                    sentences.ends[sentences.size - 1] = range.ends[i];
+                } else {
+                    sentences.add(range.starts[i], range.ends[i]);
+                }
+            }
+        }
+
+        return sentences;
+    }
+
+    /**
+     * Growable list of [start, end) ranges of the text.
+     */
+    static final class Fragments {
+
+        private int[] starts = new int[64];
+
+        private int[] ends = new int[64];
+
+        private int size;
+
+        void add(final int start, final int end) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+    }
+}
@@ -17,11 +17,26 @@ import com.github.ilyavy.service.parser.word.SimpleWord;
  */
 public class ParallelStreamsBookTextParser extends BookTextParser {
 
+    @Override
+    protected boolean isParallel() {
+        return true;
+    }
+
     @Override
     public Map<String, Word> countWords(List<String> sentences) {
+        return countWords(sentences, new Cancellation());
+    }
+
+    /**
+     * {@inheritDoc}
+     * The sentences following the cancellation are skipped.
+     */
+    @Override
+    public Map<String, Word> countWords(List<String> sentences, Cancellation cancellation) {
         Map<String, Word> wordsMap = sentences
                 .parallelStream()
                 .unordered()
+                .filter(sentence -> !cancellation.isCancelled())
                 .map(this::parseSentence)
                 .flatMap(Collection::stream)
                 .collect(Collectors.toConcurrentMap(Word::getWord, Function.identity(), (w1, w2) -> {
@@ -33,6 +48,8 @@ public class ParallelStreamsBookTextParser extends BookTextParser {
         // TODO: test all the parsers around the boundary -- N = 10000 sentences and probably around N = 8000 sentences
         // https://developer.ibm.com/articles/j-java-streams-5-brian-goetz/
 
+        // The map of a cancelled counting is incomplete
+        cancellation.throwIfCancelled();
         return wordsMap;
     }
 
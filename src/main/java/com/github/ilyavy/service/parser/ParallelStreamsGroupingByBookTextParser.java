@@ -16,10 +16,25 @@ import com.github.ilyavy.service.parser.word.SimpleWord;
  */
 public class ParallelStreamsGroupingByBookTextParser extends BookTextParser {
 
+    @Override
+    protected boolean isParallel() {
+        return true;
+    }
+
     @Override
     public Map<String, Word> countWords(List<String> sentences) {
-        return sentences
+        return countWords(sentences, new Cancellation());
+    }
+
+    /**
+     * {@inheritDoc}
+     * The sentences following the cancellation are skipped.
+     */
+    @Override
+    public Map<String, Word> countWords(List<String> sentences, Cancellation cancellation) {
+        Map<String, Word> wordsMap = sentences
                 .parallelStream()
+                .filter(sentence -> !cancellation.isCancelled())
                 .map(this::parseSentence)
                 .flatMap(Collection::stream)
                 .collect(Collectors.groupingByConcurrent(Word::getWord,
@@ -33,6 +48,9 @@ public class ParallelStreamsGroupingByBookTextParser extends BookTextParser {
                             w1.incrementCount();
                             return w1;
                         })));
+
+        cancellation.throwIfCancelled();
+        return wordsMap;
     }
 
     /**
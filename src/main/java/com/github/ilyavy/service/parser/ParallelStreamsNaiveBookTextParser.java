@@ -1,15 +1,27 @@
 package com.github.ilyavy.service.parser;
 
 import java.util.List;
+import java.util.Spliterator;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Naive streams implementation, with stream been parallelized.
  */
 public class ParallelStreamsNaiveBookTextParser extends SingleStreamNaiveBookTextParser {
 
+    @Override
+    protected boolean isParallel() {
+        return true;
+    }
+
     @Override
     Stream<String> getSentencesStream(List<String> sentences) {
         return sentences.parallelStream();
     }
+
+    @Override
+    Stream<? extends CharSequence> getSentencesStream(Spliterator<? extends CharSequence> sentences) {
+        return StreamSupport.stream(sentences, true);
+    }
 }
@@ -17,16 +17,34 @@ import com.github.ilyavy.service.parser.word.SimpleWord;
  */
 public class ParallelStreamsToMapBookTextParser extends BookTextParser {
 
+    @Override
+    protected boolean isParallel() {
+        return true;
+    }
+
     @Override
     public Map<String, Word> countWords(List<String> sentences) {
-        return sentences
+        return countWords(sentences, new Cancellation());
+    }
+
+    /**
+     * {@inheritDoc}
+     * The sentences following the cancellation are skipped.
+     */
+    @Override
+    public Map<String, Word> countWords(List<String> sentences, Cancellation cancellation) {
+        Map<String, Word> wordsMap = sentences
                 .parallelStream()
+                .filter(sentence -> !cancellation.isCancelled())
                 .map(this::parseSentence)
                 .flatMap(Collection::stream)
                 .collect(Collectors.toMap(Word::getWord, Function.identity(), (w1, w2) -> {
                     w1.incrementCount();
                     return w1;
                 }));
+
+        cancellation.throwIfCancelled();
+        return wordsMap;
     }
 
     /**
@@ -16,16 +16,32 @@ import com.github.ilyavy.service.parser.word.SimpleWord;
  */
 public class ParallelStreamsWithOnlyFlatmapBookTextParser extends BookTextParser {
 
+    @Override
+    protected boolean isParallel() {
+        return true;
+    }
+
     @Override
     public Map<String, Word> countWords(List<String> sentences) {
+        return countWords(sentences, new Cancellation());
+    }
+
+    /**
+     * {@inheritDoc}
+     * The sentences following the cancellation are skipped.
+     */
+    @Override
+    public Map<String, Word> countWords(List<String> sentences, Cancellation cancellation) {
         Map<String, Word> wordsMap = sentences
                 .parallelStream()
+                .filter(sentence -> !cancellation.isCancelled())
                 .flatMap(s -> this.parseSentence(s).stream())
                 .collect(Collectors.toConcurrentMap(Word::getWord, Function.identity(), (w1, w2) -> {
                     w1.incrementCount();
                     return w1;
                 }));
 
+        cancellation.throwIfCancelled();
         return wordsMap;
     }
 
@@ -0,0 +1,331 @@
+package com.github.ilyavy.service.parser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RecursiveTask;
+
+import com.github.ilyavy.model.Word;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Book parser, which lemmatizes the sentences in parallel. The sentences are forked into chunks like
+ * {@link ForkJoinBookTextParser} does, every chunk is lemmatized by a lemmatizer taken from {@link LemmatizerPool}
+ * for the time of processing the chunk, and counted into its own {@link WordCountTable}.
+ * The counting can be cancelled, the lemmatization stops at the next batch of sentences.
+ * The sentences of a flux are lemmatized on the bounded elastic scheduler, not on the parallel one,
+ * since the lemmatization blocks the threads.
+ */
+public class PooledLemmatizerForkJoinBookTextParser extends BookTextParser {
+
+    /**
+     * Number of sentences lemmatized by one lemmatizer in a row, when the sentences are counted incrementally.
+     */
+    private static final int SENTENCES_BATCH_SIZE = 256;
+
+    private final LemmatizerPool lemmatizerPool;
+
+    public PooledLemmatizerForkJoinBookTextParser(LemmatizerPool lemmatizerPool) {
+        this.lemmatizerPool = lemmatizerPool;
+    }
+
+    @Override
+    protected boolean isParallel() {
+        return true;
+    }
+
+    @Override
+    public Map<String, Word> countWords(final List<String> sentences) {
+        return countWords(sentences.spliterator());
+    }
+
+    @Override
+    public Map<String, Word> countWords(final List<String> sentences, final Cancellation cancellation) {
+        return countWords(sentences.spliterator(), cancellation);
+    }
+
+    @Override
+    public Map<String, Word> countWords(final Spliterator<? extends CharSequence> sentences) {
+        return countWords(sentences, new Cancellation());
+    }
+
+    /**
+     * {@inheritDoc}
+     * The lemmatization stops at the next batch of sentences.
+     */
+    @Override
+    public Map<String, Word> countWords(final Spliterator<? extends CharSequence> sentences,
+                                        final Cancellation cancellation) {
+        int numberOfWorkers = Math.min(Runtime.getRuntime().availableProcessors(), lemmatizerPool.getMaxSize());
+        long sequentialThreshold = (long) Math.ceil(sentences.estimateSize() / (double) numberOfWorkers);
+
+        LemmatizeSentencesTask task = new LemmatizeSentencesTask(sentences, sequentialThreshold, cancellation);
+        WordCountTable table = task.compute();
+        // The table of a cancelled counting is incomplete
+        cancellation.throwIfCancelled();
+        return table.toWordsMap();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Cancelling the subscription stops the batches being lemmatized.
+     */
+    @Override
+    public Mono<Map<String, Word>> countWords(final Flux<? extends CharSequence> sentences) {
+        return Mono.defer(() -> {
+            Cancellation cancellation = new Cancellation();
+
+            return sentences
+                    .buffer(SENTENCES_BATCH_SIZE)
+                    .parallel(lemmatizerPool.getMaxSize())
+                    // The lemmatization is blocking, it waits for a lemmatizer and occupies the thread for long
+                    .runOn(Schedulers.boundedElastic())
+                    .map(batch -> count(batch.spliterator(), cancellation, null))
+                    .reduce(WordCountTable::addAll)
+                    .map(WordCountTable::toWordsMap)
+                    .defaultIfEmpty(Map.of())
+                    .doOnCancel(cancellation::cancel);
+        });
+    }
+
+    /**
+     * Counts the words incrementally like {@link #countWords(Flux)} does, but publishes the snapshots
+     * of the most frequent words found so far, at most once per the period. The last snapshot is complete,
+     * it has the readability statistics of the text as well, they are collected along with the lemmatization.
+     * Cancelling the subscription stops the batches being lemmatized.
+     * @param sentences flux of sentences
+     * @param textLength length of the text, from which the sentences are taken, to estimate the progress
+     * @param topWordsNumber number of the most frequent words in a snapshot
+     * @param period minimal period between the snapshots
+     * @return flux of the snapshots
+     */
+    public Flux<AnalysisProgress> countWordsProgressively(final Flux<? extends CharSequence> sentences,
+                                                          final long textLength, final int topWordsNumber,
+                                                          final Duration period) {
+        return Flux.defer(() -> {
+            ProgressTracker tracker = new ProgressTracker(textLength, topWordsNumber, period);
+            Cancellation cancellation = new Cancellation();
+
+            return sentences
+                    .buffer(SENTENCES_BATCH_SIZE)
+                    // The batches are counted in any order, but their statistics are merged in the order of the text
+                    .index()
+                    .parallel(lemmatizerPool.getMaxSize())
+                    .runOn(Schedulers.boundedElastic())
+                    .map(indexed -> {
+                        List<? extends CharSequence> batch = indexed.getT2();
+                        TextStatistics statistics = new TextStatistics();
+                        return new CountedBatch(indexed.getT1(),
+                                count(batch.spliterator(), cancellation, statistics), statistics, batch.size(),
+                                batch.stream().mapToLong(CharSequence::length).sum());
+                    })
+                    .sequential()
+                    .<AnalysisProgress>handle((batch, sink) -> {
+                        AnalysisProgress snapshot = tracker.add(batch);
+                        if (snapshot != null) {
+                            sink.next(snapshot);
+                        }
+                    })
+                    .concatWith(Mono.fromCallable(tracker::complete))
+                    .doOnCancel(cancellation::cancel);
+        });
+    }
+
+    @Override
+    protected Map<String, Word> parseSentence(final String sentence, final Map<String, Word> wordsMap) {
+        return lemmatizerPool.withLemmatizer(lemmatizer -> parseSentence(lemmatizer, sentence, wordsMap));
+    }
+
+    @Override
+    protected Map<String, Word> parseSentences(final List<String> sentences, final Map<String, Word> wordsMap) {
+        return lemmatizerPool.withLemmatizer(lemmatizer -> parseSentences(lemmatizer, sentences, wordsMap));
+    }
+
+    /**
+     * Counts the words in the sentences, if the counting is cancelled, stops at the next batch of sentences
+     * and returns the words counted so far. The readability statistics are collected from the sentences
+     * of every batch, while they are converted for the lemmatizer, if the statistics are not null.
+     */
+    private WordCountTable count(final Spliterator<? extends CharSequence> sentences,
+                                 final Cancellation cancellation, final TextStatistics statistics) {
+        WordCountTable table = new WordCountTable(knownWords);
+        if (cancellation.isCancelled()) {
+            return table;
+        }
+        try {
+            return lemmatizerPool.withLemmatizer(cancellation, lemmatizer -> countBatches(
+                    lemmatizer, sentences, cancellation, statistics, table));
+        } catch (CancellationException e) {
+            // Cancelled while waiting for a lemmatizer, nothing is counted
+            return table;
+        }
+    }
+
+    private static WordCountTable countBatches(final Lemmatizer lemmatizer,
+                                               final Spliterator<? extends CharSequence> sentences,
+                                               final Cancellation cancellation, final TextStatistics statistics,
+                                               final WordCountTable table) {
+        // The lemmatizer needs strings, but the sentences are kept as contexts as they are, e.g. as spans of the text
+        List<CharSequence> batch = new ArrayList<>(LEMMATIZATION_BATCH_SIZE);
+        List<String> texts = new ArrayList<>(LEMMATIZATION_BATCH_SIZE);
+        while (!cancellation.isCancelled() && nextBatch(sentences, batch)) {
+            for (CharSequence sentence : batch) {
+                texts.add(sentence.toString());
+                if (statistics != null) {
+                    statistics.addSentence(sentence);
+                }
+            }
+            count(lemmatizer, batch, texts, table);
+            batch.clear();
+            texts.clear();
+        }
+        return table;
+    }
+
+    /**
+     * Fills the batch with the next sentences, returns false, if there are no more sentences.
+     */
+    private static boolean nextBatch(final Spliterator<? extends CharSequence> sentences,
+                                     final List<CharSequence> batch) {
+        while (batch.size() < LEMMATIZATION_BATCH_SIZE) {
+            if (!sentences.tryAdvance(batch::add)) {
+                break;
+            }
+        }
+        return !batch.isEmpty();
+    }
+
+    private static void count(final Lemmatizer lemmatizer, final List<? extends CharSequence> batch,
+                              final List<String> texts, final WordCountTable table) {
+        List<List<String>> lemmas = lemmatizer.lemmatize(texts);
+        for (int i = 0; i < batch.size(); i++) {
+            table.incrementAll(lemmas.get(i), batch.get(i));
+        }
+    }
+
+    /**
+     * Words counted in a batch of sentences and the statistics of the batch.
+     */
+    private record CountedBatch(long index, WordCountTable table, TextStatistics statistics, int sentences,
+                                long chars) {
+    }
+
+    /**
+     * Merges the counted batches, makes the snapshots of the progress, when they are due.
+     * Not thread-safe, the batches should be added sequentially.
+     */
+    private static final class ProgressTracker {
+
+        private final WordCountTable table = new WordCountTable();
+
+        private final TextStatistics statistics = new TextStatistics();
+
+        /**
+         * Statistics of the batches, which are counted ahead of the previous ones, by the indexes of the batches.
+         */
+        private final Map<Long, TextStatistics> pendingStatistics = new HashMap<>();
+
+        private long nextIndex;
+
+        private final long textLength;
+
+        private final int topWordsNumber;
+
+        private final long periodNanos;
+
+        private final long startNanos = System.nanoTime();
+
+        private long lastSnapshotNanos = startNanos;
+
+        private long sentences;
+
+        private long chars;
+
+        ProgressTracker(final long textLength, final int topWordsNumber, final Duration period) {
+            this.textLength = textLength;
+            this.topWordsNumber = topWordsNumber;
+            this.periodNanos = period.toNanos();
+        }
+
+        /**
+         * Adds the batch, returns the snapshot, if it is due, otherwise null.
+         */
+        AnalysisProgress add(final CountedBatch batch) {
+            table.addAll(batch.table());
+            pendingStatistics.put(batch.index(), batch.statistics());
+            TextStatistics next;
+            while ((next = pendingStatistics.remove(nextIndex)) != null) {
+                statistics.addAll(next);
+                nextIndex++;
+            }
+            sentences += batch.sentences();
+            chars += batch.chars();
+
+            long now = System.nanoTime();
+            if (now - lastSnapshotNanos < periodNanos) {
+                return null;
+            }
+            lastSnapshotNanos = now;
+
+            // Delimiters of the sentences are not counted, so the progress is slightly underestimated
+            double percent = textLength > 0 ? Math.min(100.0, 100.0 * chars / textLength) : 0;
+            return new AnalysisProgress(table.topWords(topWordsNumber), percent, sentencesPerSecond(now), null, null);
+        }
+
+        AnalysisProgress complete() {
+            return new AnalysisProgress(table.topWords(topWordsNumber), 100, sentencesPerSecond(System.nanoTime()),
+                    table.toWordsMap(), statistics);
+        }
+
+        private double sentencesPerSecond(final long now) {
+            return sentences * 1e9 / Math.max(1, now - startNanos);
+        }
+    }
+
+    /**
+     * Recursive task's implementation, splits the spliterator of sentences up to sequentialThreshold specified.
+     */
+    class LemmatizeSentencesTask extends RecursiveTask<WordCountTable> {
+
+        private final Spliterator<? extends CharSequence> sentences;
+
+        private final long sequentialThreshold;
+
+        private final Cancellation cancellation;
+
+        LemmatizeSentencesTask(Spliterator<? extends CharSequence> sentences, long sequentialThreshold,
+                               Cancellation cancellation) {
+            this.sentences = sentences;
+            this.sequentialThreshold = sequentialThreshold;
+            this.cancellation = cancellation;
+        }
+
+        @Override
+        protected WordCountTable compute() {
+            if (cancellation.isCancelled()) {
+                return new WordCountTable();
+            }
+
+            Spliterator<? extends CharSequence> prefix;
+            if (sentences.estimateSize() > sequentialThreshold && (prefix = sentences.trySplit()) != null) {
+                LemmatizeSentencesTask left = new LemmatizeSentencesTask(prefix, sequentialThreshold, cancellation);
+                left.fork();
+                LemmatizeSentencesTask right = new LemmatizeSentencesTask(sentences, sequentialThreshold,
+                        cancellation);
+
+                WordCountTable rightTable = right.compute();
+                WordCountTable leftTable = left.join();
+                return leftTable.addAll(rightTable);
+
+            } else {
+                return count(sentences, cancellation, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lemmatizer, which does not lemmatize the words, but only finds them in the text the same way
+ * as the parsers matching {@link BookTextParser#PATTERN} do. Words are lower-cased, short words are skipped.
+ */
+public class RegexLemmatizer extends Lemmatizer {
+
+    private final CharTokenizer tokenizer = new CharTokenizer();
+
+    /**
+     * Constructor.
+     */
+    public RegexLemmatizer() {
+        super(null);
+    }
+
+    @Override
+    public List<String> lemmatize(String text) {
+        List<String> words = new ArrayList<>();
+        tokenizer.reset(text);
+        while (tokenizer.next()) {
+            if (tokenizer.length() > BookTextParser.WORD_LENGTH_THRESHOLD) {
+                words.add(tokenizer.token());
+            }
+        }
+        return words;
+    }
+
+    @Override
+    public List<List<String>> lemmatize(List<String> sentences) {
+        List<List<String>> words = new ArrayList<>(sentences.size());
+        for (String sentence : sentences) {
+            words.add(lemmatize(sentence));
+        }
+        return words;
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Lazy spliterator of the sentences of a text. Sentences are the same as found by
+ * {@link BookTextParser#parseTextIntoSentences(String)}, but they are not copied from the text,
+ * every sentence is a {@link TextSpan} view of it.
+ * The spliterator can be split at sentence boundaries, so the sentences can be processed in parallel.
+ */
+public final class SentenceSpliterator implements Spliterator<TextSpan> {
+
+    /**
+     * Approximate length of a sentence, used to estimate the number of the sentences left.
+     */
+    private static final int AVERAGE_SENTENCE_LENGTH = 80;
+
+    /**
+     * Ranges shorter than this are not split further.
+     */
+    private static final int MIN_SPLIT_LENGTH = 1 << 12;
+
+    private final CharSequence text;
+
+    private int position;
+
+    private final int end;
+
+    /**
+     * Creates a spliterator over all the sentences of the text.
+     *
+     * @param text text to split into sentences
+     */
+    public SentenceSpliterator(final CharSequence text) {
+        this(text, 0, text.length());
+    }
+
+    private SentenceSpliterator(final CharSequence text, final int position, final int end) {
+        this.text = text;
+        this.position = position;
+        this.end = end;
+    }
+
+    static boolean isSentenceDelimiter(final char c) {
+        return c == '.' || c == '!' || c == '?';
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super TextSpan> action) {
+        int start = position;
+        while (start < end && isSentenceDelimiter(text.charAt(start))) {
+            start++;
+        }
+        if (start == end) {
+            position = end;
+            return false;
+        }
+
+        int sentenceEnd = start + 1;
+        while (sentenceEnd < end && !isSentenceDelimiter(text.charAt(sentenceEnd))) {
+            sentenceEnd++;
+        }
+        position = sentenceEnd;
+
+        action.accept(new TextSpan(text, start, sentenceEnd));
+        return true;
+    }
+
+    @Override
+    public Spliterator<TextSpan> trySplit() {
+        if (end - position < MIN_SPLIT_LENGTH) {
+            return null;
+        }
+
+        int split = position + (end - position) / 2;
+        while (split < end && !isSentenceDelimiter(text.charAt(split))) {
+            split++;
+        }
+        if (split == end) {
+            return null;
+        }
+
+        var prefix = new SentenceSpliterator(text, position, split);
+        position = split;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return (end - position + AVERAGE_SENTENCE_LENGTH - 1) / AVERAGE_SENTENCE_LENGTH;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
@@ -1,8 +1,10 @@
 package com.github.ilyavy.service.parser;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
 
 import com.github.ilyavy.model.Word;
 
@@ -23,10 +25,26 @@ public class SimpleSequentialBookTextParser extends BookTextParser {
     public Map<String, Word> countWords(final List<String> sentences) {
         Map<String, Word> wordsMap = new HashMap<>();
 
-        for (String sentence : sentences) {
-            parseSentence(sentence, wordsMap);
+        for (int i = 0; i < sentences.size(); i += LEMMATIZATION_BATCH_SIZE) {
+            parseSentences(sentences.subList(i, Math.min(i + LEMMATIZATION_BATCH_SIZE, sentences.size())), wordsMap);
         }
 
         return wordsMap;
     }
+
+    @Override
+    public Map<String, Word> countWords(final Spliterator<? extends CharSequence> sentences) {
+        Map<String, Word> wordsMap = new HashMap<>();
+        List<String> batch = new ArrayList<>(LEMMATIZATION_BATCH_SIZE);
+
+        sentences.forEachRemaining(sentence -> {
+            batch.add(sentence.toString());
+            if (batch.size() == LEMMATIZATION_BATCH_SIZE) {
+                parseSentences(batch, wordsMap);
+                batch.clear();
+            }
+        });
+
+        return parseSentences(batch, wordsMap);
+    }
 }
@@ -3,7 +3,9 @@ package com.github.ilyavy.service.parser;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.github.ilyavy.model.Word;
 
@@ -14,16 +16,52 @@ public class SingleStreamNaiveBookTextParser extends BookTextParser {
 
     @Override
     public Map<String, Word> countWords(List<String> sentences) {
-        return getSentencesStream(sentences)
+        return countWords(sentences, new Cancellation());
+    }
+
+    /**
+     * {@inheritDoc}
+     * The sentences following the cancellation are skipped.
+     */
+    @Override
+    public Map<String, Word> countWords(List<String> sentences, Cancellation cancellation) {
+        Map<String, Word> wordsMap = getSentencesStream(sentences)
+                .filter(sentence -> !cancellation.isCancelled())
                 .map(sentence -> parseSentence(sentence, new HashMap<String, Word>()))
                 .reduce(this::mergeMaps)
                 .orElse(new HashMap<>());
+        cancellation.throwIfCancelled();
+        return wordsMap;
+    }
+
+    @Override
+    public Map<String, Word> countWords(Spliterator<? extends CharSequence> sentences) {
+        return countWords(sentences, new Cancellation());
+    }
+
+    /**
+     * {@inheritDoc}
+     * The sentences following the cancellation are skipped.
+     */
+    @Override
+    public Map<String, Word> countWords(Spliterator<? extends CharSequence> sentences, Cancellation cancellation) {
+        Map<String, Word> wordsMap = getSentencesStream(sentences)
+                .filter(sentence -> !cancellation.isCancelled())
+                .map(sentence -> parseSentence(sentence.toString(), new HashMap<String, Word>()))
+                .reduce(this::mergeMaps)
+                .orElse(new HashMap<>());
+        cancellation.throwIfCancelled();
+        return wordsMap;
     }
 
     Stream<String> getSentencesStream(List<String> sentences) {
         return sentences.stream();
     }
 
+    Stream<? extends CharSequence> getSentencesStream(Spliterator<? extends CharSequence> sentences) {
+        return StreamSupport.stream(sentences, false);
+    }
+
     private Map<String, Word> mergeMaps(Map<String, Word> left, Map<String, Word> right) {
         left.forEach((k, v) ->
                 right.merge(k, v, (w1, w2) -> {
@@ -0,0 +1,69 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.Objects;
+
+/**
+ * A view of the range of a text, e.g. of a sentence in the book. The chars are not copied, they are read
+ * from the underlying text, the string is created only when {@link #toString()} is called.
+ */
+public final class TextSpan implements CharSequence {
+
+    private final CharSequence text;
+
+    private final int start;
+
+    private final int end;
+
+    /**
+     * Creates a view of the specified range of the text.
+     *
+     * @param text  the underlying text
+     * @param start index of the first char of the range, inclusive
+     * @param end   index of the last char of the range, exclusive
+     */
+    public TextSpan(final CharSequence text, final int start, final int end) {
+        Objects.checkFromToIndex(start, end, text.length());
+        this.text = text;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Returns the text, a range of which this span is.
+     *
+     * @return the underlying text
+     */
+    public CharSequence text() {
+        return text;
+    }
+
+    public int start() {
+        return start;
+    }
+
+    public int end() {
+        return end;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        Objects.checkIndex(index, end - start);
+        return text.charAt(start + index);
+    }
+
+    @Override
+    public TextSpan subSequence(final int from, final int to) {
+        Objects.checkFromToIndex(from, to, end - start);
+        return new TextSpan(text, start + from, start + to);
+    }
+
+    @Override
+    public String toString() {
+        return text.subSequence(start, end).toString();
+    }
+}
@@ -0,0 +1,307 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Readability statistics of a text: the numbers of sentences, words and syllables of the whole text and of every
+ * chapter of it, and the Flesch reading-ease scores computed from them. The statistics are collected token by token
+ * in the same pass over the text as the words are counted, letters are classified with a lookup table.
+ * Parts of a text can be collected independently, e.g. by different threads, and merged in the order of the parts.
+ * Not thread-safe.
+ */
+public final class TextStatistics {
+
+    /**
+     * Whether an ASCII char is a vowel, for both cases.
+     */
+    private static final boolean[] VOWELS = new boolean[128];
+
+    static {
+        for (char c : "aeiouy".toCharArray()) {
+            VOWELS[c] = true;
+            VOWELS[Character.toUpperCase(c)] = true;
+        }
+    }
+
+    private static final String CHAPTER = "chapter";
+
+    private static final String ROMAN_NUMERALS = "IVXLCDM";
+
+    /**
+     * Chapters in the order of the text. The first one is the part of the text before the first chapter's heading,
+     * it has no title.
+     */
+    private final List<Chapter> chapters = new ArrayList<>();
+
+    private Chapter current;
+
+    private int sentenceWords;
+
+    private CharTokenizer tokenizer;
+
+    /**
+     * Creates empty statistics.
+     */
+    public TextStatistics() {
+        current = new Chapter(null, 0, 0, 0);
+        chapters.add(current);
+    }
+
+    /**
+     * Creates the statistics of the text consisting of the specified chapters, e.g. collected before.
+     *
+     * @param chapters chapters of the text, the first one can be untitled, if the text does not start
+     *                 with a chapter's heading
+     */
+    public TextStatistics(final List<Chapter> chapters) {
+        if (chapters.isEmpty() || chapters.get(0).getTitle() != null) {
+            this.chapters.add(new Chapter(null, 0, 0, 0));
+        }
+        for (Chapter chapter : chapters) {
+            this.chapters.add(new Chapter(chapter.title, chapter.sentences, chapter.words, chapter.syllables));
+        }
+        current = this.chapters.get(this.chapters.size() - 1);
+    }
+
+    /**
+     * Adds all the sentences, words and syllables of the sentence.
+     *
+     * @param sentence sentence of the text
+     * @return this statistics
+     */
+    public TextStatistics addSentence(final CharSequence sentence) {
+        if (tokenizer == null) {
+            tokenizer = new CharTokenizer();
+        }
+        tokenizer.reset(sentence);
+        while (tokenizer.next()) {
+            addWord(tokenizer, sentence);
+        }
+        endSentence();
+        return this;
+    }
+
+    /**
+     * Adds the current token of the tokenizer as a word of the current sentence. If the word starts a chapter's
+     * heading, e.g. "CHAPTER XI" or "Chapter 11" at the beginning of a sentence, it starts a new chapter.
+     *
+     * @param tokenizer tokenizer of the sentence
+     * @param sentence  sentence, which is tokenized
+     */
+    void addWord(final CharTokenizer tokenizer, final CharSequence sentence) {
+        if (tokenizer.tokenEquals(CHAPTER)) {
+            String title = headingAt(sentence, tokenizer.start(), sentenceWords == 0);
+            if (title != null) {
+                current = new Chapter(title, 0, 0, 0);
+                chapters.add(current);
+            }
+        }
+        sentenceWords++;
+        current.words++;
+        current.syllables += countSyllables(tokenizer.buffer(), tokenizer.length());
+    }
+
+    /**
+     * Ends the current sentence, it's counted, if it has words.
+     */
+    void endSentence() {
+        if (sentenceWords > 0) {
+            current.sentences++;
+            sentenceWords = 0;
+        }
+    }
+
+    /**
+     * Adds the statistics of the text following this one. The untitled beginning of the following text
+     * continues the last chapter of this one.
+     *
+     * @param following statistics of the following text, it should not be changed afterwards
+     * @return this statistics
+     */
+    public TextStatistics addAll(final TextStatistics following) {
+        Chapter continued = following.chapters.get(0);
+        current.sentences += continued.sentences;
+        current.words += continued.words;
+        current.syllables += continued.syllables;
+
+        List<Chapter> next = following.chapters.subList(1, following.chapters.size());
+        if (!next.isEmpty()) {
+            chapters.addAll(next);
+            current = chapters.get(chapters.size() - 1);
+        }
+        return this;
+    }
+
+    public long getSentences() {
+        return chapters.stream().mapToLong(Chapter::getSentences).sum();
+    }
+
+    public long getWords() {
+        return chapters.stream().mapToLong(Chapter::getWords).sum();
+    }
+
+    public long getSyllables() {
+        return chapters.stream().mapToLong(Chapter::getSyllables).sum();
+    }
+
+    /**
+     * Returns the Flesch reading-ease score of the whole text.
+     *
+     * @return the score, or NaN if there are no words
+     */
+    public double getFleschScore() {
+        return fleschScore(getSentences(), getWords(), getSyllables());
+    }
+
+    /**
+     * Returns the chapters of the text, which have words. A text without chapters' headings has a single
+     * untitled chapter.
+     *
+     * @return list of the chapters in the order of the text
+     */
+    public List<Chapter> getChapters() {
+        return chapters.stream().filter(chapter -> chapter.words > 0).toList();
+    }
+
+    /**
+     * Returns the Flesch reading-ease score: 206.835 - 1.015 * words / sentences - 84.6 * syllables / words.
+     *
+     * @param sentences number of the sentences
+     * @param words     number of the words
+     * @param syllables number of the syllables
+     * @return the score, or NaN if there are no words
+     */
+    public static double fleschScore(final long sentences, final long words, final long syllables) {
+        if (words == 0) {
+            return Double.NaN;
+        }
+        return 206.835 - 1.015 * words / Math.max(1, sentences) - 84.6 * syllables / words;
+    }
+
+    /**
+     * Returns the number of the syllables in the word: the number of groups of vowels, the silent final 'e'
+     * is not counted, but every word has at least one syllable, if it has a vowel.
+     *
+     * @param word   chars of the word in any case
+     * @param length length of the word
+     * @return number of the syllables
+     */
+    static int countSyllables(final char[] word, final int length) {
+        if (length == 0) {
+            return 0;
+        }
+        int counter = isVowel(word[0]) ? 1 : 0;
+        for (int i = 1; i < length; i++) {
+            boolean previousIsVowel = isVowel(word[i - 1]);
+            if (i == length - 1 && Character.toLowerCase(word[i]) == 'e') {
+                if (!previousIsVowel && counter == 0) {
+                    counter = 1;
+                }
+            } else if (!previousIsVowel && isVowel(word[i])) {
+                counter++;
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * Returns whether the char is a vowel, 'y' is considered a vowel.
+     *
+     * @param letter char in any case
+     * @return true - if it's a vowel, false - otherwise
+     */
+    static boolean isVowel(final char letter) {
+        return letter < VOWELS.length && VOWELS[letter];
+    }
+
+    /**
+     * Returns the heading of a chapter starting at the index of the "chapter" word, or null if it's not a heading.
+     * The word should be capitalized at the beginning of a sentence, or written in capitals anywhere, e.g. after
+     * the heading of a part, and followed by the number of the chapter, arabic or roman.
+     */
+    private static String headingAt(final CharSequence text, final int start, final boolean sentenceStart) {
+        int end = start + CHAPTER.length();
+        if (!Character.isUpperCase(text.charAt(start))
+                || !sentenceStart && !Character.isUpperCase(text.charAt(end - 1))) {
+            return null;
+        }
+
+        int numberStart = end;
+        while (numberStart < text.length() && Character.isWhitespace(text.charAt(numberStart))) {
+            numberStart++;
+        }
+        int numberEnd = numberStart;
+        while (numberEnd < text.length() && isNumeral(text.charAt(numberEnd))) {
+            numberEnd++;
+        }
+        if (numberEnd == numberStart || numberStart == end
+                || numberEnd < text.length() && Character.isLetter(text.charAt(numberEnd))) {
+            return null;
+        }
+        return text.subSequence(start, end) + " " + text.subSequence(numberStart, numberEnd);
+    }
+
+    private static boolean isNumeral(final char c) {
+        return c >= '0' && c <= '9' || ROMAN_NUMERALS.indexOf(c) >= 0;
+    }
+
+    /**
+     * Readability statistics of a chapter.
+     */
+    public static final class Chapter {
+
+        private final String title;
+
+        private long sentences;
+
+        private long words;
+
+        private long syllables;
+
+        /**
+         * Creates the statistics of the chapter.
+         *
+         * @param title     heading of the chapter, or null for the part of the text before the first heading
+         * @param sentences number of the sentences
+         * @param words     number of the words
+         * @param syllables number of the syllables
+         */
+        public Chapter(final String title, final long sentences, final long words, final long syllables) {
+            this.title = title;
+            this.sentences = sentences;
+            this.words = words;
+            this.syllables = syllables;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public long getSentences() {
+            return sentences;
+        }
+
+        public long getWords() {
+            return words;
+        }
+
+        public long getSyllables() {
+            return syllables;
+        }
+
+        /**
+         * Returns the Flesch reading-ease score of the chapter.
+         *
+         * @return the score, or NaN if there are no words
+         */
+        public double getFleschScore() {
+            return fleschScore(sentences, words, syllables);
+        }
+
+        @Override
+        public String toString() {
+            return title + " :: " + words;
+        }
+    }
+}
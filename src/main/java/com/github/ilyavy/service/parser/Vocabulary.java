@@ -0,0 +1,165 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.Arrays;
+
+/**
+ * Dictionary encoding of words: assigns a dense int id to each distinct word and keeps one canonical string
+ * per id. Counters can then be kept in arrays indexed by id, and merging of the counters, built with the same
+ * vocabulary, becomes a simple addition of the arrays.
+ * Not thread-safe.
+ */
+public final class Vocabulary {
+
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    /**
+     * Open addressing hash table of ids, every slot keeps id + 1, 0 is for an empty slot.
+     */
+    private int[] slots = new int[INITIAL_CAPACITY];
+
+    private String[] words = new String[INITIAL_CAPACITY / 2];
+
+    private int[] hashes = new int[INITIAL_CAPACITY / 2];
+
+    private int size;
+
+    /**
+     * Returns the id of the current token of the tokenizer, assigns a new id if the token has not been met before.
+     * The token is materialized into a string only in the latter case.
+     *
+     * @param tokenizer tokenizer positioned at a token
+     * @return id of the token
+     */
+    int idOf(final CharTokenizer tokenizer) {
+        int hash = tokenizer.hash();
+        int slot = slotOf(tokenizer, hash);
+        return slots[slot] != 0 ? slots[slot] - 1 : insert(slot, tokenizer.token(), hash);
+    }
+
+    /**
+     * Returns the id of the word, assigns a new id if the word has not been met before.
+     *
+     * @param word the word
+     * @return id of the word
+     */
+    public int idOf(final String word) {
+        int hash = word.hashCode();
+        int slot = slotOf(word, hash);
+        return slots[slot] != 0 ? slots[slot] - 1 : insert(slot, word, hash);
+    }
+
+    /**
+     * Returns the id of the word without assigning a new one.
+     *
+     * @param word the word
+     * @return id of the word, or -1 if the word is not in the vocabulary
+     */
+    public int find(final String word) {
+        return slots[slotOf(word, word.hashCode())] - 1;
+    }
+
+    /**
+     * Returns the id of the current token of the tokenizer without assigning a new one.
+     *
+     * @param tokenizer tokenizer positioned at a token
+     * @return id of the token, or -1 if the token is not in the vocabulary
+     */
+    int find(final CharTokenizer tokenizer) {
+        return slots[slotOf(tokenizer, tokenizer.hash())] - 1;
+    }
+
+    /**
+     * Probes the table for the key: returns the slot of its id, if the key is in the vocabulary,
+     * or the empty slot, where its id should be put, otherwise.
+     *
+     * @param key  the word, or the tokenizer positioned at a token, which isn't materialized into a string
+     * @param hash hash of the key, the same for a token and its string
+     * @return index of the slot
+     */
+    private int slotOf(final Object key, final int hash) {
+        int mask = slots.length - 1;
+        int slot = mix(hash) & mask;
+
+        int id;
+        while ((id = slots[slot] - 1) >= 0) {
+            if (hashes[id] == hash && matches(key, words[id])) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static boolean matches(final Object key, final String word) {
+        return key instanceof CharTokenizer tokenizer ? tokenizer.tokenEquals(word) : word.equals(key);
+    }
+
+    /**
+     * Returns the canonical string of the word by its id.
+     *
+     * @param id id of the word
+     * @return the word
+     */
+    public String word(final int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("There is no word with id " + id);
+        }
+        return words[id];
+    }
+
+    /**
+     * Returns the number of words, ids of the words are in the range [0, size).
+     *
+     * @return number of words in the vocabulary
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds all the words of the other vocabulary to this one.
+     *
+     * @param other vocabulary, words of which should be added
+     * @return mapping of the ids: the id in the other vocabulary is the index, the id in this one is the value
+     */
+    public int[] addAll(final Vocabulary other) {
+        int[] mapping = new int[other.size];
+        for (int id = 0; id < other.size; id++) {
+            mapping[id] = idOf(other.words[id]);
+        }
+        return mapping;
+    }
+
+    private int insert(final int slot, final String word, final int hash) {
+        int id = size++;
+        if (id == words.length) {
+            words = Arrays.copyOf(words, id * 2);
+            hashes = Arrays.copyOf(hashes, id * 2);
+        }
+        words[id] = word;
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+
+        if (size > slots.length / 2) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+
+        for (int id = 0; id < size; id++) {
+            int slot = mix(hashes[id]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    private static int mix(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
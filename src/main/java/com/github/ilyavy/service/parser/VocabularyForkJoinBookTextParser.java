@@ -0,0 +1,201 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.RecursiveTask;
+
+import com.github.ilyavy.model.Word;
+
+/**
+ * Book parser, which forks the sentences into chunks like {@link ForkJoinBookTextParser} does, but every chunk
+ * is counted by {@link CharTokenizer} into its own {@link WordCountTable}. Partial results are merged by mapping
+ * the ids of one vocabulary to the other and adding the counts arrays, word entities are created only once,
+ * for the final result. Readability statistics of the chunks are collected in the same pass and merged in order.
+ * The counting can be cancelled, the chunks are not forked and not counted further after the cancellation.
+ */
+public class VocabularyForkJoinBookTextParser extends BookTextParser {
+
+    @Override
+    protected boolean isParallel() {
+        return true;
+    }
+
+    @Override
+    public Map<String, Word> countWords(final List<String> sentences) {
+        return countWords(sentences, new Cancellation());
+    }
+
+    @Override
+    public Map<String, Word> countWords(final List<String> sentences, final Cancellation cancellation) {
+        int numberOfCores = Runtime.getRuntime().availableProcessors();
+        int sequentialThreshold = (int) Math.ceil(sentences.size() / Double.valueOf(numberOfCores));
+
+        CountWordsTask task = new CountWordsTask(0, sentences.size(), sentences, sequentialThreshold, cancellation);
+        WordCountTable table = task.compute();
+        // The table of a cancelled counting is incomplete
+        cancellation.throwIfCancelled();
+        return table.toWordsMap();
+    }
+
+    @Override
+    public Map<String, Word> countWords(final Spliterator<? extends CharSequence> sentences) {
+        return countWords(sentences, new Cancellation());
+    }
+
+    @Override
+    public Map<String, Word> countWords(final Spliterator<? extends CharSequence> sentences,
+                                        final Cancellation cancellation) {
+        int numberOfCores = Runtime.getRuntime().availableProcessors();
+        long sequentialThreshold = (long) Math.ceil(sentences.estimateSize() / (double) numberOfCores);
+
+        CountSpliteratorTask task = new CountSpliteratorTask(sentences, sequentialThreshold, null, cancellation);
+        WordCountTable table = task.compute();
+        cancellation.throwIfCancelled();
+        return table.toWordsMap();
+    }
+
+    /**
+     * Counts the words and collects the statistics in a single pass of the tokenizer, every chunk collects
+     * its own statistics, they are merged in the order of the chunks.
+     */
+    @Override
+    public Map<String, Word> countWords(final Spliterator<? extends CharSequence> sentences,
+                                        final TextStatistics statistics, final Cancellation cancellation) {
+        int numberOfCores = Runtime.getRuntime().availableProcessors();
+        long sequentialThreshold = (long) Math.ceil(sentences.estimateSize() / (double) numberOfCores);
+
+        CountSpliteratorTask task = new CountSpliteratorTask(sentences, sequentialThreshold, new TextStatistics(),
+                cancellation);
+        WordCountTable table = task.compute();
+        cancellation.throwIfCancelled();
+        Map<String, Word> words = table.toWordsMap();
+        statistics.addAll(task.statistics);
+        return words;
+    }
+
+    private static void count(final CharSequence sentence, final CharTokenizer tokenizer, final WordCountTable table) {
+        WordCountTableBookTextParser.count(sentence, tokenizer, table, null);
+    }
+
+    /**
+     * Recursive task's implementation, splits the job up to sequentialThreshold specified.
+     */
+    class CountWordsTask extends RecursiveTask<WordCountTable> {
+
+        private final int lo;
+
+        private final int hi;
+
+        private final List<String> sentences;
+
+        private final int sequentialThreshold;
+
+        private final Cancellation cancellation;
+
+        CountWordsTask(int lo, int hi, List<String> sentences, int sequentialThreshold, Cancellation cancellation) {
+            this.lo = lo;
+            this.hi = hi;
+            this.sentences = sentences;
+            this.sequentialThreshold = sequentialThreshold;
+            this.cancellation = cancellation;
+        }
+
+        @Override
+        protected WordCountTable compute() {
+            if (cancellation.isCancelled()) {
+                return new WordCountTable(knownWords);
+            }
+
+            if (hi - lo <= sequentialThreshold) {
+                CharTokenizer tokenizer = new CharTokenizer();
+                WordCountTable table = new WordCountTable(knownWords);
+
+                for (int i = lo; i < hi && !cancellation.isCancelled(); i++) {
+                    count(sentences.get(i), tokenizer, table);
+                }
+                return table;
+
+            } else {
+                int mid = (hi - lo) / 2;
+                CountWordsTask left = new CountWordsTask(lo, lo + mid, sentences, sequentialThreshold, cancellation);
+                left.fork();
+                CountWordsTask right = new CountWordsTask(lo + mid, hi, sentences, sequentialThreshold, cancellation);
+
+                WordCountTable rightTable = right.compute();
+                WordCountTable leftTable = left.join();
+                return leftTable.addAll(rightTable);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "CountWordsTask{" +
+                    "lo=" + lo +
+                    ", hi=" + hi +
+                    ", sequentialThreshold=" + sequentialThreshold +
+                    '}';
+        }
+    }
+
+    /**
+     * Recursive task's implementation, splits the spliterator of sentences at sentence boundaries
+     * up to sequentialThreshold specified.
+     */
+    class CountSpliteratorTask extends RecursiveTask<WordCountTable> {
+
+        private final Spliterator<? extends CharSequence> sentences;
+
+        private final long sequentialThreshold;
+
+        /**
+         * Statistics of the sentences of the task, or null, if they are not collected.
+         */
+        private TextStatistics statistics;
+
+        private final Cancellation cancellation;
+
+        CountSpliteratorTask(Spliterator<? extends CharSequence> sentences, long sequentialThreshold,
+                             TextStatistics statistics, Cancellation cancellation) {
+            this.sentences = sentences;
+            this.sequentialThreshold = sequentialThreshold;
+            this.statistics = statistics;
+            this.cancellation = cancellation;
+        }
+
+        @Override
+        protected WordCountTable compute() {
+            if (cancellation.isCancelled()) {
+                return new WordCountTable(knownWords);
+            }
+
+            Spliterator<? extends CharSequence> prefix;
+            if (sentences.estimateSize() > sequentialThreshold && (prefix = sentences.trySplit()) != null) {
+                CountSpliteratorTask left = new CountSpliteratorTask(prefix, sequentialThreshold, newStatistics(),
+                        cancellation);
+                left.fork();
+                CountSpliteratorTask right = new CountSpliteratorTask(sentences, sequentialThreshold,
+                        newStatistics(), cancellation);
+
+                WordCountTable rightTable = right.compute();
+                WordCountTable leftTable = left.join();
+                if (statistics != null) {
+                    // The prefix precedes the rest of the sentences
+                    statistics = left.statistics.addAll(right.statistics);
+                }
+                return leftTable.addAll(rightTable);
+
+            } else {
+                CharTokenizer tokenizer = new CharTokenizer();
+                WordCountTable table = new WordCountTable(knownWords);
+                cancellation.forEachRemaining(sentences, sentence ->
+                        WordCountTableBookTextParser.count(sentence, tokenizer, table, statistics));
+                return table;
+            }
+        }
+
+        private TextStatistics newStatistics() {
+            return statistics != null ? new TextStatistics() : null;
+        }
+    }
+}
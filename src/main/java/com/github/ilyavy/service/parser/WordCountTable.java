@@ -0,0 +1,256 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.ilyavy.model.Word;
+import com.github.ilyavy.service.parser.word.SimpleWord;
+
+/**
+ * Table for counting words. The words are encoded by {@link Vocabulary}, counts and contexts are kept in arrays
+ * indexed by the word's id, so incrementing of an existing word's count is just a probe and an array increment,
+ * without any boxing or node allocation. Words entities are created only once, by {@link #toWordsMap()}.
+ * Every word keeps a sample of its contexts, see {@link ContextReservoir}, in its slots of the flat array.
+ * Contexts provided as {@link TextSpan}s are kept as offsets into the book's text, without copying the sentences.
+ * {@link KnownWords} are not counted, they get no ids.
+ * Not thread-safe.
+ */
+final class WordCountTable {
+
+    private static final int INITIAL_CAPACITY = 1 << 11;
+
+    private static final int CONTEXTS_PER_WORD = BookTextParser.CONTEXTS_PER_WORD;
+
+    private final Vocabulary vocabulary;
+
+    private final KnownWords knownWords;
+
+    private long[] counts = new long[INITIAL_CAPACITY];
+
+    private CharSequence[] contexts = new CharSequence[INITIAL_CAPACITY * CONTEXTS_PER_WORD];
+
+    WordCountTable() {
+        this(new Vocabulary());
+    }
+
+    WordCountTable(final KnownWords knownWords) {
+        this(new Vocabulary(), knownWords);
+    }
+
+    WordCountTable(final Vocabulary vocabulary) {
+        this(vocabulary, KnownWords.none());
+    }
+
+    WordCountTable(final Vocabulary vocabulary, final KnownWords knownWords) {
+        this.vocabulary = vocabulary;
+        this.knownWords = knownWords;
+    }
+
+    /**
+     * Increments the count of the current token of the tokenizer. The token is materialized into a string
+     * only if it's not in the vocabulary yet.
+     *
+     * @param tokenizer tokenizer positioned at a token
+     * @param context   sentence, in which the token is found, it's kept only if it's sampled
+     */
+    void increment(final CharTokenizer tokenizer, final CharSequence context) {
+        if (!knownWords.contains(tokenizer)) {
+            increment(vocabulary.idOf(tokenizer), context);
+        }
+    }
+
+    /**
+     * Increments the count of the word.
+     *
+     * @param word    the word
+     * @param context sentence, in which the word is found
+     */
+    void increment(final String word, final CharSequence context) {
+        if (!knownWords.contains(word)) {
+            increment(vocabulary.idOf(word), context);
+        }
+    }
+
+    /**
+     * Increments the counts of all the words.
+     *
+     * @param words   the words, e.g. lemmas of a sentence
+     * @param context sentence, in which the words are found
+     */
+    void incrementAll(final List<String> words, final CharSequence context) {
+        for (String word : words) {
+            increment(word, context);
+        }
+    }
+
+    private void increment(final int id, final CharSequence context) {
+        ensureCapacity(id);
+        int slot = ContextReservoir.slotOf(++counts[id], CONTEXTS_PER_WORD);
+        if (slot >= 0) {
+            contexts[id * CONTEXTS_PER_WORD + slot] = retain(context);
+        }
+    }
+
+    /**
+     * Spans are immutable views of the text, they are kept as they are, other sequences may be mutable,
+     * so they are copied.
+     */
+    private static CharSequence retain(final CharSequence context) {
+        return context instanceof TextSpan ? context : context.toString();
+    }
+
+    /**
+     * Adds all the counts of the other table to this one. If both tables share the same vocabulary,
+     * it's an addition of arrays, otherwise the ids of the other table are mapped first.
+     *
+     * @param other table to merge into this one
+     * @return this table
+     */
+    WordCountTable addAll(final WordCountTable other) {
+        int otherSize = other.idsLimit();
+        ensureCapacity(vocabulary.size() + otherSize);
+
+        if (other.vocabulary == vocabulary) {
+            for (int id = 0; id < otherSize; id++) {
+                add(id, other, id);
+            }
+        } else {
+            int[] mapping = vocabulary.addAll(other.vocabulary);
+            for (int id = 0; id < otherSize; id++) {
+                add(mapping[id], other, id);
+            }
+        }
+        return this;
+    }
+
+    private void add(final int id, final WordCountTable other, final int otherId) {
+        long count = other.counts[otherId];
+        if (count == 0) {
+            return;
+        }
+        ContextReservoir.merge(contexts, id * CONTEXTS_PER_WORD, counts[id],
+                other.contexts, otherId * CONTEXTS_PER_WORD, count, CONTEXTS_PER_WORD);
+        counts[id] += count;
+    }
+
+    private void ensureCapacity(final int id) {
+        if (id >= counts.length) {
+            int capacity = Math.max(counts.length * 2, id + 1);
+            counts = Arrays.copyOf(counts, capacity);
+            contexts = Arrays.copyOf(contexts, capacity * CONTEXTS_PER_WORD);
+        }
+    }
+
+    /**
+     * Returns the bound of the ids of the counted words. The vocabulary can be shared with other tables
+     * and be grown by them, the words beyond the counts of this table aren't counted in it.
+     */
+    private int idsLimit() {
+        return Math.min(vocabulary.size(), counts.length);
+    }
+
+    int size() {
+        int size = 0;
+        int limit = idsLimit();
+        for (int id = 0; id < limit; id++) {
+            if (counts[id] > 0) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    Vocabulary vocabulary() {
+        return vocabulary;
+    }
+
+    /**
+     * Converts the table into the map of word entities.
+     *
+     * @return map of the words by their string values
+     */
+    Map<String, Word> toWordsMap() {
+        int limit = idsLimit();
+        Map<String, Word> map = new HashMap<>((int) (limit / 0.75f) + 1);
+        for (int id = 0; id < limit; id++) {
+            if (counts[id] > 0) {
+                map.put(vocabulary.word(id), toWord(id));
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Returns the most frequent words, the words are selected with a min-heap of their ids, without sorting
+     * the whole table and without boxing the ids.
+     *
+     * @param limit maximum number of the words
+     * @return list of the words in descending order of their counts
+     */
+    List<Word> topWords(final int limit) {
+        int[] heap = new int[Math.max(limit, 0)];
+        int size = 0;
+        int idsLimit = idsLimit();
+        for (int id = 0; id < idsLimit && heap.length > 0; id++) {
+            if (counts[id] == 0) {
+                continue;
+            }
+            if (size < heap.length) {
+                heap[size] = id;
+                siftUp(heap, size++);
+            } else if (counts[id] > counts[heap[0]]) {
+                heap[0] = id;
+                siftDown(heap, size);
+            }
+        }
+
+        Word[] words = new Word[size];
+        while (size > 0) {
+            words[--size] = toWord(heap[0]);
+            heap[0] = heap[size];
+            siftDown(heap, size);
+        }
+        return new ArrayList<>(Arrays.asList(words));
+    }
+
+    private void siftUp(final int[] heap, final int index) {
+        int id = heap[index];
+        int i = index;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (counts[heap[parent]] <= counts[id]) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = id;
+    }
+
+    private void siftDown(final int[] heap, final int size) {
+        int id = heap[0];
+        int i = 0;
+        int child;
+        while ((child = 2 * i + 1) < size) {
+            if (child + 1 < size && counts[heap[child + 1]] < counts[heap[child]]) {
+                child++;
+            }
+            if (counts[id] <= counts[heap[child]]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = id;
+    }
+
+    private Word toWord(final int id) {
+        int from = id * CONTEXTS_PER_WORD;
+        return new SimpleWord(vocabulary.word(id))
+                .setContexts(Arrays.copyOfRange(contexts, from, from + (int) Math.min(counts[id], CONTEXTS_PER_WORD)))
+                .setCount(counts[id]);
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+
+import com.github.ilyavy.model.Word;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Book parser, which analyzes the sentences sequentially with {@link CharTokenizer}, counting the words
+ * in {@link WordCountTable}. Word entities are created only once, after all the sentences are processed.
+ * Sentences provided as views of the text become contexts of the words without copying.
+ * Readability statistics of the text can be collected in the same pass.
+ * The counting can be cancelled, the cancellation is checked before every sentence.
+ */
+public class WordCountTableBookTextParser extends BookTextParser {
+
+    @Override
+    public Map<String, Word> countWords(final List<String> sentences) {
+        CharTokenizer tokenizer = new CharTokenizer();
+        WordCountTable table = new WordCountTable(knownWords);
+
+        for (String sentence : sentences) {
+            count(sentence, tokenizer, table);
+        }
+
+        return table.toWordsMap();
+    }
+
+    @Override
+    public Map<String, Word> countWords(final Spliterator<? extends CharSequence> sentences) {
+        CharTokenizer tokenizer = new CharTokenizer();
+        WordCountTable table = new WordCountTable(knownWords);
+
+        sentences.forEachRemaining(sentence -> count(sentence, tokenizer, table));
+
+        return table.toWordsMap();
+    }
+
+    @Override
+    public Map<String, Word> countWords(final List<String> sentences, final Cancellation cancellation) {
+        CharTokenizer tokenizer = new CharTokenizer();
+        WordCountTable table = new WordCountTable(knownWords);
+
+        for (String sentence : sentences) {
+            cancellation.throwIfCancelled();
+            count(sentence, tokenizer, table);
+        }
+
+        return table.toWordsMap();
+    }
+
+    @Override
+    public Map<String, Word> countWords(final Spliterator<? extends CharSequence> sentences,
+                                        final Cancellation cancellation) {
+        CharTokenizer tokenizer = new CharTokenizer();
+        WordCountTable table = new WordCountTable(knownWords);
+
+        cancellation.forEachRemaining(sentences, sentence -> count(sentence, tokenizer, table));
+        cancellation.throwIfCancelled();
+
+        return table.toWordsMap();
+    }
+
+    @Override
+    public Mono<Map<String, Word>> countWords(final Flux<? extends CharSequence> sentences) {
+        return Mono.defer(() -> {
+            CharTokenizer tokenizer = new CharTokenizer();
+            return sentences
+                    .reduceWith(() -> new WordCountTable(knownWords),
+                            (table, sentence) -> count(sentence, tokenizer, table))
+                    .map(WordCountTable::toWordsMap);
+        });
+    }
+
+    /**
+     * Counts the words and collects the statistics in a single pass of the tokenizer.
+     */
+    @Override
+    public Map<String, Word> countWords(final Spliterator<? extends CharSequence> sentences,
+                                        final TextStatistics statistics, final Cancellation cancellation) {
+        CharTokenizer tokenizer = new CharTokenizer();
+        WordCountTable table = new WordCountTable(knownWords);
+
+        cancellation.forEachRemaining(sentences, sentence -> count(sentence, tokenizer, table, statistics));
+        cancellation.throwIfCancelled();
+
+        return table.toWordsMap();
+    }
+
+    private static WordCountTable count(final CharSequence sentence, final CharTokenizer tokenizer,
+                                        final WordCountTable table) {
+        return count(sentence, tokenizer, table, null);
+    }
+
+    /**
+     * Counts the words of the sentence, which are long enough, and adds all the words to the statistics,
+     * if they are collected.
+     */
+    static WordCountTable count(final CharSequence sentence, final CharTokenizer tokenizer,
+                                final WordCountTable table, final TextStatistics statistics) {
+        tokenizer.reset(sentence);
+        while (tokenizer.next()) {
+            if (statistics != null) {
+                statistics.addWord(tokenizer, sentence);
+            }
+            if (tokenizer.length() > WORD_LENGTH_THRESHOLD) {
+                table.increment(tokenizer, sentence);
+            }
+        }
+        if (statistics != null) {
+            statistics.endSentence();
+        }
+        return table;
+    }
+}
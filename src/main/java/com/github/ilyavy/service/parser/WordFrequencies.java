@@ -0,0 +1,209 @@
+package com.github.ilyavy.service.parser;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranks of the words by their frequency in general English, e.g. in a large corpus, 1 is the rank of the most
+ * frequent word. The table is kept in a compact binary file, which is memory-mapped, so the words are looked up
+ * by binary search right in the mapped bytes, without loading hundreds of thousands of strings onto the heap.
+ * The file is built by {@link #write(List, Path)} from a list of words in descending order of their frequency.
+ * Thread-safe.
+ *
+ * <p>Format of the file, all the numbers are big-endian ints:
+ * <pre>
+ * magic, version, size
+ * offsets[size + 1] - offsets of the words in the area of the words, the last one is the end of the area
+ * ranks[size]       - ranks of the words
+ * words             - lowercased ASCII words without delimiters, in the order of their bytes
+ * </pre>
+ * The tables of the offsets and the ranks take 8 bytes per word, e.g. 2.4 MB for 300k words, the words
+ * themselves take about as much.
+ */
+public final class WordFrequencies {
+
+    private static final int MAGIC = 0x57465251;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+    private static final WordFrequencies EMPTY = new WordFrequencies(ByteBuffer.allocate(HEADER_SIZE), 0);
+
+    private final ByteBuffer table;
+
+    private final int size;
+
+    private final int ranksStart;
+
+    private final int wordsStart;
+
+    private WordFrequencies(final ByteBuffer table, final int size) {
+        this.table = table;
+        this.size = size;
+        this.ranksStart = HEADER_SIZE + (size + 1) * Integer.BYTES;
+        this.wordsStart = ranksStart + size * Integer.BYTES;
+    }
+
+    /**
+     * Returns the table without any words, all the words are unknown to it.
+     *
+     * @return empty table
+     */
+    public static WordFrequencies empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Memory-maps the table from the file.
+     *
+     * @param file file written by {@link #write(List, Path)}
+     * @return table of the ranks
+     * @throws IOException if the file cannot be read, or it's not a table of the ranks
+     */
+    public static WordFrequencies open(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Not a word frequency table: " + file);
+            }
+
+            ByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            int size = table.getInt(2 * Integer.BYTES);
+            if (table.getInt(0) != MAGIC || table.getInt(Integer.BYTES) != VERSION || size < 0
+                    || HEADER_SIZE + (2L * size + 1) * Integer.BYTES > fileSize) {
+                throw new IOException("Not a word frequency table: " + file);
+            }
+
+            WordFrequencies frequencies = new WordFrequencies(table, size);
+            if (frequencies.wordsStart + (long) frequencies.offset(size) != fileSize) {
+                throw new IOException("The word frequency table is truncated: " + file);
+            }
+            return frequencies;
+        }
+    }
+
+    /**
+     * Writes the table of the ranks of the words. Words, which are not ASCII letters only, are skipped,
+     * repeated words keep the first rank, e.g. the word forms differing by case only.
+     *
+     * @param wordsByFrequency words in descending order of their frequency
+     * @param file             file to write the table to
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(final List<String> wordsByFrequency, final Path file) throws IOException {
+        Map<String, Integer> ranks = new HashMap<>(wordsByFrequency.size() * 2);
+        for (String word : wordsByFrequency) {
+            String key = word.toLowerCase();
+            if (!key.isEmpty() && key.chars().allMatch(c -> c >= 'a' && c <= 'z')) {
+                ranks.putIfAbsent(key, ranks.size() + 1);
+            }
+        }
+        List<String> words = new ArrayList<>(ranks.keySet());
+        // ASCII strings are in the order of their bytes
+        words.sort(null);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(words.size());
+
+            int offset = 0;
+            for (String word : words) {
+                out.writeInt(offset);
+                offset += word.length();
+            }
+            out.writeInt(offset);
+            for (String word : words) {
+                out.writeInt(ranks.get(word));
+            }
+            for (String word : words) {
+                out.write(word.getBytes(StandardCharsets.US_ASCII));
+            }
+        }
+    }
+
+    /**
+     * Converts the list of words in a text file into the table of the ranks. Every line of the list starts
+     * with a word, which can be followed by its count or other columns separated by whitespace, the lines are
+     * in descending order of the frequency, like in the usual frequency lists.
+     *
+     * @param wordList text file with the list of the words
+     * @param file     file to write the table to
+     * @throws IOException if the list cannot be read or the table cannot be written
+     */
+    public static void convert(final Path wordList, final Path file) throws IOException {
+        List<String> words = new ArrayList<>();
+        for (String line : Files.readAllLines(wordList, StandardCharsets.UTF_8)) {
+            String[] columns = line.trim().split("\\s+", 2);
+            if (!columns[0].isEmpty()) {
+                words.add(columns[0]);
+            }
+        }
+        write(words, file);
+    }
+
+    /**
+     * Returns the rank of the word by its frequency. Unknown words are ranked after all the known ones,
+     * as if they were the rarest.
+     *
+     * @param word word in any case
+     * @return rank from 1 for the most frequent word, up to {@link #size()} + 1 for the unknown words
+     */
+    public int rankOf(final CharSequence word) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compare(mid, word);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return table.getInt(ranksStart + mid * Integer.BYTES);
+            }
+        }
+        return size + 1;
+    }
+
+    /**
+     * Returns the number of the words in the table.
+     *
+     * @return number of the words
+     */
+    public int size() {
+        return size;
+    }
+
+    private int offset(final int index) {
+        return table.getInt(HEADER_SIZE + index * Integer.BYTES);
+    }
+
+    /**
+     * Compares the word at the index of the table with the specified one, lowercased, like strings are compared.
+     */
+    private int compare(final int index, final CharSequence word) {
+        int start = wordsStart + offset(index);
+        int length = wordsStart + offset(index + 1) - start;
+        int common = Math.min(length, word.length());
+        for (int i = 0; i < common; i++) {
+            int cmp = (table.get(start + i) & 0xFF) - Character.toLowerCase(word.charAt(i));
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return length - word.length();
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.github.ilyavy.model.Word;
+
+/**
+ * Orders, in which the words found in a book are shown.
+ */
+public enum WordsOrder {
+
+    /** The words used most often in the book go first. */
+    COUNT,
+
+    /** The words used often in the book, but rarely in general English, go first. */
+    DIFFICULTY;
+
+    /**
+     * Returns whether the words can be put in this order, the difficulty order needs the ranks of the words,
+     * without them it's the same as the count one.
+     *
+     * @param frequencies ranks of the words in general English
+     * @return true, if the order is available
+     */
+    public boolean isAvailable(final WordFrequencies frequencies) {
+        return this != DIFFICULTY || frequencies.size() > 0;
+    }
+
+    /**
+     * Returns the comparator, which puts the words in this order.
+     *
+     * @param frequencies ranks of the words in general English, if they are empty, the difficulty order
+     *                    is the same as the count one
+     * @return comparator of the words
+     */
+    public Comparator<Word> comparator(final WordFrequencies frequencies) {
+        return switch (this) {
+            case COUNT -> Word.countOrder().reversed();
+            case DIFFICULTY -> {
+                // Every word is compared many times, but it's looked up in the table only once
+                Map<String, Integer> ranks = new ConcurrentHashMap<>();
+                yield Word.difficultyOrder(word -> ranks.computeIfAbsent(word, frequencies::rankOf)).reversed();
+            }
+        };
+    }
+}
@@ -16,7 +16,7 @@ public class SimpleWord extends Word {
         super(word);
     }
 
-    public SimpleWord(final String word, final String context) {
+    public SimpleWord(final String word, final CharSequence context) {
         super(word, context);
     }
 
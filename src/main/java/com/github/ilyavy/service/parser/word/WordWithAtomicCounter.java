@@ -18,7 +18,7 @@ public class WordWithAtomicCounter extends Word {
         super(word);
     }
 
-    public WordWithAtomicCounter(final String word, final String context) {
+    public WordWithAtomicCounter(final String word, final CharSequence context) {
         super(word, context);
     }
 
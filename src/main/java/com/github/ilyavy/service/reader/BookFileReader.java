@@ -2,12 +2,40 @@ package com.github.ilyavy.service.reader;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Abstract file reader with static factory to create a concrete instance.
  * Supported formats: plain text (.txt).
  */
-public abstract sealed class BookFileReader permits TxtFileReader {
+public abstract sealed class BookFileReader permits TxtFileReader, MappedTxtFileReader {
+
+    /**
+     * Modes of reading a book's file.
+     */
+    public enum Mode {
+        /** The file is read and decoded into a string on the heap. */
+        DEFAULT,
+
+        /**
+         * The file is memory-mapped, the text of an ASCII file is exposed as a view of the mapped file, so it's
+         * not copied on the heap. Should be used with {@link #readIntoCharSequence()}.
+         */
+        MEMORY_MAPPED
+    }
+
+    /**
+     * Charset of the text files, the same in all the modes of reading, so a book is read into the same text
+     * whichever mode is used. A byte order mark at the beginning of a file is skipped.
+     */
+    static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    /** Byte order mark as it's decoded. */
+    static final char BYTE_ORDER_MARK = '\uFEFF';
 
     File bookFile;
 
@@ -23,6 +51,28 @@ public abstract sealed class BookFileReader permits TxtFileReader {
      */
     public abstract String readIntoString() throws IOException;
 
+    /**
+     * Reads the book's file into char sequence. By default, it's the same as {@link #readIntoString()},
+     * readers, which are able to avoid a full copy of the text, override it.
+     *
+     * @return text of the book
+     * @throws IOException in case of problems with reading the file
+     */
+    public CharSequence readIntoCharSequence() throws IOException {
+        return readIntoString();
+    }
+
+    /**
+     * Reads the book's file in chunks of text, the next chunk is read only when it's requested. By default,
+     * the whole text is a single chunk, readers, which are able to read the file gradually, override it.
+     *
+     * @param chunkSize the size of a chunk in bytes
+     * @return flux of consecutive chunks of the book's text
+     */
+    public Flux<CharSequence> readInChunks(final int chunkSize) {
+        return Mono.fromCallable(this::readIntoCharSequence).flux();
+    }
+
     /**
      * Creates a concrete book file reader by the specified file path. A concrete implementation is chosen based
      * on the file's extension.
@@ -33,12 +83,26 @@ public abstract sealed class BookFileReader permits TxtFileReader {
      * @throws UnsupportedOperationException if an extension of the file is not supported
      */
     public static BookFileReader createInstance(final File bookFile) {
+        return createInstance(bookFile, Mode.DEFAULT);
+    }
+
+    /**
+     * Creates a concrete book file reader by the specified file path and the mode of reading. A concrete
+     * implementation is chosen based on the file's extension and the mode.
+     *
+     * @param bookFile file referencing a book
+     * @param mode     mode of reading the file
+     * @return BookFileReader instance
+     * @throws IllegalArgumentException      if the specified file does not exist
+     * @throws UnsupportedOperationException if an extension of the file is not supported
+     */
+    public static BookFileReader createInstance(final File bookFile, final Mode mode) {
         if (!bookFile.exists()) {
             throw new IllegalArgumentException("The book's file is not found");
         }
 
         if (bookFile.getName().endsWith(".txt")) {
-            return new TxtFileReader(bookFile);
+            return mode == Mode.MEMORY_MAPPED ? new MappedTxtFileReader(bookFile) : new TxtFileReader(bookFile);
         } else {
             throw new UnsupportedOperationException("This file extension is not supported yet");
         }
@@ -0,0 +1,46 @@
+package com.github.ilyavy.service.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32C;
+
+/**
+ * Fast hash of the content of a file, to find out, whether the same book was already seen. The file is mapped
+ * into memory region by region and hashed with both CRC32C and Adler32, which are intrinsic in the JVM,
+ * the length of the file is a part of the hash too.
+ */
+public final class ContentHash {
+
+    private static final long REGION_SIZE = 64L * 1024 * 1024;
+
+    private ContentHash() {
+    }
+
+    /**
+     * Computes the hash of the content of the file.
+     *
+     * @param file file to hash
+     * @return hex string of the hash
+     * @throws IOException if the file cannot be read
+     */
+    public static String of(final File file) throws IOException {
+        CRC32C crc32c = new CRC32C();
+        Adler32 adler32 = new Adler32();
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += REGION_SIZE) {
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(REGION_SIZE, size - position));
+                crc32c.update(region.duplicate());
+                adler32.update(region);
+            }
+
+            return String.format("%08x%08x-%x", crc32c.getValue(), adler32.getValue(), size);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.github.ilyavy.service.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Reads files in plain text format with the extension ".txt", memory-mapping them. The file is decoded
+ * with {@link #CHARSET}, like {@link TxtFileReader} does, a byte order mark is skipped. If the file contains only
+ * ASCII chars and its lines are separated by "\n", which is the usual case for english books, the text is a view
+ * of the mapped file, otherwise it's decoded into a buffer on the heap.
+ * The text is the same as {@link TxtFileReader} reads: every line break, either "\n", "\r" or "\r\n", is replaced
+ * with a single space, like the lines are joined, and the final line break is dropped.
+ */
+final class MappedTxtFileReader extends BookFileReader {
+
+    /** Maximum length of an array, which can be allocated. */
+    private static final int MAX_LENGTH = Integer.MAX_VALUE - 8;
+
+    MappedTxtFileReader(final File bookFile) {
+        super(bookFile);
+    }
+
+    @Override
+    public String readIntoString() throws IOException {
+        return readIntoCharSequence().toString();
+    }
+
+    @Override
+    public CharSequence readIntoCharSequence() throws IOException {
+        try (FileChannel channel = FileChannel.open(bookFile.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("The book's file is too large to be mapped: " + size + " bytes");
+            }
+
+            ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int start = hasUtf8ByteOrderMark(bytes) ? 3 : 0;
+
+            // A view maps every byte to a char, so "\r\n" cannot be folded into a single space in it
+            if (isAsciiWithoutCarriageReturns(bytes, start)) {
+                int end = (int) size;
+                if (end > start && bytes.get(end - 1) == '\n') {
+                    end--;
+                }
+                return new AsciiText(bytes, start, end);
+            } else {
+                return decode(bytes.position(start));
+            }
+        }
+    }
+
+    private static boolean hasUtf8ByteOrderMark(final ByteBuffer bytes) {
+        return bytes.limit() >= 3
+                && bytes.get(0) == (byte) 0xEF && bytes.get(1) == (byte) 0xBB && bytes.get(2) == (byte) 0xBF;
+    }
+
+    private static boolean isAsciiWithoutCarriageReturns(final ByteBuffer bytes, final int start) {
+        for (int i = start; i < bytes.limit(); i++) {
+            byte b = bytes.get(i);
+            if (b < 0 || b == '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static CharBuffer decode(final ByteBuffer bytes) {
+        CharsetDecoder decoder = CHARSET.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        // The buffer grows only if the text turns out to have more chars than expected
+        long expectedLength = (long) Math.ceil(bytes.remaining() * (double) decoder.averageCharsPerByte());
+        CharBuffer chars = CharBuffer.allocate((int) Math.min(MAX_LENGTH, expectedLength));
+        while (decoder.decode(bytes, chars, true).isOverflow()) {
+            chars = grow(chars);
+        }
+        while (decoder.flush(chars).isOverflow()) {
+            chars = grow(chars);
+        }
+        chars.flip();
+
+        return joinLines(chars);
+    }
+
+    /**
+     * Replaces every line break with a single space in place and drops the final one.
+     */
+    private static CharBuffer joinLines(final CharBuffer chars) {
+        int limit = chars.limit();
+        boolean endsWithLineBreak = limit > 0 && isLineBreak(chars.get(limit - 1));
+        int length = 0;
+        for (int i = 0; i < limit; i++) {
+            char c = chars.get(i);
+            if (c == '\r' && i + 1 < limit && chars.get(i + 1) == '\n') {
+                continue;
+            }
+            chars.put(length++, isLineBreak(c) ? ' ' : c);
+        }
+        return chars.limit(endsWithLineBreak ? length - 1 : length);
+    }
+
+    private static CharBuffer grow(final CharBuffer chars) {
+        int capacity = (int) Math.min(MAX_LENGTH, chars.capacity() + (chars.capacity() >> 1) + 16L);
+        return CharBuffer.allocate(capacity).put(chars.flip());
+    }
+
+    private static boolean isLineBreak(final int c) {
+        return c == '\n' || c == '\r';
+    }
+
+    /**
+     * A view of the range of the buffer with ASCII text, every byte is a char.
+     */
+    static final class AsciiText implements CharSequence {
+
+        private final ByteBuffer bytes;
+
+        private final int start;
+
+        private final int end;
+
+        AsciiText(final ByteBuffer bytes, final int start, final int end) {
+            this.bytes = bytes;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            Objects.checkIndex(index, end - start);
+            byte b = bytes.get(start + index);
+            return isLineBreak(b) ? ' ' : (char) b;
+        }
+
+        @Override
+        public CharSequence subSequence(final int from, final int to) {
+            Objects.checkFromToIndex(from, to, end - start);
+            return new AsciiText(bytes, start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            char[] chars = new char[length()];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = charAt(i);
+            }
+            return new String(chars);
+        }
+    }
+}
@@ -4,10 +4,21 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.util.stream.Collectors;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 /**
- * Reads files in plain text format with the extension ".txt".
+ * Reads files in plain text format with the extension ".txt", in {@link #CHARSET}.
  */
 final class TxtFileReader extends BookFileReader {
 
@@ -17,8 +28,94 @@ final class TxtFileReader extends BookFileReader {
 
     @Override
     public String readIntoString() throws IOException {
-        try (BufferedReader br = new BufferedReader(new FileReader(bookFile))) {
-            return br.lines().collect(Collectors.joining(" "));
+        try (BufferedReader br = new BufferedReader(new FileReader(bookFile, CHARSET))) {
+            String text = br.lines().collect(Collectors.joining(" "));
+            return !text.isEmpty() && text.charAt(0) == BYTE_ORDER_MARK ? text.substring(1) : text;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The file is decoded with the same charset as {@link #readIntoString()} uses, line breaks are replaced
+     * with spaces. Only the chunk being decoded is held in memory.
+     */
+    @Override
+    public Flux<CharSequence> readInChunks(final int chunkSize) {
+        return Flux.defer(() -> {
+            ChunkDecoder decoder = new ChunkDecoder(CHARSET);
+            return DataBufferUtils.read(bookFile.toPath(), DefaultDataBufferFactory.sharedInstance, chunkSize)
+                    .<CharSequence>map(decoder::decode)
+                    .concatWith(Mono.fromSupplier(decoder::finish))
+                    .filter(chunk -> chunk.length() > 0);
+        });
+    }
+
+    /**
+     * Stateful decoder of consecutive chunks of bytes, a char split between two chunks is carried over
+     * to the next chunk.
+     */
+    private static class ChunkDecoder {
+
+        private final CharsetDecoder decoder;
+
+        private ByteBuffer pending = ByteBuffer.allocate(0);
+
+        private boolean started;
+
+        ChunkDecoder(final Charset charset) {
+            this.decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        CharBuffer decode(final DataBuffer dataBuffer) {
+            try {
+                ByteBuffer chunk = dataBuffer.asByteBuffer();
+                ByteBuffer bytes = ByteBuffer.allocate(pending.remaining() + chunk.remaining())
+                        .put(pending)
+                        .put(chunk)
+                        .flip();
+
+                CharBuffer chars = CharBuffer.allocate(
+                        (int) Math.ceil(bytes.remaining() * (double) decoder.maxCharsPerByte()));
+                decoder.decode(bytes, chars, false);
+                pending = bytes.slice();
+
+                return skipByteOrderMark(replaceLineBreaks(chars.flip()));
+            } finally {
+                DataBufferUtils.release(dataBuffer);
+            }
+        }
+
+        CharBuffer finish() {
+            CharBuffer chars = CharBuffer.allocate(pending.remaining() + 1);
+            decoder.decode(pending, chars, true);
+            decoder.flush(chars);
+            return skipByteOrderMark(replaceLineBreaks(chars.flip()));
+        }
+
+        /**
+         * Skips the byte order mark, if it's the first char of the text.
+         */
+        private CharBuffer skipByteOrderMark(final CharBuffer chars) {
+            if (!started && chars.hasRemaining()) {
+                started = true;
+                if (chars.get(0) == BYTE_ORDER_MARK) {
+                    chars.position(1);
+                    return chars.slice();
+                }
+            }
+            return chars;
+        }
+
+        private static CharBuffer replaceLineBreaks(final CharBuffer chars) {
+            for (int i = 0; i < chars.limit(); i++) {
+                char c = chars.get(i);
+                if (c == '\n' || c == '\r') {
+                    chars.put(i, ' ');
+                }
+            }
+            return chars;
         }
     }
 }
@@ -0,0 +1,15 @@
+package com.github.ilyavy.view;
+
+import java.util.List;
+
+import com.github.ilyavy.model.Word;
+
+/**
+ * Progress of the analysis of a book as it's shown by the {@link View}.
+ *
+ * @param topWords the most frequent words found so far
+ * @param percent percent of the analyzed text
+ * @param sentencesPerSecond speed of the analysis
+ */
+public record AnalysisProgressInfo(List<? extends Word> topWords, double percent, double sentencesPerSecond) {
+}
@@ -0,0 +1,21 @@
+package com.github.ilyavy.view;
+
+import java.util.List;
+
+/**
+ * Readability of a book as it's shown by the {@link View}.
+ *
+ * @param fleschScore Flesch score of the whole book
+ * @param chapters readability of the chapters in the order of the book
+ */
+public record ReadabilityInfo(double fleschScore, List<Chapter> chapters) {
+
+    /**
+     * Readability of a chapter.
+     *
+     * @param title title of the chapter, or null for the beginning of the book before the first chapter
+     * @param fleschScore Flesch score of the chapter
+     */
+    public record Chapter(String title, double fleschScore) {
+    }
+}
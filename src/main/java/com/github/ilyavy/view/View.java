@@ -40,6 +40,50 @@ public interface View {
      */
     void showWords(List<? extends Word> words, int page);
 
+    /**
+     * Shows the translation of the word, if the word is shown at the current page. The translation is not kept
+     * in the shown words, the words shown later get their translations again.
+     *
+     * @param word        translated word
+     * @param translation translation of the word
+     */
+    void showTranslation(String word, String translation);
+
+    /**
+     * Returns the number of words shown at each page.
+     *
+     * @return number of words at a page
+     */
+    int getWordsOnPage();
+
+    /**
+     * Shows the most frequent words found so far, while the analysis of a book is in progress,
+     * along with the progress of the analysis.
+     *
+     * @param progress progress of the analysis
+     */
+    void showProgress(AnalysisProgressInfo progress);
+
+    /**
+     * Hides the progress of the analysis, e.g. when the analysis is cancelled. The words found so far stay shown.
+     */
+    void hideProgress();
+
+    /**
+     * Shows the readability of the analyzed book: its Flesch score and the easiest and the hardest chapters.
+     *
+     * @param readability readability of the book, or null to hide the readability
+     */
+    void showStatistics(ReadabilityInfo readability);
+
+    /**
+     * Disables the order of the results of book's analysis list, so a user cannot choose it,
+     * e.g. when there is no data to put the words in this order.
+     *
+     * @param order name of the order of the words
+     */
+    void disableWordsOrder(String order);
+
     /**
      * Returns the list of selected by a user words from the list of shown words.
      *
@@ -61,6 +105,20 @@ public interface View {
      */
     int getSpecifiedPageToGo();
 
+    /**
+     * Returns the name of the lemmatization mode chosen by a user for the analysis of a book.
+     *
+     * @return name of the lemmatization mode
+     */
+    String getLemmatizationMode();
+
+    /**
+     * Returns the name of the order chosen by a user for the results of book's analysis list.
+     *
+     * @return name of the order of the words
+     */
+    String getWordsOrder();
+
     /**
      * Returns entered by a user login.
      *
@@ -8,6 +8,9 @@ public enum ViewEvent {
     /** A request to analyze a book. */
     ANALYZE_BOOK,
 
+    /** A request to cancel the analysis of a book in progress. */
+    CANCEL_ANALYSIS,
+
     /** A request to login into Lingualeo with the specified at View side login and password. */
     LOGIN,
 
@@ -21,5 +24,8 @@ public enum ViewEvent {
     RESULTS_NEXT_PAGE,
 
     /** A request to go to the previous page in the results of book's analysis list. */
-    RESULTS_PREVIOUS_PAGE
+    RESULTS_PREVIOUS_PAGE,
+
+    /** A request to show the results of book's analysis list in the order chosen at View side. */
+    RESULTS_ORDER_CHANGED
 }
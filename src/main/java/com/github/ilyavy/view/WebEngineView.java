@@ -6,7 +6,10 @@ import java.io.InputStreamReader;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 
 import javax.annotation.Nonnull;
@@ -91,6 +94,8 @@ class WebEngineView implements View {
                 return;
             }
 
+            webEngine.executeScript("hideProgress()");
+
             List<Word> wordsToShow = new ArrayList<>();
             for (int i = (page - 1) * ITEMS_ON_PAGE;
                  i < Math.min(page * ITEMS_ON_PAGE, words.size()); i++) {
@@ -113,6 +118,77 @@ class WebEngineView implements View {
         currentPage = page;
     }
 
+    @Override
+    public void showTranslation(@Nonnull String word, @Nonnull String translation) {
+        try {
+            String script = "showTranslation(" + objectMapper.writeValueAsString(word) + ", "
+                    + objectMapper.writeValueAsString(translation) + ")";
+            Platform.runLater(() -> webEngine.executeScript(script));
+        } catch (JsonProcessingException e) {
+            logger.error("Showing translation error", e);
+        }
+    }
+
+    @Override
+    public int getWordsOnPage() {
+        return ITEMS_ON_PAGE;
+    }
+
+    @Override
+    public void showProgress(@Nonnull AnalysisProgressInfo progress) {
+        if (!progress.topWords().isEmpty()) {
+            showWords(progress.topWords(), 1);
+        }
+        Platform.runLater(() -> webEngine.executeScript(String.format(Locale.ROOT, "showProgress(%.1f, %.0f)",
+                progress.percent(), progress.sentencesPerSecond())));
+    }
+
+    @Override
+    public void hideProgress() {
+        Platform.runLater(() -> webEngine.executeScript("hideProgress()"));
+    }
+
+    @Override
+    public void showStatistics(ReadabilityInfo readability) {
+        if (readability == null) {
+            Platform.runLater(() -> webEngine.executeScript("hideStatistics()"));
+            return;
+        }
+
+        // The beginning of the book before the first chapter is usually its title and contents
+        List<ReadabilityInfo.Chapter> chapters = readability.chapters().stream()
+                .filter(chapter -> chapter.title() != null)
+                .toList();
+        String details = "";
+        if (chapters.size() > 1) {
+            var byScore = Comparator.comparingDouble(ReadabilityInfo.Chapter::fleschScore);
+            details = "Самая простая глава: " + describe(Collections.max(chapters, byScore)) + "\n"
+                    + "Самая сложная глава: " + describe(Collections.min(chapters, byScore));
+        }
+
+        try {
+            String script = String.format(Locale.ROOT, "showStatistics(%.1f, %s)",
+                    readability.fleschScore(), objectMapper.writeValueAsString(details));
+            Platform.runLater(() -> webEngine.executeScript(script));
+        } catch (JsonProcessingException e) {
+            logger.error("Showing statistics error", e);
+        }
+    }
+
+    @Override
+    public void disableWordsOrder(String order) {
+        try {
+            String script = "disableWordsOrder(" + objectMapper.writeValueAsString(order) + ")";
+            Platform.runLater(() -> webEngine.executeScript(script));
+        } catch (JsonProcessingException e) {
+            logger.error("Disabling words order error", e);
+        }
+    }
+
+    private static String describe(ReadabilityInfo.Chapter chapter) {
+        return String.format(Locale.ROOT, "%s (%.1f)", chapter.title(), chapter.fleschScore());
+    }
+
     private String readTemplate(String resPath) {
         StringBuilder result = new StringBuilder();
 
@@ -157,6 +233,16 @@ class WebEngineView implements View {
                 "document.getElementById('words_paginator_pages_page').value"));
     }
 
+    @Override
+    public String getLemmatizationMode() {
+        return (String) webEngine.executeScript("document.getElementById('analysis_mode').value");
+    }
+
+    @Override
+    public String getWordsOrder() {
+        return (String) webEngine.executeScript("document.getElementById('words_order').value");
+    }
+
     @Override
     public String getLogin() {
         return (String) webEngine.executeScript("document.getElementById('a_email').value");
@@ -174,22 +260,32 @@ class WebEngineView implements View {
                 var elementId = switch (event) {
                     case LOGIN -> "a_button_login";
                     case ANALYZE_BOOK -> "button_analyze";
+                    case CANCEL_ANALYSIS -> "words_progress_cancel";
                     case ADD_WORDS_TO_DICTIONARY -> "words_button_add";
                     case RESULTS_GOTO_PAGE -> "words_paginator_go";
                     case RESULTS_NEXT_PAGE -> "words_paginator_next";
                     case RESULTS_PREVIOUS_PAGE -> "words_paginator_previous";
+                    case RESULTS_ORDER_CHANGED -> "words_order";
                 };
-                setClickEvent(elementId, evt -> action.run());
+                if (event == ViewEvent.RESULTS_ORDER_CHANGED) {
+                    setEvent(elementId, "change", evt -> action.run());
+                } else {
+                    setClickEvent(elementId, evt -> action.run());
+                }
             }
         });
         return this;
     }
 
     private void setClickEvent(@Nonnull String elementId, @Nonnull EventListener listener) {
+        setEvent(elementId, "click", listener);
+    }
+
+    private void setEvent(@Nonnull String elementId, @Nonnull String type, @Nonnull EventListener listener) {
         var doc = webEngine.getDocument();
         var element = doc.getElementById(elementId);
         var eventTarget = (EventTarget) element;
-        eventTarget.addEventListener("click", listener, false);
+        eventTarget.addEventListener(type, listener, false);
     }
 
     /**
@@ -136,8 +136,13 @@ function printEntitiesList(template, arr, curPage, amountOfPages) {
             	console.log(template);
             	row = row.replace(/%-id-%/g, "wc_" + obj.id);
             	row = row.replace(/%-frequency-%/g, obj.count);
+            	row = row.replace(/%-word-%/g, obj.word);
             	row = row.replace(/%-translate-%/g, obj.word);
+            	// The translation is empty, until it's prefetched, then it's shown by showTranslation
+            	row = row.replace(/%-translation-%/g, escapeHtml(obj.translate || ""));
             	row = row.replace(/%-context-%/g, obj.context);
+            	// Other examples of the usage of the word are shown on hover
+            	row = row.replace(/%-contexts-%/g, obj.contexts.slice(1).join("\n").replace(/"/g, "&quot;"));
 
                 text = text + row;
             }
@@ -151,6 +156,72 @@ function printEntitiesList(template, arr, curPage, amountOfPages) {
     pages.innerHTML = amountOfPages;
 }
 
+/**
+ * Shows the translation of the word, if the word is shown at the current page.
+ * @param word - the word.
+ * @param translation - its translation.
+ */
+function showTranslation(word, translation) {
+	const wordElements = document.getElementsByClassName("words_word");
+	for (let i = 0; i < wordElements.length; i++) {
+		if (wordElements[i].getAttribute("data-word") === word) {
+			wordElements[i].getElementsByClassName("words_word_translation")[0].textContent = translation;
+		}
+	}
+}
+
+function escapeHtml(text) {
+	return text.replace(/&/g, "&amp;").replace(/</g, "&lt;").replace(/>/g, "&gt;");
+}
+
+/**
+ * Shows the progress of the analysis of a book, while its partial results are shown.
+ * @param percent - analyzed part of the book.
+ * @param sentencesPerSecond - speed of the analysis.
+ */
+function showProgress(percent, sentencesPerSecond) {
+    const progress = document.getElementById("words_progress");
+    progress.innerHTML = "Анализ: " + percent + "% (" + sentencesPerSecond + " предл./с)";
+    progress.style.display = "inline-block";
+    document.getElementById("words_progress_cancel").style.display = "inline-block";
+}
+
+/**
+ * Hides the progress of the analysis of a book.
+ */
+function hideProgress() {
+    document.getElementById("words_progress").style.display = "none";
+    document.getElementById("words_progress_cancel").style.display = "none";
+}
+
+/**
+ * Shows the readability of the analyzed book.
+ * @param score Flesch reading-ease score of the book
+ * @param details readability of the chapters, shown as a tooltip
+ */
+function showStatistics(score, details) {
+    const statistics = document.getElementById("words_statistics");
+    statistics.innerHTML = "Читаемость по Флешу: " + score;
+    statistics.title = details;
+    statistics.style.display = "inline-block";
+}
+
+/**
+ * Hides the readability of the book.
+ */
+function hideStatistics() {
+    document.getElementById("words_statistics").style.display = "none";
+}
+
+/**
+ * Disables the order of the words, which cannot be chosen.
+ * @param order - value of the option of the order.
+ */
+function disableWordsOrder(order) {
+    const option = document.querySelector("#words_order option[value='" + order + "']");
+    option.disabled = true;
+    option.title = "Недоступно: нет таблицы частотности слов";
+}
 
 function selectedWords() {
 	const boxes = document.getElementsByClassName("words_word_checkbox_checked");
@@ -161,7 +232,7 @@ function selectedWords() {
 		const wordElement = boxHolder.parentNode;
 		const word = {
             id: boxes[i].id.replace("wc_", ""),
-			word: wordElement.children[2].innerHTML,
+			word: wordElement.getAttribute("data-word"),
 			context: wordElement.children[3].innerHTML
 		}
 		words[i] = word;
@@ -0,0 +1,88 @@
+package com.github.ilyavy.perfomance;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.github.ilyavy.model.Word;
+import com.github.ilyavy.service.AddWordsPipeline;
+import com.github.ilyavy.service.LingualeoService;
+import com.github.ilyavy.service.TokenBucket;
+import com.github.ilyavy.service.TranslationCache;
+import com.github.ilyavy.service.TranslationCacheService;
+import com.github.ilyavy.service.parser.word.SimpleWord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Time of adding a page of selected words to the dictionary through the local stand-in of Lingualeo API,
+ * which delays every response like the network does. Concurrency 1 is the former one-request-at-a-time pipeline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+public class AddWordsBenchmark {
+
+    private static final int WORDS = 50;
+
+    @Param({"1", "4", "8"})
+    private int concurrency;
+
+    @Param({"20"})
+    private long latencyMillis;
+
+    private LingualeoStubServer server;
+
+    private LingualeoService lingualeoService;
+
+    private AddWordsPipeline pipeline;
+
+    private List<Word> words;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new LingualeoStubServer(0, 100).setLatencyMillis(latencyMillis);
+        lingualeoService = new LingualeoService(WebClient.create(server.getBaseUrl()), null,
+                LingualeoStubServer.SESSION_COOKIE);
+
+        words = new ArrayList<>();
+        for (int i = 0; i < WORDS; i++) {
+            words.add(new SimpleWord("word" + i));
+        }
+    }
+
+    /**
+     * The translations of the previous invocations are not cached, every word is requested.
+     */
+    @Setup(Level.Invocation)
+    public void createPipeline() {
+        var translationCacheService = new TranslationCacheService(null, new TranslationCache(WORDS * 2),
+                Duration.ZERO, false);
+        // The rate isn't limited, the throughput of the concurrent requests is measured
+        pipeline = new AddWordsPipeline(lingualeoService, translationCacheService, concurrency,
+                new TokenBucket(1_000_000, 1_000_000));
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<Word> addWords() {
+        return pipeline.addWords(words).collectList().block();
+    }
+}
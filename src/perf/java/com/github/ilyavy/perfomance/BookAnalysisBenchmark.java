@@ -17,6 +17,8 @@ import com.github.ilyavy.service.parser.ParallelStreamsToMapBookTextParser;
 import com.github.ilyavy.service.parser.ParallelStreamsWithOnlyFlatmapBookTextParser;
 import com.github.ilyavy.service.parser.SimpleSequentialBookTextParser;
 import com.github.ilyavy.service.parser.SingleStreamNaiveBookTextParser;
+import com.github.ilyavy.service.parser.VocabularyForkJoinBookTextParser;
+import com.github.ilyavy.service.parser.WordCountTableBookTextParser;
 import com.github.ilyavy.service.reader.BookFileReader;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -33,11 +35,13 @@ import org.openjdk.jmh.annotations.State;
 @Fork(value = 2, warmups = 5, jvmArgs = {"-Xms2G", "-Xmx2G"})
 public class BookAnalysisBenchmark {
 
+    private String text;
+
     private List<String> sentences;
 
     @Setup
     public void setup() throws IOException {
-        String text = BookFileReader.createInstance(new File("../book-samples/war-peace.txt")).readIntoString();
+        text = BookFileReader.createInstance(new File("../book-samples/war-peace.txt")).readIntoString();
 
         BookTextParser bp = new SimpleSequentialBookTextParser();
         sentences = bp.parseTextIntoSentences(text);
@@ -108,4 +112,22 @@ public class BookAnalysisBenchmark {
         BookTextParser bookParser = new ParallelStreamsGroupingByBookTextParser();
         bookParser.countWords(sentences);
     }
+
+    @Benchmark
+    public void wordCountTable() {
+        BookTextParser bookParser = new WordCountTableBookTextParser();
+        bookParser.countWords(sentences);
+    }
+
+    @Benchmark
+    public void vocabularyForkJoin() {
+        BookTextParser bookParser = new VocabularyForkJoinBookTextParser();
+        bookParser.countWords(sentences);
+    }
+
+    @Benchmark
+    public void wordCountTableOverSentenceViews() {
+        BookTextParser bookParser = new WordCountTableBookTextParser();
+        bookParser.countWords(bookParser.sentences(text));
+    }
 }
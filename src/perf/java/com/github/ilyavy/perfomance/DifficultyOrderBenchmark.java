@@ -0,0 +1,76 @@
+package com.github.ilyavy.perfomance;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.github.ilyavy.model.Word;
+import com.github.ilyavy.service.parser.BookTextParser;
+import com.github.ilyavy.service.parser.LazilySortedWords;
+import com.github.ilyavy.service.parser.WordCountTableBookTextParser;
+import com.github.ilyavy.service.parser.WordFrequencies;
+import com.github.ilyavy.service.parser.WordsOrder;
+import com.github.ilyavy.service.reader.BookFileReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Time of putting the words of war-peace in the difficulty order: the first page of the results,
+ * like the application shows it, and the whole list. No frequency list ships with the repository,
+ * so the list is passed as a parameter, e.g. {@code -p wordList=/path/to/en_full.txt}, it's a text file
+ * with a word and its count on every line, most frequent first. The list is converted into the table
+ * by {@link WordFrequencies#convert(Path, Path)} during the setup, the size of the table is printed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+public class DifficultyOrderBenchmark {
+
+    private static final int WORDS_ON_PAGE = 6;
+
+    @Param("")
+    private String wordList;
+
+    private WordFrequencies frequencies;
+
+    private Collection<Word> words;
+
+    @Setup
+    public void setup() throws IOException {
+        if (wordList.isEmpty()) {
+            throw new IllegalStateException("Frequency list is not specified, use -p wordList=<file>");
+        }
+        Path table = Files.createTempFile("word-frequencies", ".bin");
+        table.toFile().deleteOnExit();
+        WordFrequencies.convert(Path.of(wordList), table);
+        frequencies = WordFrequencies.open(table);
+        System.out.printf("%nTable of %d words, %d bytes%n", frequencies.size(), Files.size(table));
+
+        String text = BookFileReader.createInstance(new File("../book-samples/war-peace.txt")).readIntoString();
+        BookTextParser bookParser = new WordCountTableBookTextParser();
+        words = bookParser.countWords(bookParser.parseTextIntoSentences(text)).values();
+    }
+
+    @Benchmark
+    public List<Word> firstPage() {
+        var sorted = new LazilySortedWords(words, WordsOrder.DIFFICULTY.comparator(frequencies));
+        return List.copyOf(sorted.subList(0, WORDS_ON_PAGE));
+    }
+
+    @Benchmark
+    public List<Word> wholeList() {
+        return List.copyOf(new LazilySortedWords(words, WordsOrder.DIFFICULTY.comparator(frequencies)));
+    }
+}
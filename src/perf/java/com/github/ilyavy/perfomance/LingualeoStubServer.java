@@ -0,0 +1,193 @@
+package com.github.ilyavy.perfomance;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.ilyavy.model.lingualeo.api.DictionaryResponse;
+import com.github.ilyavy.model.lingualeo.api.DictionaryResponse.DictionaryWord;
+import com.github.ilyavy.service.LingualeoService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for Lingualeo API, it serves the user's dictionary, translations and adding of words,
+ * like the real API does, but from memory. Every response can be delayed, like the responses of the real API
+ * are delayed by the network, and the requests are served concurrently. It's used in the tests and the benchmarks,
+ * and can be started for development with "dev" profile of the application, which points the API's URL to it.
+ */
+public class LingualeoStubServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 8089;
+
+    public static final String SESSION_COOKIE = "stub-session";
+
+    private final HttpServer server;
+
+    /** Words of the dictionary, the most recently added go last. */
+    private final List<String> dictionary = new ArrayList<>();
+
+    private final int pageSize;
+
+    private final AtomicInteger dictionaryRequests = new AtomicInteger();
+
+    private final AtomicInteger translationRequests = new AtomicInteger();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private volatile long latencyMillis;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Starts the server.
+     * @param port port to listen to, 0 - any free port
+     * @param pageSize number of the words in a page of the dictionary
+     * @throws IOException if the server cannot be started
+     */
+    public LingualeoStubServer(int port, int pageSize) throws IOException {
+        this.pageSize = pageSize;
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/login", exchange -> respond(exchange,
+                "{\"user\":{\"user_id\":1,\"nickname\":\"stub\"}}"));
+        server.createContext("/userdict", exchange -> respond(exchange, objectMapper.writeValueAsString(
+                dictionaryPage(Integer.parseInt(query(exchange).getOrDefault("page", "1"))))));
+        server.createContext("/gettranslates", exchange -> {
+            translationRequests.incrementAndGet();
+            respond(exchange, "{\"translate\":[{\"id\":1,"
+                    + "\"value\":\"" + query(exchange).getOrDefault("word", "") + "-translation\"}]}");
+        });
+        server.createContext("/addword", exchange -> {
+            addWords(query(exchange).get("word"));
+            respond(exchange, "{}");
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Adds the words to the dictionary, the ids of the words grow in the order of adding.
+     * @param words words to add
+     */
+    public synchronized void addWords(String... words) {
+        dictionary.addAll(List.of(words));
+    }
+
+    /**
+     * Sets the delay of every response.
+     * @param latencyMillis delay in milliseconds
+     * @return this server
+     */
+    public LingualeoStubServer setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        return this;
+    }
+
+    /**
+     * Returns the words of the dictionary.
+     * @return words in the order of adding
+     */
+    public synchronized List<String> getWords() {
+        return List.copyOf(dictionary);
+    }
+
+    /**
+     * Returns the URL of the API served.
+     * @return base URL
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * Returns the number of the pages of the dictionary requested so far.
+     * @return number of the requests
+     */
+    public int getDictionaryRequests() {
+        return dictionaryRequests.get();
+    }
+
+    /**
+     * Returns the number of the translations requested so far.
+     * @return number of the requests
+     */
+    public int getTranslationRequests() {
+        return translationRequests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the page of the dictionary, like the real API does.
+     * @param number number of the page starting from 1
+     * @return page of the dictionary, the most recently added words go first
+     */
+    public synchronized DictionaryResponse dictionaryPage(int number) {
+        dictionaryRequests.incrementAndGet();
+        int from = dictionary.size() - (number - 1) * pageSize;
+        int to = Math.max(0, from - pageSize);
+        List<DictionaryWord> words = new ArrayList<>();
+        for (int i = from - 1; i >= to; i--) {
+            words.add(new DictionaryWord().setId(i + 1).setValue(dictionary.get(i)));
+        }
+        return new DictionaryResponse()
+                .setGroups(List.of(new DictionaryResponse.WordGroup().setWords(words)))
+                .setShowMore(to > 0);
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = URI.create(exchange.getRequestURI().toString()).getRawQuery();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                String[] pair = parameter.split("=", 2);
+                parameters.put(URLDecoder.decode(pair[0], StandardCharsets.UTF_8),
+                        pair.length > 1 ? URLDecoder.decode(pair[1], StandardCharsets.UTF_8) : "");
+            }
+        }
+        return parameters;
+    }
+
+    private void respond(HttpExchange exchange, String json) throws IOException {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("Set-Cookie", LingualeoService.COOKIE_NAME + "=" + SESSION_COOKIE);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Starts the server on the port of "dev" profile, with a few words in the dictionary.
+     * @param args not used
+     * @throws IOException if the server cannot be started
+     */
+    public static void main(String[] args) throws IOException {
+        LingualeoStubServer server = new LingualeoStubServer(DEFAULT_PORT, 100);
+        server.addWords("the", "a", "and", "of", "to", "in", "he", "she", "it", "was");
+        System.out.println("Lingualeo stand-in is listening at " + server.getBaseUrl());
+    }
+}
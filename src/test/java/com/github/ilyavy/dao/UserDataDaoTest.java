@@ -0,0 +1,102 @@
+package com.github.ilyavy.dao;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserDataDaoTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private static final int PAYLOAD_SIZE = 100;
+
+    @TempDir
+    Path tempDir;
+
+    private UserDataDao userDataDao;
+
+    @BeforeEach
+    void initializeDb() {
+        userDataDao = new UserDataDao(tempDir.resolve("localdata").toString());
+        userDataDao.initializeTablesIfNecessary().block(TIMEOUT);
+    }
+
+    @Test
+    void leastRecentlyUsedAnalysesAreEvicted() {
+        persistAnalysis("first");
+        persistAnalysis("second");
+        // Reading the first analysis makes the second one the least recently used
+        assertNotNull(userDataDao.getAnalysis("first").block(TIMEOUT));
+
+        persistAnalysis("third");
+
+        assertNotNull(userDataDao.getAnalysis("first").block(TIMEOUT));
+        assertNull(userDataDao.getAnalysis("second").block(TIMEOUT));
+        assertNotNull(userDataDao.getAnalysis("third").block(TIMEOUT));
+    }
+
+    @Test
+    void analysisIsReplacedWithoutEviction() {
+        persistAnalysis("first");
+        persistAnalysis("second");
+
+        persistAnalysis("first");
+
+        assertNotNull(userDataDao.getAnalysis("first").block(TIMEOUT));
+        assertNotNull(userDataDao.getAnalysis("second").block(TIMEOUT));
+    }
+
+    @Test
+    void analysisIsReadAsPersisted() {
+        userDataDao.persistAnalysis("key", new byte[] {1, 2, 3}, PAYLOAD_SIZE).block(TIMEOUT);
+
+        assertArrayEquals(new byte[] {1, 2, 3}, userDataDao.getAnalysis("key").block(TIMEOUT));
+    }
+
+    @Test
+    void lemmasOfOtherVersionsAreDeleted() {
+        userDataDao.persistLemmas(Map.of("leaves|VBZ", "leave", "leaves|NNS", "leaf"), "old").block(TIMEOUT);
+        Map<String, String> lemmas = Map.of("leaves|NNS", "leaf", "bill|NN", "bill");
+        userDataDao.persistLemmas(lemmas, "new").block(TIMEOUT);
+
+        assertEquals(1L, userDataDao.deleteLemmasExcept("new").block(TIMEOUT));
+        assertEquals(Map.of(), userDataDao.getCachedLemmas("old").block(TIMEOUT));
+        assertEquals(lemmas, userDataDao.getCachedLemmas("new").block(TIMEOUT));
+    }
+
+    @Test
+    void knownWordsAreReplaced() {
+        userDataDao.persistKnownWords(Map.of("war", 1L, "peace", 2L)).block(TIMEOUT);
+        userDataDao.persistKnownWords(Map.of("war", 3L)).block(TIMEOUT);
+
+        assertEquals(Set.of("war", "peace"), Set.copyOf(userDataDao.getKnownWords().block(TIMEOUT)));
+        assertEquals(3L, userDataDao.getLastKnownWordId().block(TIMEOUT));
+    }
+
+    @Test
+    void translationsRequestedWithOtherMaximumAreInvalidated() {
+        LocalDateTime notBefore = LocalDateTime.now().minusDays(1);
+        userDataDao.persistTranslations("war", "[\"война\"]", 3).block(TIMEOUT);
+        userDataDao.persistTranslations("peace", "[\"мир\"]", 5).block(TIMEOUT);
+
+        assertNull(userDataDao.getTranslations("war", notBefore, 5).block(TIMEOUT));
+        assertEquals(1L, userDataDao.deleteTranslations(notBefore, 5).block(TIMEOUT));
+        assertNull(userDataDao.getTranslations("war", notBefore, 3).block(TIMEOUT));
+        assertEquals("[\"мир\"]", userDataDao.getTranslations("peace", notBefore, 5).block(TIMEOUT));
+    }
+
+    /**
+     * Persists an analysis, keeping no more than two of them.
+     */
+    private void persistAnalysis(String cacheKey) {
+        userDataDao.persistAnalysis(cacheKey, new byte[PAYLOAD_SIZE], 2 * PAYLOAD_SIZE).block(TIMEOUT);
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.ilyavy.model.lingualeo.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.ilyavy.model.Translation;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranslationsParserTest {
+
+    private static final String RESPONSE = "{\"error_msg\":\"\",\"translate_source\":\"base\","
+            + "\"word_forms\":[{\"word\":\"war\",\"translate\":[{\"value\":\"wrong\"}]}],"
+            + "\"translate\":[{\"id\":17,\"value\":\"война\",\"votes\":5000,\"pic_url\":\"http://pic/17.png\","
+            + "\"nested\":{\"value\":\"wrong\"}},{\"id\":18,\"value\":\"борьба\"},{\"id\":19,\"value\":\"вражда\"}],"
+            + "\"is_user\":0}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void translationsAreParsedFromAnyChunks() throws Exception {
+        byte[] body = RESPONSE.getBytes(StandardCharsets.UTF_8);
+
+        for (int split = 0; split <= body.length; split++) {
+            var parser = new TranslationsParser(objectMapper, 2);
+            parser.feed(Arrays.copyOfRange(body, 0, split));
+            parser.feed(Arrays.copyOfRange(body, split, body.length));
+
+            assertTrue(parser.isCompleted(), "Split at " + split);
+            List<Translation> translations = parser.getTranslations();
+            assertEquals(List.of("война", "борьба"), translations.stream().map(Translation::getValue).toList());
+            assertEquals(17, translations.get(0).getId());
+            assertEquals("http://pic/17.png", translations.get(0).getPictureUrl());
+        }
+    }
+
+    @Test
+    void restOfResponseIsNotParsed() throws Exception {
+        String firstTranslation = RESPONSE.substring(0, RESPONSE.indexOf("},{\"id\":18") + 1);
+        var parser = new TranslationsParser(objectMapper, 1);
+
+        assertTrue(parser.feed(firstTranslation.getBytes(StandardCharsets.UTF_8)));
+        // Not even valid JSON
+        assertTrue(parser.feed("}}}]".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("война", parser.getTranslations().get(0).getValue());
+    }
+
+    @Test
+    void allTranslationsAreParsedIfThereAreFewerOfThem() throws Exception {
+        var parser = new TranslationsParser(objectMapper, 5);
+
+        assertTrue(parser.feed(RESPONSE.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(3, parser.getTranslations().size());
+    }
+
+    @Test
+    void responseWithoutTranslationsHasNoTranslations() throws Exception {
+        var parser = new TranslationsParser(objectMapper, 1);
+
+        parser.feed("{\"word_forms\":[{\"translate\":[{\"value\":\"x\"}]}],\"translate\":[]}"
+                .getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(parser.isCompleted());
+        assertEquals(List.of(), parser.getTranslations());
+    }
+}
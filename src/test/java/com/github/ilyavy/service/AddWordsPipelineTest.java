@@ -0,0 +1,124 @@
+package com.github.ilyavy.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.ilyavy.dao.UserDataDao;
+import com.github.ilyavy.model.Translation;
+import com.github.ilyavy.model.Word;
+import com.github.ilyavy.service.parser.word.SimpleWord;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class AddWordsPipelineTest {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private final List<String> added = new ArrayList<>();
+
+    private final AtomicInteger translationRequests = new AtomicInteger();
+
+    private final TranslationCacheService translationCacheService = new TranslationCacheService(
+            mock(UserDataDao.class), new TranslationCache(1000), Duration.ofDays(1), false);
+
+    /** Responds after random delays, so the responses come back out of order, the word "fail" cannot be added. */
+    private final LingualeoService lingualeoService = new LingualeoService(mock(WebClient.class)) {
+        @Override
+        public Mono<List<Translation>> requestTranslations(String word) {
+            translationRequests.incrementAndGet();
+            Translation translation = new Translation();
+            translation.setValue(word + "-translation");
+            return respond(List.of(translation));
+        }
+
+        @Override
+        public Mono<Word> addWordToDictionary(Word word) {
+            if (word.getWord().equals("fail")) {
+                return Mono.error(new IllegalStateException("Failed"));
+            }
+            return respond(word).doOnNext(w -> {
+                synchronized (added) {
+                    added.add(w.getWord());
+                }
+            });
+        }
+    };
+
+    @Test
+    void wordsAreAddedConcurrentlyAndEmittedInOrder() {
+        List<Word> words = words(40);
+        var pipeline = new AddWordsPipeline(lingualeoService, translationCacheService, 4,
+                new TokenBucket(1_000_000, 1000));
+
+        List<Word> result = pipeline.addWords(words).collectList().block();
+
+        assertEquals(words.stream().map(Word::getWord).toList(), result.stream().map(Word::getWord).toList());
+        assertEquals("word7-translation", result.get(7).getTranslate());
+        assertEquals(40, added.size());
+        assertNotEquals(result.stream().map(Word::getWord).toList(), added, "Responses should come out of order");
+        assertTrue(maxInFlight.get() > 1 && maxInFlight.get() <= 4, "Max in flight: " + maxInFlight.get());
+    }
+
+    @Test
+    void failedWordIsSkipped() {
+        List<Word> words = words(3);
+        words.add(1, new SimpleWord("fail"));
+        var pipeline = new AddWordsPipeline(lingualeoService, translationCacheService, 2,
+                new TokenBucket(1_000_000, 1000));
+
+        List<Word> result = pipeline.addWords(words).collectList().block();
+
+        assertEquals(List.of("word0", "word1", "word2"), result.stream().map(Word::getWord).toList());
+    }
+
+    @Test
+    void cachedTranslationsAreNotRequested() {
+        var pipeline = new AddWordsPipeline(lingualeoService, translationCacheService, 4,
+                new TokenBucket(1_000_000, 1000));
+        pipeline.addWords(words(10)).blockLast();
+
+        List<Word> result = pipeline.addWords(words(20)).collectList().block();
+
+        assertEquals(20, result.size());
+        assertEquals("word3-translation", result.get(3).getTranslate());
+        assertEquals(20, translationRequests.get());
+        assertEquals(10, translationCacheService.getStatistics().memoryHits());
+    }
+
+    @Test
+    void requestsAreRateLimited() {
+        List<Word> words = words(5);
+        // 10 requests, 5 of them go at once, then one every 10 ms
+        var pipeline = new AddWordsPipeline(lingualeoService, translationCacheService, 10, new TokenBucket(100, 5));
+
+        long start = System.nanoTime();
+        pipeline.addWords(words).blockLast();
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 45);
+    }
+
+    private <T> Mono<T> respond(T response) {
+        return Mono.delay(Duration.ofMillis(ThreadLocalRandom.current().nextInt(1, 10)))
+                .doOnSubscribe(s -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                .thenReturn(response)
+                // Before the response is passed on, as the next request of the word can follow right away
+                .doOnSuccess(r -> inFlight.decrementAndGet());
+    }
+
+    private static List<Word> words(int number) {
+        List<Word> words = new ArrayList<>();
+        for (int i = 0; i < number; i++) {
+            words.add(new SimpleWord("word" + i));
+        }
+        return words;
+    }
+}
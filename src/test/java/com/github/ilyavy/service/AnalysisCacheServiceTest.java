@@ -0,0 +1,105 @@
+package com.github.ilyavy.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import com.github.ilyavy.dao.UserDataDao;
+import com.github.ilyavy.model.Word;
+import com.github.ilyavy.service.parser.AnalysisProgress;
+import com.github.ilyavy.service.parser.ForkJoinBookTextParser;
+import com.github.ilyavy.service.parser.KnownWords;
+import com.github.ilyavy.service.parser.LemmatizationMode;
+import com.github.ilyavy.service.parser.Lemmatizer;
+import com.github.ilyavy.service.parser.PooledLemmatizerForkJoinBookTextParser;
+import com.github.ilyavy.service.parser.TextStatistics;
+import com.github.ilyavy.service.parser.word.SimpleWord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalysisCacheServiceTest {
+
+    private static final long MAX_SIZE_MB = 1;
+
+    private final UserDataDao userDataDao = mock(UserDataDao.class);
+
+    private final AnalysisCacheService service = new AnalysisCacheService(userDataDao, true, MAX_SIZE_MB);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void keyChangesWithEveryPartOfConfiguration() throws IOException {
+        File book = book("book.txt", "The war began.");
+        KnownWords noWords = KnownWords.none();
+        String key = service.keyOf(book, LemmatizationMode.ACCURATE, ForkJoinBookTextParser.class, noWords);
+
+        assertEquals(key, service.keyOf(book("copy.txt", "The war began."),
+                LemmatizationMode.ACCURATE, ForkJoinBookTextParser.class, KnownWords.of(List.of())));
+        assertTrue(key.contains(Lemmatizer.stopWordsHash()));
+        assertNotEquals(key, service.keyOf(book("other.txt", "The war ended."),
+                LemmatizationMode.ACCURATE, ForkJoinBookTextParser.class, noWords));
+        assertNotEquals(key, service.keyOf(book,
+                LemmatizationMode.FAST, ForkJoinBookTextParser.class, noWords));
+        assertNotEquals(key, service.keyOf(book,
+                LemmatizationMode.ACCURATE, PooledLemmatizerForkJoinBookTextParser.class, noWords));
+        assertNotEquals(key, service.keyOf(book,
+                LemmatizationMode.ACCURATE, ForkJoinBookTextParser.class, KnownWords.of(List.of("war"))));
+    }
+
+    @Test
+    void analysisIsTheSameAfterRoundTrip() {
+        when(userDataDao.persistAnalysis(anyString(), any(), anyLong())).thenReturn(Mono.empty());
+        Map<String, Word> words = Map.of(
+                "war", new SimpleWord("war").setContexts("The war began.").setCount(3),
+                "peace", new SimpleWord("peace").setCount(1));
+        TextStatistics statistics = new TextStatistics(List.of(
+                new TextStatistics.Chapter("Chapter 1", 10, 120, 160),
+                new TextStatistics.Chapter("Chapter 2", 5, 40, 50)));
+
+        service.put("key", AnalysisProgress.completed(words, statistics));
+        ArgumentCaptor<byte[]> payload = ArgumentCaptor.forClass(byte[].class);
+        verify(userDataDao, timeout(5_000)).persistAnalysis(eq("key"), payload.capture(), eq(MAX_SIZE_MB << 20));
+        when(userDataDao.getAnalysis("key")).thenReturn(Mono.just(payload.getValue()));
+        AnalysisProgress analysis = service.get("key").block();
+
+        assertTrue(analysis.isComplete());
+        assertEquals(words.keySet(), analysis.getWords().keySet());
+        assertEquals(3, analysis.getWords().get("war").getCount());
+        assertEquals(List.of("The war began."), analysis.getWords().get("war").getContexts());
+        assertEquals(1, analysis.getWords().get("peace").getCount());
+        assertEquals(chapters(statistics), chapters(analysis.getStatistics()));
+    }
+
+    @Test
+    void corruptedAnalysisIsMissed() {
+        when(userDataDao.getAnalysis("key")).thenReturn(Mono.just(new byte[] {1, 2, 3}));
+
+        assertNull(service.get("key").block());
+    }
+
+    private static List<List<Object>> chapters(TextStatistics statistics) {
+        return statistics.getChapters().stream()
+                .map(c -> List.<Object>of(c.getTitle(), c.getSentences(), c.getWords(), c.getSyllables()))
+                .toList();
+    }
+
+    private File book(String name, String text) throws IOException {
+        return Files.writeString(tempDir.resolve(name), text).toFile();
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.ilyavy.service;
+
+import java.util.Map;
+
+import com.github.ilyavy.dao.UserDataDao;
+import com.github.ilyavy.service.parser.LemmaCache;
+import com.github.ilyavy.service.parser.Lemmatizer;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LemmaCacheServiceTest {
+
+    private final UserDataDao userDataDao = mock(UserDataDao.class);
+
+    private final LemmaCache lemmaCache = new LemmaCache(1024);
+
+    @Test
+    void lemmasOfOtherVersionsAreDeletedAndCurrentOnesAreLoaded() {
+        when(userDataDao.deleteLemmasExcept(anyString())).thenReturn(Mono.just(3L));
+        when(userDataDao.getCachedLemmas(anyString())).thenReturn(Mono.just(Map.of("leaves", "leaf")));
+
+        new LemmaCacheService(userDataDao, lemmaCache, true).load();
+
+        ArgumentCaptor<String> version = ArgumentCaptor.forClass(String.class);
+        verify(userDataDao).deleteLemmasExcept(version.capture());
+        verify(userDataDao).getCachedLemmas(version.getValue());
+        // The lemmas are valid only for the same mode and list of stop words
+        assertTrue(version.getValue().contains("ACCURATE"));
+        assertTrue(version.getValue().contains(Lemmatizer.stopWordsHash()));
+        assertEquals(Map.of("leaves", "leaf"), lemmaCache.snapshot());
+    }
+
+    @Test
+    void lemmasArePersistedWithTheVersionTheyAreLoadedBy() {
+        when(userDataDao.deleteLemmasExcept(anyString())).thenReturn(Mono.just(0L));
+        when(userDataDao.getCachedLemmas(anyString())).thenReturn(Mono.just(Map.of()));
+        when(userDataDao.persistLemmas(anyMap(), anyString())).thenReturn(Mono.empty());
+        var service = new LemmaCacheService(userDataDao, lemmaCache, true);
+        service.load();
+        lemmaCache.put("leaves", "VBZ", "leave");
+
+        service.persist();
+
+        ArgumentCaptor<String> version = ArgumentCaptor.forClass(String.class);
+        verify(userDataDao).getCachedLemmas(version.capture());
+        verify(userDataDao).persistLemmas(eq(lemmaCache.snapshot()), eq(version.getValue()));
+    }
+
+    @Test
+    void notPersistentCacheDoesNotAccessDb() {
+        var service = new LemmaCacheService(userDataDao, lemmaCache, false);
+
+        service.load();
+        service.persist();
+
+        verify(userDataDao, never()).getCachedLemmas(anyString());
+        verify(userDataDao, never()).persistLemmas(anyMap(), anyString());
+    }
+}
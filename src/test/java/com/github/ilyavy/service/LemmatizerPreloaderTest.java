@@ -0,0 +1,117 @@
+package com.github.ilyavy.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.ilyavy.service.parser.LemmatizationMode;
+import com.github.ilyavy.service.parser.Lemmatizer;
+import com.github.ilyavy.service.parser.LemmatizerPool;
+import com.github.ilyavy.service.parser.LemmatizerPools;
+import com.github.ilyavy.service.parser.RegexLemmatizer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LemmatizerPreloaderTest {
+
+    private static final int POOL_SIZE = 2;
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final AtomicInteger batches = new AtomicInteger();
+
+    /** Lemmatizers wait for the gate before every batch, it's open unless a test closes it. */
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+
+    private final LemmatizerPools lemmatizerPools = new LemmatizerPools(mode -> GatedLemmatizer::new, POOL_SIZE);
+
+    @Test
+    void readyCompletesAfterWarmUp() {
+        var preloader = new LemmatizerPreloader(lemmatizerPools, true);
+
+        preloader.preload();
+        preloader.ready(LemmatizationMode.ACCURATE).block(TIMEOUT);
+
+        assertTrue(batches.get() > 0);
+        assertTrue(lemmatizerPools.get(LemmatizationMode.ACCURATE).size() > 0);
+    }
+
+    @Test
+    void lemmatizersAreNotHeldWhenAnalysisStarts() {
+        var preloader = new LemmatizerPreloader(lemmatizerPools, true);
+
+        preloader.preload();
+        preloader.ready(LemmatizationMode.ACCURATE).block(TIMEOUT);
+
+        assertAllLemmatizersAreIdle(lemmatizerPools.get(LemmatizationMode.ACCURATE));
+    }
+
+    @Test
+    void cancelledWarmUpReleasesLemmatizers() throws InterruptedException {
+        gate = new CountDownLatch(1);
+        var preloader = new LemmatizerPreloader(lemmatizerPools, true);
+
+        preloader.preload();
+        waitForFirstBatch();
+        preloader.cancel();
+        gate.countDown();
+        preloader.ready(LemmatizationMode.ACCURATE).block(TIMEOUT);
+
+        assertAllLemmatizersAreIdle(lemmatizerPools.get(LemmatizationMode.ACCURATE));
+    }
+
+    @Test
+    void otherModesAndDisabledPreloadingAreReadyAtOnce() {
+        gate = new CountDownLatch(1);
+        var preloader = new LemmatizerPreloader(lemmatizerPools, true);
+        preloader.preload();
+
+        // The warm-up of the accurate mode is blocked, but the other modes don't wait for it
+        preloader.ready(LemmatizationMode.FAST).block(TIMEOUT);
+        preloader.ready(LemmatizationMode.BALANCED).block(TIMEOUT);
+        new LemmatizerPreloader(lemmatizerPools, false).ready(LemmatizationMode.ACCURATE).block(TIMEOUT);
+
+        preloader.cancel();
+        gate.countDown();
+    }
+
+    private void waitForFirstBatch() throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (batches.get() == 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertTrue(batches.get() > 0, "The warm-up has not started");
+    }
+
+    /**
+     * Borrows as many lemmatizers as the pool can hold, it would block, if any of them was still borrowed.
+     */
+    private static void assertAllLemmatizersAreIdle(LemmatizerPool pool) {
+        List<Lemmatizer> borrowed = new ArrayList<>();
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            for (int i = 0; i < pool.getMaxSize(); i++) {
+                borrowed.add(pool.borrow());
+            }
+        });
+        borrowed.forEach(pool::release);
+    }
+
+    private class GatedLemmatizer extends RegexLemmatizer {
+
+        @Override
+        public List<List<String>> lemmatize(List<String> sentences) {
+            batches.incrementAndGet();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return super.lemmatize(sentences);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.ilyavy.service;
+
+import java.util.List;
+
+import com.github.ilyavy.model.lingualeo.api.DictionaryResponse;
+import com.github.ilyavy.perfomance.LingualeoStubServer;
+import com.github.ilyavy.model.lingualeo.api.DictionaryResponse.DictionaryWord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class LingualeoServiceTest {
+
+    private LingualeoStubServer server;
+
+    private LingualeoService service;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new LingualeoStubServer(0, 3);
+        server.addWords("war", "peace", "prince", "count", "army", "battle", "moscow");
+        // The pages are taken from the stand-in directly, without HTTP
+        service = new LingualeoService(mock(WebClient.class), null, LingualeoStubServer.SESSION_COOKIE) {
+            @Override
+            Mono<DictionaryResponse> requestDictionaryPage(int number) {
+                return Mono.fromCallable(() -> server.dictionaryPage(number));
+            }
+        };
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void allDictionaryPagesAreRequestedForFullSync() {
+        List<DictionaryWord> words = service.getDictionaryWords(0).collectList().block();
+
+        assertEquals(List.of("moscow", "battle", "army", "count", "prince", "peace", "war"),
+                words.stream().map(DictionaryWord::getValue).toList());
+        assertEquals(7, words.get(0).getId());
+        assertEquals(3, server.getDictionaryRequests());
+    }
+
+    @Test
+    void onlyNewWordsAreRequestedForIncrementalSync() {
+        server.addWords("general");
+
+        List<DictionaryWord> words = service.getDictionaryWords(6).collectList().block();
+
+        assertEquals(List.of("general", "moscow"), words.stream().map(DictionaryWord::getValue).toList());
+        assertEquals(1, server.getDictionaryRequests());
+    }
+
+    @Test
+    void nothingIsReturnedWhenDictionaryIsUpToDate() {
+        assertTrue(service.getDictionaryWords(7).collectList().block().isEmpty());
+        assertEquals(1, server.getDictionaryRequests());
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.ilyavy.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long TOKEN_NANOS = 100_000_000L;
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final TokenBucket bucket = new TokenBucket(10, 3, now::get);
+
+    @Test
+    void burstUpToCapacityIsNotDelayed() {
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+        assertEquals(TOKEN_NANOS, bucket.reserve());
+        assertEquals(2 * TOKEN_NANOS, bucket.reserve());
+    }
+
+    @Test
+    void tokensAreRefilledAtConstantRateUpToCapacity() {
+        for (int i = 0; i < 3; i++) {
+            bucket.reserve();
+        }
+
+        now.addAndGet(TOKEN_NANOS);
+        assertEquals(0, bucket.reserve());
+        assertEquals(TOKEN_NANOS, bucket.reserve());
+
+        now.addAndGet(100 * TOKEN_NANOS);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.reserve());
+        }
+        assertEquals(TOKEN_NANOS, bucket.reserve());
+    }
+
+    @Test
+    void longRunRateDoesNotExceedRefillRate() {
+        long lastDelay = 0;
+        for (int i = 0; i < 1000; i++) {
+            lastDelay = bucket.reserve();
+        }
+
+        assertEquals((1000 - 3) * TOKEN_NANOS, lastDelay);
+    }
+
+    @Test
+    void invalidParametersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.ilyavy.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.ilyavy.dao.UserDataDao;
+import com.github.ilyavy.model.Translation;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TranslationCacheServiceTest {
+
+    private static final String PERSISTED = "[{\"id\":17,\"value\":\"война\",\"pic_url\":\"http://pic/17.png\"},"
+            + "{\"id\":18,\"value\":\"борьба\",\"pic_url\":null}]";
+
+    private final UserDataDao userDataDao = mock(UserDataDao.class);
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final TranslationCacheService service = new TranslationCacheService(userDataDao,
+            new TranslationCache(1000), Duration.ofDays(30), true);
+
+    @Test
+    void missedTranslationsAreLoadedAndPersisted() {
+        when(userDataDao.getTranslations(anyString(), any(), anyInt())).thenReturn(Mono.empty());
+        when(userDataDao.persistTranslations(anyString(), anyString(), anyInt())).thenReturn(Mono.empty());
+
+        List<Translation> translations = service.get("War", this::request).block();
+        List<Translation> cached = service.get("war", this::request).block();
+
+        assertEquals("war-translation", translations.get(0).getValue());
+        assertEquals(translations, cached);
+        assertEquals(1, requests.get());
+        verify(userDataDao).persistTranslations(eq("war"), anyString(), anyInt());
+        assertEquals(new TranslationCacheService.Statistics(1, 0, 1), service.getStatistics());
+        assertEquals(0.5, service.getStatistics().hitRate());
+    }
+
+    @Test
+    void persistedTranslationsAreNotRequestedAgain() {
+        when(userDataDao.getTranslations(eq("war"), any(), anyInt())).thenReturn(Mono.just(PERSISTED));
+
+        List<Translation> translations = service.get("war", this::request).block();
+        service.get("war", this::request).block();
+
+        assertEquals(List.of("война", "борьба"), translations.stream().map(Translation::getValue).toList());
+        assertEquals("http://pic/17.png", translations.get(0).getPictureUrl());
+        assertEquals(0, requests.get());
+        // The second lookup is served by memory
+        verify(userDataDao).getTranslations(eq("war"), any(), anyInt());
+        assertEquals(new TranslationCacheService.Statistics(1, 1, 0), service.getStatistics());
+    }
+
+    @Test
+    void translationsOlderThanTtlAreExpired() {
+        when(userDataDao.getTranslations(anyString(), any(), anyInt())).thenAnswer(invocation -> {
+            LocalDateTime notBefore = invocation.getArgument(1);
+            // Persisted 31 days ago
+            return LocalDateTime.now().minusDays(31).isBefore(notBefore) ? Mono.empty() : Mono.just(PERSISTED);
+        });
+        when(userDataDao.persistTranslations(anyString(), anyString(), anyInt())).thenReturn(Mono.empty());
+
+        assertEquals("war-translation", service.get("war", this::request).block().get(0).getValue());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void unreadableTranslationsAreRequestedAgain() {
+        when(userDataDao.getTranslations(anyString(), any(), anyInt())).thenReturn(Mono.just("{broken"));
+        when(userDataDao.persistTranslations(anyString(), anyString(), anyInt())).thenReturn(Mono.empty());
+
+        assertEquals("war-translation", service.get("war", this::request).block().get(0).getValue());
+        verify(userDataDao).persistTranslations(eq("war"), anyString(), anyInt());
+    }
+
+    @Test
+    void translationsAreCachedWithTheirMaximumNumber() {
+        var service = new TranslationCacheService(userDataDao, new TranslationCache(1000), Duration.ofDays(30),
+                true, 3);
+        when(userDataDao.deleteTranslations(any(), anyInt())).thenReturn(Mono.just(0L));
+        when(userDataDao.getTranslations(anyString(), any(), anyInt())).thenReturn(Mono.empty());
+        when(userDataDao.persistTranslations(anyString(), anyString(), anyInt())).thenReturn(Mono.empty());
+
+        service.deleteExpired();
+        service.get("war", this::request).block();
+
+        verify(userDataDao).deleteTranslations(any(), eq(3));
+        verify(userDataDao).getTranslations(eq("war"), any(), eq(3));
+        verify(userDataDao).persistTranslations(eq("war"), anyString(), eq(3));
+    }
+
+    @Test
+    void nonPersistentCacheDoesNotUseDatabase() {
+        var memoryOnly = new TranslationCacheService(userDataDao, new TranslationCache(1000), Duration.ofDays(30),
+                false);
+
+        memoryOnly.get("war", this::request).block();
+        memoryOnly.get("war", this::request).block();
+
+        assertEquals(1, requests.get());
+        verify(userDataDao, never()).getTranslations(anyString(), any(), anyInt());
+        verify(userDataDao, never()).persistTranslations(anyString(), anyString(), anyInt());
+    }
+
+    private Mono<List<Translation>> request() {
+        return Mono.fromCallable(() -> {
+            requests.incrementAndGet();
+            Translation translation = new Translation();
+            translation.setValue("war-translation");
+            return List.of(translation);
+        });
+    }
+}
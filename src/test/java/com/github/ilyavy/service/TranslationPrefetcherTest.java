@@ -0,0 +1,127 @@
+package com.github.ilyavy.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.github.ilyavy.dao.UserDataDao;
+import com.github.ilyavy.model.Translation;
+import com.github.ilyavy.model.Word;
+import com.github.ilyavy.service.parser.word.SimpleWord;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TranslationPrefetcherTest {
+
+    private final List<String> requested = Collections.synchronizedList(new ArrayList<>());
+
+    private final TranslationCacheService translationCacheService = new TranslationCacheService(
+            mock(UserDataDao.class), new TranslationCache(1000), Duration.ofDays(1), false);
+
+    /** The word "fail" cannot be translated. */
+    private final LingualeoService lingualeoService = new LingualeoService(mock(WebClient.class)) {
+        @Override
+        public Mono<List<Translation>> requestTranslations(String word) {
+            requested.add(word);
+            if (word.equals("fail")) {
+                return Mono.error(new IllegalStateException("Failed"));
+            }
+            Translation translation = new Translation();
+            translation.setValue(word + "-translation");
+            return Mono.delay(Duration.ofMillis(5)).thenReturn(List.of(translation));
+        }
+    };
+
+    private TranslationPrefetcher prefetcher(int maxWords) {
+        return new TranslationPrefetcher(lingualeoService, translationCacheService, 2,
+                new TokenBucket(1_000_000, 1000), maxWords);
+    }
+
+    private static List<Word> words(String... words) {
+        List<Word> result = new ArrayList<>();
+        for (String word : words) {
+            result.add(new SimpleWord(word));
+        }
+        return result;
+    }
+
+    @Test
+    void wordsAreTranslated() {
+        List<Word> words = words("alpha", "beta", "gamma");
+
+        List<TranslationPrefetcher.Prefetched> translated = prefetcher(10).prefetch(words).collectList().block();
+
+        assertEquals(3, translated.size());
+        for (TranslationPrefetcher.Prefetched prefetched : translated) {
+            assertEquals(prefetched.word() + "-translation", prefetched.translation());
+        }
+        // The words can be shown meanwhile, they are not changed
+        for (Word word : words) {
+            assertEquals("", word.getTranslate());
+        }
+    }
+
+    @Test
+    void onlyBudgetOfFirstWordsIsTranslated() {
+        List<Word> words = words("alpha", "beta", "gamma", "delta");
+
+        prefetcher(2).prefetch(words).collectList().block();
+
+        assertEquals(List.of("alpha", "beta"), requested.stream().sorted().toList());
+    }
+
+    @Test
+    void translatedAndCachedWordsAreNotRequested() {
+        List<Word> words = words("alpha", "beta", "gamma");
+        words.get(0).setTranslate("альфа");
+        translationCacheService.get("beta", () -> lingualeoService.requestTranslations("beta")).block();
+        requested.clear();
+
+        List<TranslationPrefetcher.Prefetched> translated = prefetcher(10).prefetch(words).collectList().block();
+
+        assertEquals(List.of("gamma"), requested);
+        assertEquals(List.of(new TranslationPrefetcher.Prefetched("beta", "beta-translation"),
+                new TranslationPrefetcher.Prefetched("gamma", "gamma-translation")),
+                translated.stream().sorted(Comparator.comparing(TranslationPrefetcher.Prefetched::word)).toList());
+    }
+
+    @Test
+    void wordWhichCannotBeTranslatedIsSkipped() {
+        List<Word> words = words("alpha", "fail", "gamma");
+
+        List<TranslationPrefetcher.Prefetched> translated = prefetcher(10).prefetch(words).collectList().block();
+
+        assertEquals(List.of("alpha", "gamma"),
+                translated.stream().map(TranslationPrefetcher.Prefetched::word).sorted().toList());
+    }
+
+    @Test
+    void prefetchWaitsForTokensTakenByOtherRequests() throws InterruptedException {
+        var rateLimiter = new TokenBucket(0.1, 1);
+        // The token is taken, e.g. by adding a word, the next one comes in 10 seconds
+        rateLimiter.acquire().block();
+        var prefetcher = new TranslationPrefetcher(lingualeoService, translationCacheService, 2, rateLimiter, 10);
+
+        Disposable prefetch = prefetcher.prefetch(words("alpha")).subscribe();
+        TimeUnit.MILLISECONDS.sleep(200);
+        prefetch.dispose();
+
+        assertTrue(requested.isEmpty());
+    }
+
+    @Test
+    void noWordsAreTranslatedWithoutBudget() {
+        List<Word> words = words("alpha", "beta");
+
+        assertTrue(prefetcher(0).prefetch(words).collectList().block().isEmpty());
+        assertTrue(requested.isEmpty());
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingLemmatizerTest {
+
+    private static final List<String> SENTENCES = List.of("...Well, Prince", "",
+            " So Genoa and Lucca are now just family estates", " The estates are now family estates");
+
+    @Test
+    void lemmasAreTheSameAsWithoutCache() {
+        var expected = new Lemmatizer().lemmatize(SENTENCES);
+        var cachingLemmatizer = new CachingLemmatizer(new LemmaCache(1024));
+
+        assertEquals(expected, cachingLemmatizer.lemmatize(SENTENCES));
+        assertEquals(expected, cachingLemmatizer.lemmatize(SENTENCES));
+    }
+
+    @Test
+    void cachedSentencesAreNotAnnotatedAgain() {
+        var cache = new LemmaCache(1024);
+        var cachingLemmatizer = new CachingLemmatizer(cache);
+        cachingLemmatizer.lemmatize(SENTENCES);
+        long misses = cache.getMisses();
+
+        cachingLemmatizer.lemmatize(SENTENCES);
+
+        assertEquals(misses, cache.getMisses());
+        assertTrue(cache.getHits() > 0);
+    }
+
+    @Test
+    void formIsLemmatizedByItsPartOfSpeechInEverySentence() {
+        // "leaves" is a form of "leave" as a verb, but of "leaf" as a noun, "Bill" is a proper noun, "bill" isn't
+        var sentences = List.of("She leaves early", "The leaves turned yellow", "Bill smiled", "The bill came");
+        var expected = new Lemmatizer().lemmatize(sentences);
+        var cachingLemmatizer = new CachingLemmatizer(new LemmaCache(1024));
+
+        for (String sentence : sentences) {
+            cachingLemmatizer.lemmatize(sentence);
+        }
+
+        assertEquals(expected, cachingLemmatizer.lemmatize(sentences));
+    }
+}
@@ -0,0 +1,159 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.github.ilyavy.model.Word;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CancellationTest {
+
+    private static final String SENTENCE = "Well, Prince, so Genoa and Lucca are now just family estates";
+
+    private static final int SENTENCES = 100_000;
+
+    /** The counting is cancelled, when this number of sentences is counted. */
+    private static final int CANCELLED_AFTER = 100;
+
+    /** The workers, which have not seen the cancellation yet, count a few sentences more, but not all of them. */
+    private static final int MAX_COUNTED = SENTENCES / 10;
+
+    private final AtomicInteger counted = new AtomicInteger();
+
+    private volatile Cancellation cancellation;
+
+    @Test
+    void forkJoinParserStopsParsingSentences() {
+        var parser = new ForkJoinBookTextParser() {
+            @Override
+            protected Map<String, Word> parseSentence(String sentence, Map<String, Word> wordsMap) {
+                countSentence();
+                return wordsMap;
+            }
+        };
+
+        assertCountingStops(cancellation -> parser.countWords(sentences(), cancellation));
+        assertCountingStops(cancellation -> parser.countWords(sentences().spliterator(), cancellation));
+    }
+
+    @Test
+    void vocabularyForkJoinParserStopsTakingSentences() {
+        var parser = new VocabularyForkJoinBookTextParser();
+        List<String> sentences = new CountingSentences();
+
+        assertCountingStops(cancellation -> parser.countWords(sentences, cancellation));
+        assertCountingStops(cancellation -> parser.countWords(sentences.spliterator(), cancellation));
+        assertCountingStops(cancellation -> parser.countWords(sentences.spliterator(), new TextStatistics(),
+                cancellation));
+    }
+
+    @Test
+    void wordCountTableParserStopsTakingSentences() {
+        List<String> sentences = new CountingSentences();
+
+        var parser = new WordCountTableBookTextParser();
+
+        assertCountingStops(cancellation -> parser.countWords(sentences, cancellation));
+        assertCountingStops(cancellation -> parser.countWords(sentences.spliterator(), cancellation));
+        assertCountingStops(cancellation -> parser.countWords(sentences.spliterator(), new TextStatistics(),
+                cancellation));
+    }
+
+    @Test
+    void streamParsersSkipSentencesAfterCancellation() {
+        List<BookTextParser> parsers = List.of(
+                new ParallelStreamsBookTextParser() {
+                    @Override
+                    public List<Word> parseSentence(String sentence) {
+                        countSentence();
+                        return List.of();
+                    }
+                },
+                new ParallelStreamsGroupingByBookTextParser() {
+                    @Override
+                    public List<Word> parseSentence(String sentence) {
+                        countSentence();
+                        return List.of();
+                    }
+                },
+                new ParallelStreamsToMapBookTextParser() {
+                    @Override
+                    public List<Word> parseSentence(String sentence) {
+                        countSentence();
+                        return List.of();
+                    }
+                },
+                new ParallelStreamsWithOnlyFlatmapBookTextParser() {
+                    @Override
+                    public List<Word> parseSentence(String sentence) {
+                        countSentence();
+                        return List.of();
+                    }
+                },
+                new SingleStreamNaiveBookTextParser() {
+                    @Override
+                    protected Map<String, Word> parseSentence(String sentence, Map<String, Word> wordsMap) {
+                        countSentence();
+                        return wordsMap;
+                    }
+                },
+                new ParallelStreamsNaiveBookTextParser() {
+                    @Override
+                    protected Map<String, Word> parseSentence(String sentence, Map<String, Word> wordsMap) {
+                        countSentence();
+                        return wordsMap;
+                    }
+                });
+
+        for (BookTextParser parser : parsers) {
+            assertCountingStops(cancellation -> parser.countWords(sentences(), cancellation));
+        }
+        // The naive parsers stream the spliterator of sentences as well
+        for (BookTextParser parser : parsers.subList(4, 6)) {
+            assertCountingStops(cancellation -> parser.countWords(sentences().spliterator(), cancellation));
+        }
+    }
+
+    private void assertCountingStops(Function<Cancellation, Map<String, Word>> counting) {
+        cancellation = new Cancellation();
+        counted.set(0);
+
+        assertThrows(CancellationException.class, () -> counting.apply(cancellation));
+        assertTrue(counted.get() < MAX_COUNTED, "Counted sentences: " + counted.get());
+    }
+
+    private void countSentence() {
+        if (counted.incrementAndGet() == CANCELLED_AFTER) {
+            cancellation.cancel();
+        }
+    }
+
+    private static List<String> sentences() {
+        return Collections.nCopies(SENTENCES, SENTENCE);
+    }
+
+    /**
+     * Sentences, which are counted, when they are taken from the list.
+     */
+    private class CountingSentences extends AbstractList<String> implements RandomAccess {
+
+        @Override
+        public String get(int index) {
+            countSentence();
+            return SENTENCE;
+        }
+
+        @Override
+        public int size() {
+            return SENTENCES;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CharTokenizerTest {
+
+    private static final String TEXT = "Well, Prince, so Genoa and Lucca are now just family estates of the "
+            + "Buonapartes! I'm über-tired... x-RAY 42times";
+
+    @Test
+    void tokensAreTheSameAsFoundByRegex() {
+        List<String> expected = new ArrayList<>();
+        Matcher matcher = Pattern.compile(BookTextParser.PATTERN).matcher(TEXT);
+        while (matcher.find()) {
+            expected.add(matcher.group().toLowerCase());
+        }
+
+        List<String> actual = new ArrayList<>();
+        var tokenizer = new CharTokenizer().reset(TEXT);
+        while (tokenizer.next()) {
+            actual.add(tokenizer.token());
+        }
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void hashIsEqualToStringHashCode() {
+        var tokenizer = new CharTokenizer().reset("Buonapartes");
+
+        assertTrue(tokenizer.next());
+        assertEquals("buonapartes".hashCode(), tokenizer.hash());
+        assertTrue(tokenizer.tokenEquals("buonapartes"));
+        assertFalse(tokenizer.tokenEquals("buonaparte"));
+        assertFalse(tokenizer.next());
+    }
+
+    @Test
+    void longTokenGrowsBuffer() {
+        var longWord = "a".repeat(100);
+        var tokenizer = new CharTokenizer().reset(" " + longWord + " ");
+
+        assertTrue(tokenizer.next());
+        assertEquals(longWord, tokenizer.token());
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedSentenceSplitterTest {
+
+    private static final String TEXT = "...Well, Prince. So Genoa and Lucca are now just family estates!? "
+            + "Of the Buonapartes. But I warn you";
+
+    @Test
+    void sentencesAreTheSameForAnyChunkSize() {
+        var expected = new SimpleSequentialBookTextParser().parseTextIntoSentences(TEXT);
+
+        for (int chunkSize = 1; chunkSize <= TEXT.length(); chunkSize++) {
+            var sentences = ChunkedSentenceSplitter.split(Flux.fromIterable(chunks(TEXT, chunkSize)))
+                    .collectList()
+                    .block();
+
+            assertEquals(expected, sentences, "chunk size " + chunkSize);
+        }
+    }
+
+    @Test
+    void emptyTextHasNoSentences() {
+        assertEquals(List.of(), ChunkedSentenceSplitter.split(Flux.empty()).collectList().block());
+    }
+
+    @Test
+    void textWithoutDelimitersIsSplitBetweenWordsIntoBoundedSentences() {
+        var text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append("line").append(i).append(i % 10 == 9 ? "\n" : " ");
+        }
+        var splitter = new ChunkedSentenceSplitter(100);
+
+        List<String> sentences = new ArrayList<>();
+        for (String chunk : chunks(text.toString(), 37)) {
+            sentences.addAll(splitter.sentencesOf(chunk));
+        }
+        sentences.addAll(splitter.rest());
+
+        assertTrue(sentences.size() > 1);
+        List<String> words = new ArrayList<>();
+        for (String sentence : sentences) {
+            assertTrue(sentence.length() <= 100 + 37, sentence);
+            words.addAll(List.of(sentence.trim().split("\\s+")));
+        }
+        assertEquals(List.of(text.toString().trim().split("\\s+")), words);
+    }
+
+    private static List<String> chunks(String text, int chunkSize) {
+        List<String> chunks = new ArrayList<>();
+        for (int i = 0; i < text.length(); i += chunkSize) {
+            chunks.add(text.substring(i, Math.min(i + chunkSize, text.length())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.ilyavy.service.parser;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContextReservoirTest {
+
+    private static final int SIZE = 3;
+
+    private static final int TRIALS = 20_000;
+
+    @Test
+    void allContextsAreKeptWhileSampleIsNotFull() {
+        var sample = new CharSequence[0];
+        sample = ContextReservoir.offer(sample, 1, "first", SIZE);
+        sample = ContextReservoir.offer(sample, 2, "second", SIZE);
+
+        assertArrayEquals(new CharSequence[] {"first", "second"}, sample);
+    }
+
+    @Test
+    void everyOccurrenceIsSampledWithEqualProbability() {
+        int occurrences = 10;
+        int[] sampled = new int[occurrences];
+
+        for (int trial = 0; trial < TRIALS; trial++) {
+            var sample = new CharSequence[0];
+            for (int i = 0; i < occurrences; i++) {
+                sample = ContextReservoir.offer(sample, i + 1, String.valueOf(i), SIZE);
+            }
+            assertEquals(SIZE, sample.length);
+            for (CharSequence context : sample) {
+                sampled[Integer.parseInt(context.toString())]++;
+            }
+        }
+
+        assertUniform(sampled, (double) TRIALS * SIZE / occurrences);
+    }
+
+    @Test
+    void mergedSampleIsUniformOverBothSets() {
+        int leftOccurrences = 4;
+        int rightOccurrences = 16;
+        int[] sampled = new int[leftOccurrences + rightOccurrences];
+
+        for (int trial = 0; trial < TRIALS; trial++) {
+            var left = new CharSequence[0];
+            for (int i = 0; i < leftOccurrences; i++) {
+                left = ContextReservoir.offer(left, i + 1, String.valueOf(i), SIZE);
+            }
+            var right = new CharSequence[0];
+            for (int i = 0; i < rightOccurrences; i++) {
+                right = ContextReservoir.offer(right, i + 1, String.valueOf(leftOccurrences + i), SIZE);
+            }
+
+            ContextReservoir.merge(left, 0, leftOccurrences, right, 0, rightOccurrences, SIZE);
+            for (CharSequence context : left) {
+                sampled[Integer.parseInt(context.toString())]++;
+            }
+        }
+
+        assertUniform(sampled, (double) TRIALS * SIZE / sampled.length);
+    }
+
+    @Test
+    void smallSamplesAreConcatenated() {
+        var left = new CharSequence[] {"first", null, null};
+        var right = new CharSequence[] {"second", "third"};
+
+        ContextReservoir.merge(left, 0, 1, right, 0, 2, SIZE);
+
+        assertArrayEquals(new CharSequence[] {"first", "second", "third"}, left);
+    }
+
+    private static void assertUniform(int[] sampled, double expected) {
+        for (int i = 0; i < sampled.length; i++) {
+            assertEquals(expected, sampled[i], expected * 0.1, "Occurrence " + i);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KnownWordsTest {
+
+    @Test
+    void knownWordsAreFoundByStringAndToken() {
+        var knownWords = KnownWords.of(List.of("prince", "war"));
+        var tokenizer = new CharTokenizer();
+        tokenizer.reset("Prince");
+        tokenizer.next();
+
+        assertEquals(2, knownWords.size());
+        assertTrue(knownWords.contains("war"));
+        assertTrue(knownWords.contains(tokenizer));
+        assertFalse(knownWords.contains("peace"));
+        assertFalse(KnownWords.none().contains("war"));
+        assertSame(KnownWords.none(), KnownWords.of(List.of()));
+    }
+
+    @Test
+    void bloomFilterHasFewFalsePositives() {
+        var words = new ArrayList<String>();
+        for (int i = 0; i < 10_000; i++) {
+            words.add("known" + i);
+        }
+        var knownWords = KnownWords.of(words);
+
+        int falsePositives = 0;
+        int checks = 100_000;
+        for (int i = 0; i < checks; i++) {
+            String word = "unknown" + i;
+            assertFalse(knownWords.contains(word));
+            if (knownWords.mightContain(word.hashCode())) {
+                falsePositives++;
+            }
+        }
+        words.forEach(word -> assertTrue(knownWords.mightContain(word.hashCode())));
+        assertTrue(falsePositives < checks * 0.02, "False positives: " + falsePositives);
+    }
+
+    @Test
+    void fingerprintDoesNotDependOnOrder() {
+        var knownWords = KnownWords.of(List.of("war", "peace", "prince"));
+
+        assertEquals(knownWords.fingerprint(), KnownWords.of(List.of("prince", "war", "peace")).fingerprint());
+        assertNotEquals(knownWords.fingerprint(), KnownWords.of(List.of("war", "peace")).fingerprint());
+        assertEquals(0, KnownWords.none().fingerprint());
+    }
+
+    @Test
+    void parsersDropKnownWords() {
+        var sentences = List.of("The prince and the princess.", "Battle and peace.");
+        var knownWords = KnownWords.of(List.of("the", "and"));
+
+        for (BookTextParser parser : List.of(new WordCountTableBookTextParser(),
+                new VocabularyForkJoinBookTextParser())) {
+            Map<String, ?> words = parser.setKnownWords(knownWords).countWords(sentences);
+
+            assertEquals(Map.of("prince", 1, "princess", 1, "battle", 1, "peace", 1).keySet(), words.keySet(),
+                    parser.getClass().getSimpleName());
+        }
+    }
+}
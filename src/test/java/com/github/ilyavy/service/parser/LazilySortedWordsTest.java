@@ -0,0 +1,89 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import com.github.ilyavy.model.Word;
+import com.github.ilyavy.service.parser.word.SimpleWord;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazilySortedWordsTest {
+
+    @Test
+    void wordsAreInDescendingOrderOfCounts() {
+        var words = randomWords(10_000);
+        var expected = counts(words.stream().sorted(Comparator.comparingLong(Word::getCount).reversed())
+                .collect(Collectors.toList()));
+
+        assertEquals(expected, counts(new LazilySortedWords(words)));
+    }
+
+    @Test
+    void firstPageSortsOnlyThePartOfTheWords() {
+        var sortedWords = new LazilySortedWords(randomWords(10_000));
+
+        var maxCount = sortedWords.get(0).getCount();
+
+        assertEquals(randomWords(10_000).stream().mapToLong(Word::getCount).max().getAsLong(), maxCount);
+        assertTrue(sortedWords.sortedSize() < 10_000);
+    }
+
+    @Test
+    void removedWordIsNotInTheList() {
+        var words = randomWords(1_000);
+        var sortedWords = new LazilySortedWords(words);
+        var expected = new ArrayList<>(counts(new LazilySortedWords(words)));
+
+        var removed = sortedWords.remove(100);
+        expected.remove(100);
+
+        assertEquals(999, sortedWords.size());
+        assertFalse(sortedWords.contains(removed));
+        assertEquals(expected, counts(sortedWords));
+    }
+
+    @Test
+    void reorderedWordsAreInNewOrder() {
+        var words = randomWords(10_000);
+        Comparator<Word> byName = Comparator.comparing(Word::getWord);
+        var sortedWords = new LazilySortedWords(words);
+        sortedWords.get(0);
+
+        var reordered = sortedWords.reorder(byName);
+
+        assertEquals(words.stream().sorted(byName).collect(Collectors.toList()), reordered);
+        assertEquals(expectedCounts(words), counts(sortedWords));
+    }
+
+    @Test
+    void indexOutOfRangeThrowsException() {
+        var sortedWords = new LazilySortedWords(randomWords(10));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> sortedWords.get(10));
+        assertThrows(IndexOutOfBoundsException.class, () -> sortedWords.get(-1));
+    }
+
+    private static List<Word> randomWords(int number) {
+        var random = new Random(42);
+        List<Word> words = new ArrayList<>();
+        for (int i = 0; i < number; i++) {
+            // Zipf-like counts: many words are met only once or twice
+            words.add(new SimpleWord("word" + i).setCount((long) (1 / (random.nextDouble() + 0.001))));
+        }
+        return words;
+    }
+
+    private static List<Long> expectedCounts(List<Word> words) {
+        return counts(words.stream().sorted(Comparator.comparingLong(Word::getCount).reversed())
+                .collect(Collectors.toList()));
+    }
+
+    private static List<Long> counts(List<Word> words) {
+        return words.stream().map(Word::getCount).collect(Collectors.toList());
+    }
+}
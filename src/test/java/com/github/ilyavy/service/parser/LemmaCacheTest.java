@@ -0,0 +1,62 @@
+package com.github.ilyavy.service.parser;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LemmaCacheTest {
+
+    @Test
+    void hitsAndMissesAreCounted() {
+        var cache = new LemmaCache(1024);
+        cache.put("said", "say");
+
+        assertEquals("say", cache.get("said"));
+        assertNull(cache.get("looked"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void formsWithDifferentPartsOfSpeechAreCachedSeparately() {
+        var cache = new LemmaCache(1024);
+        cache.put("left", "VBD", "leave");
+        cache.put("left", "JJ", "left");
+
+        assertEquals("leave", cache.get("left", "VBD"));
+        assertEquals("left", cache.get("left", "JJ"));
+        assertNull(cache.get("left"));
+    }
+
+    @Test
+    void leastRecentlyUsedFormsAreEvicted() {
+        var cache = new LemmaCache(16 * 4);
+        cache.put("prince", "prince");
+        for (int i = 0; i < 10_000; i++) {
+            cache.put("word" + i, "word");
+            cache.get("prince");
+        }
+
+        assertEquals(64, cache.size());
+        assertEquals("prince", cache.get("prince"));
+        assertNull(cache.get("word0"));
+    }
+
+    @Test
+    void snapshotCanBePutBack() {
+        var cache = new LemmaCache(1024);
+        cache.put("said", "say");
+        cache.put("left", "VBD", "leave");
+
+        var restored = new LemmaCache(1024);
+        restored.putAll(cache.snapshot());
+
+        assertEquals("say", restored.get("said"));
+        assertEquals("leave", restored.get("left", "VBD"));
+    }
+
+    @Test
+    void tooSmallSizeThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new LemmaCache(1));
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LemmatizationModeTest {
+
+    private static final String SENTENCE = "Prince Vasili smiled at the estates, which Anna Pavlovna said were lost";
+
+    @Test
+    void fastModeFindsWordsWithoutLemmatization() {
+        var lemmatizer = LemmatizationMode.FAST.createLemmatizer();
+
+        assertEquals(List.of("prince", "vasili", "smiled", "estates", "which", "anna", "pavlovna", "said", "were",
+                "lost"), lemmatizer.lemmatize(SENTENCE));
+    }
+
+    @Test
+    void balancedModeStemsWordsAndSkipsProperNouns() {
+        var lemmatizer = LemmatizationMode.BALANCED.createLemmatizer();
+
+        var lemmas = lemmatizer.lemmatize(SENTENCE);
+
+        assertTrue(lemmas.containsAll(List.of("prince", "smile", "estate", "lose")), lemmas.toString());
+        assertFalse(lemmas.contains("vasili"));
+        assertFalse(lemmas.contains("anna"));
+    }
+
+    @Test
+    void batchLemmasAreTheSameAsLemmasOfEverySentence() {
+        var sentences = List.of(SENTENCE, "", " So Genoa and Lucca are now just family estates");
+
+        for (LemmatizationMode mode : List.of(LemmatizationMode.FAST, LemmatizationMode.BALANCED)) {
+            var lemmatizer = mode.createLemmatizer();
+            var expected = sentences.stream().map(lemmatizer::lemmatize).toList();
+
+            assertEquals(expected, lemmatizer.lemmatize(sentences), mode.name());
+        }
+    }
+}
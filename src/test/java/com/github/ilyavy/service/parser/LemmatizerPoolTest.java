@@ -0,0 +1,130 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LemmatizerPoolTest {
+
+    @Test
+    void releasedLemmatizerIsReused() {
+        var pool = new LemmatizerPool(() -> mock(Lemmatizer.class), 2);
+
+        var lemmatizer = pool.borrow();
+        pool.release(lemmatizer);
+
+        assertSame(lemmatizer, pool.borrow());
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    void lemmatizersAreCreatedUpToMaxSize() throws InterruptedException {
+        var pool = new LemmatizerPool(() -> mock(Lemmatizer.class), 2);
+        var first = pool.borrow();
+        var second = pool.borrow();
+        assertNotSame(first, second);
+
+        var waiting = new Thread(() -> assertSame(first, pool.borrow()));
+        waiting.start();
+        pool.release(first);
+        waiting.join(5_000);
+
+        assertFalse(waiting.isAlive());
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    void waitingWorkerCreatesLemmatizerIfCreationFails() throws Exception {
+        var creating = new CountDownLatch(1);
+        var failing = new CountDownLatch(1);
+        var calls = new AtomicInteger();
+        var lemmatizer = mock(Lemmatizer.class);
+        var pool = new LemmatizerPool(() -> {
+            if (calls.incrementAndGet() == 1) {
+                creating.countDown();
+                awaitUninterruptibly(failing);
+                throw new IllegalStateException("Models are missing");
+            }
+            return lemmatizer;
+        }, 1);
+
+        var failed = CompletableFuture.supplyAsync(pool::borrow);
+        creating.await();
+        var waiting = CompletableFuture.supplyAsync(pool::borrow);
+        failing.countDown();
+
+        assertThrows(Exception.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertSame(lemmatizer, waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    void waitingIsStoppedByCancellation() throws Exception {
+        var pool = new LemmatizerPool(() -> mock(Lemmatizer.class), 1);
+        pool.borrow();
+        var cancellation = new Cancellation();
+
+        var waiting = CompletableFuture.supplyAsync(() -> pool.borrow(cancellation));
+        cancellation.cancel();
+
+        var e = assertThrows(Exception.class, () -> waiting.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(CancellationException.class, e.getCause());
+    }
+
+    @Test
+    void nonPositiveMaxSizeThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new LemmatizerPool(() -> mock(Lemmatizer.class), 0));
+    }
+
+    @Test
+    void pooledParserCountsTheSameAsSequentialOne() {
+        var pool = new LemmatizerPool(LemmatizerPoolTest::lowerCasingLemmatizer, 3);
+        var text = "Well, Prince. So Genoa and Lucca are now just family estates of the Buonapartes. ".repeat(1000);
+
+        var sequential = new SimpleSequentialBookTextParser(lowerCasingLemmatizer());
+        var expected = sequential.countWords(sequential.parseTextIntoSentences(text));
+
+        var parser = new PooledLemmatizerForkJoinBookTextParser(pool);
+        var actual = parser.countWords(parser.parseTextIntoSentences(text));
+
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((word, expectedWord) -> assertEquals(expectedWord.getCount(), actual.get(word).getCount()));
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static Lemmatizer lowerCasingLemmatizer() {
+        var lemmatizer = mock(Lemmatizer.class);
+        when(lemmatizer.lemmatize(anyString())).thenAnswer(invocation -> words(invocation.getArgument(0)));
+        when(lemmatizer.lemmatize(anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0)
+                .stream()
+                .map(LemmatizerPoolTest::words)
+                .collect(Collectors.toList()));
+        return lemmatizer;
+    }
+
+    private static List<String> words(String sentence) {
+        return Arrays.stream(sentence.toLowerCase().split("\\W+"))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LemmatizerTest {
+
+    @Test
+    void batchLemmasAreTheSameAsLemmasOfEverySentence() {
+        var lemmatizer = new Lemmatizer();
+        var sentences = List.of("...Well, Prince", " So Genoa and Lucca are now just family estates", "  ", "",
+                "But I warn you\nif you don't tell me that this means war", " dogs were barking");
+
+        var expected = sentences.stream()
+                .map(lemmatizer::lemmatize)
+                .collect(Collectors.toList());
+
+        assertEquals(expected, lemmatizer.lemmatize(sentences));
+    }
+
+    @Test
+    void emptyBatchHasNoLemmas() {
+        assertEquals(List.of(), new Lemmatizer().lemmatize(List.of()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelSentenceSplitterTest {
+
+    @Test
+    void sentencesAreTheSameAsSplitSequentially() {
+        var random = new Random(42);
+        var alphabet = "abc d.!?";
+        var text = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        var expected = new SimpleSequentialBookTextParser().parseTextIntoSentences(text.toString());
+
+        for (int parallelism : new int[] {1, 2, 3, 7, 16, 64}) {
+            assertEquals(expected, new ParallelSentenceSplitter(parallelism).split(text),
+                    "parallelism " + parallelism);
+        }
+        // Parallel parsers split the text with the splitter
+        assertEquals(expected, new ForkJoinBookTextParser().parseTextIntoSentences(text.toString()));
+    }
+
+    @Test
+    void sentenceStraddlingSeveralRangesIsJoined() {
+        var text = "." + "a".repeat(100_000) + ". b";
+
+        assertEquals(List.of("a".repeat(100_000), " b"), new ParallelSentenceSplitter(8).split(text));
+    }
+
+    @Test
+    void nonPositiveParallelismThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSentenceSplitter(0));
+    }
+}
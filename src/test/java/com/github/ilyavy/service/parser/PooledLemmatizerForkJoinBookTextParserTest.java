@@ -0,0 +1,121 @@
+package com.github.ilyavy.service.parser;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PooledLemmatizerForkJoinBookTextParserTest {
+
+    private static final String TEXT = "Well, Prince. So Genoa and Lucca are now just family estates. ".repeat(2000);
+
+    @Test
+    void lastProgressSnapshotIsCompleteAndHasAllWords() {
+        var parser = new PooledLemmatizerForkJoinBookTextParser(
+                new LemmatizerPool(LemmatizerPoolTest::lowerCasingLemmatizer, 2));
+        var sentences = parser.parseTextIntoSentences(TEXT);
+        var expected = parser.countWords(sentences);
+
+        var snapshots = parser.countWordsProgressively(Flux.fromIterable(sentences), TEXT.length(), 3, Duration.ZERO)
+                .collectList()
+                .block();
+
+        var last = snapshots.get(snapshots.size() - 1);
+        assertTrue(last.isComplete());
+        assertEquals(100, last.getPercent());
+        assertEquals(expected.keySet(), last.getWords().keySet());
+        assertEquals(3, last.getTopWords().size());
+        var statistics = new TextStatistics();
+        sentences.forEach(statistics::addSentence);
+        assertEquals(statistics.getWords(), last.getStatistics().getWords());
+        assertEquals(statistics.getFleschScore(), last.getStatistics().getFleschScore(), 1e-9);
+
+        for (var snapshot : snapshots.subList(0, snapshots.size() - 1)) {
+            assertFalse(snapshot.isComplete());
+            assertTrue(snapshot.getPercent() > 0 && snapshot.getPercent() <= 100);
+            assertTrue(snapshot.getTopWords().size() <= 3);
+        }
+        assertTrue(snapshots.size() > 1);
+    }
+
+    @Test
+    void emptyTextHasOnlyCompleteSnapshot() {
+        var parser = new PooledLemmatizerForkJoinBookTextParser(
+                new LemmatizerPool(LemmatizerPoolTest::lowerCasingLemmatizer, 2));
+
+        var snapshots = parser.countWordsProgressively(Flux.empty(), 0, 3, Duration.ZERO).collectList().block();
+
+        assertEquals(1, snapshots.size());
+        assertTrue(snapshots.get(0).getWords().isEmpty());
+    }
+
+    @Test
+    void sentencesAreNotLemmatizedOnParallelScheduler() {
+        var threads = ConcurrentHashMap.<String>newKeySet();
+        var lemmatizer = mock(Lemmatizer.class);
+        when(lemmatizer.lemmatize(anyList())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return invocation.<List<String>>getArgument(0).stream().map(sentence -> List.of()).toList();
+        });
+        var parser = new PooledLemmatizerForkJoinBookTextParser(new LemmatizerPool(() -> lemmatizer, 2));
+        var sentences = parser.parseTextIntoSentences(TEXT);
+
+        parser.countWords(Flux.fromIterable(sentences)).block();
+        parser.countWordsProgressively(Flux.fromIterable(sentences), TEXT.length(), 3, Duration.ZERO).blockLast();
+
+        assertFalse(threads.isEmpty());
+        threads.forEach(thread -> assertTrue(thread.startsWith("boundedElastic-"), thread));
+    }
+
+    @Test
+    void cancelledCountingThrowsWithoutLemmatizing() {
+        var pool = new LemmatizerPool(LemmatizerPoolTest::lowerCasingLemmatizer, 2);
+        var parser = new PooledLemmatizerForkJoinBookTextParser(pool);
+        var cancellation = new Cancellation();
+        cancellation.cancel();
+
+        assertThrows(CancellationException.class, () -> parser.countWords(parser.sentences(TEXT), cancellation));
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    void cancellingSubscriptionStopsLemmatizationAtNextBatch() throws InterruptedException {
+        var subscription = new AtomicReference<Disposable>();
+        var subscribed = new CountDownLatch(1);
+        var cancelled = new CountDownLatch(1);
+        var batches = new AtomicInteger();
+
+        // The subscription is cancelled, while the first batch of sentences is being lemmatized
+        var lemmatizer = mock(Lemmatizer.class);
+        when(lemmatizer.lemmatize(anyList())).thenAnswer(invocation -> {
+            batches.incrementAndGet();
+            subscribed.await(1, TimeUnit.SECONDS);
+            subscription.get().dispose();
+            cancelled.countDown();
+            return invocation.<List<String>>getArgument(0).stream().map(sentence -> List.of()).toList();
+        });
+        var parser = new PooledLemmatizerForkJoinBookTextParser(new LemmatizerPool(() -> lemmatizer, 1));
+        var sentences = parser.parseTextIntoSentences(TEXT);
+
+        subscription.set(parser.countWordsProgressively(Flux.fromIterable(sentences), TEXT.length(), 3,
+                Duration.ZERO).subscribe());
+        subscribed.countDown();
+        assertTrue(cancelled.await(1, TimeUnit.SECONDS));
+        Thread.sleep(100);
+
+        assertEquals(1, batches.get());
+    }
+}
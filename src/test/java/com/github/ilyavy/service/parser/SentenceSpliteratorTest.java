@@ -0,0 +1,57 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SentenceSpliteratorTest {
+
+    private static final String TEXT = "...Well, Prince. So Genoa and Lucca are now just family estates!? "
+            + "Of the Buonapartes. But I warn you";
+
+    @Test
+    void sentencesAreTheSameAsParsedIntoList() {
+        var expected = new SimpleSequentialBookTextParser().parseTextIntoSentences(TEXT);
+
+        List<String> actual = new ArrayList<>();
+        new SentenceSpliterator(TEXT).forEachRemaining(sentence -> actual.add(sentence.toString()));
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void sentencesAreViewsOfTheText() {
+        List<TextSpan> sentences = new ArrayList<>();
+        new SentenceSpliterator(TEXT).forEachRemaining(sentences::add);
+
+        var first = sentences.get(0);
+        assertSame(TEXT, first.text());
+        assertEquals(3, first.start());
+        assertEquals("Well, Prince", TEXT.substring(first.start(), first.end()));
+    }
+
+    @Test
+    void splitPartsTogetherHaveAllTheSentencesInOrder() {
+        var text = (TEXT + ". ").repeat(1000);
+        var expected = new SimpleSequentialBookTextParser().parseTextIntoSentences(text);
+
+        Spliterator<TextSpan> suffix = new SentenceSpliterator(text);
+        Spliterator<TextSpan> prefix = suffix.trySplit();
+        assertNotNull(prefix);
+
+        List<String> actual = new ArrayList<>();
+        prefix.forEachRemaining(sentence -> actual.add(sentence.toString()));
+        suffix.forEachRemaining(sentence -> actual.add(sentence.toString()));
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void shortTextIsNotSplit() {
+        assertNull(new SentenceSpliterator(TEXT).trySplit());
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextStatisticsTest {
+
+    private static final String TEXT = "War and Peace. By Leo Tolstoy. BOOK ONE: 1805\n\nCHAPTER I\n\n"
+            + "Well, Prince, so Genoa and Lucca are now just family estates of the Buonapartes. "
+            + "It was in July, as told in chapter 3 and in Chapter 4, that she said it. "
+            + "Chapter II. The guests were arriving. Anna Pavlovna greeted them. "
+            + "BOOK TWO: 1805 CHAPTER I The chapter is over. Chapter Eleven is a title, not a heading.";
+
+    @Test
+    void syllablesAreCountedByGroupsOfVowels() {
+        assertEquals(1, syllables("the"));
+        assertEquals(1, syllables("make"));
+        assertEquals(1, syllables("Prince"));
+        assertEquals(3, syllables("family"));
+        assertEquals(2, syllables("Genoa"));
+        assertEquals(4, syllables("Buonapartes"));
+        assertEquals(0, syllables("tsk"));
+    }
+
+    @Test
+    void fleschScoreIsComputedFromCounts() {
+        var statistics = new TextStatistics().addSentence("The cat sat on the mat");
+
+        assertEquals(1, statistics.getSentences());
+        assertEquals(6, statistics.getWords());
+        assertEquals(6, statistics.getSyllables());
+        assertEquals(206.835 - 1.015 * 6 - 84.6, statistics.getFleschScore(), 1e-9);
+        assertTrue(Double.isNaN(new TextStatistics().addSentence("...").getFleschScore()));
+    }
+
+    @Test
+    void chaptersStartAtTheirHeadings() {
+        var statistics = collect(new WordCountTableBookTextParser().parseTextIntoSentences(TEXT));
+
+        List<String> titles = statistics.getChapters().stream().map(TextStatistics.Chapter::getTitle).toList();
+        assertEquals(Arrays.asList(null, "CHAPTER I", "Chapter II", "CHAPTER I"), titles);
+        assertEquals(statistics.getWords(),
+                statistics.getChapters().stream().mapToLong(TextStatistics.Chapter::getWords).sum());
+    }
+
+    @Test
+    void mergedPartsHaveSameStatisticsAsWholeText() {
+        List<String> sentences = new WordCountTableBookTextParser().parseTextIntoSentences(TEXT);
+        var whole = collect(sentences);
+
+        for (int i = 0; i <= sentences.size(); i++) {
+            var merged = collect(sentences.subList(0, i)).addAll(collect(sentences.subList(i, sentences.size())));
+
+            assertEquals(describe(whole), describe(merged), "Split at " + i);
+        }
+    }
+
+    @Test
+    void restoredStatisticsHaveSameChapters() {
+        var statistics = collect(new WordCountTableBookTextParser().parseTextIntoSentences(TEXT));
+
+        var restored = new TextStatistics(statistics.getChapters());
+
+        assertEquals(describe(statistics), describe(restored));
+    }
+
+    @Test
+    void parsersCollectStatisticsInSamePassAsCounting() {
+        List<String> sentences = new WordCountTableBookTextParser().parseTextIntoSentences(TEXT.repeat(50));
+        var expected = describe(collect(sentences));
+
+        for (BookTextParser parser : List.of(new WordCountTableBookTextParser(),
+                new VocabularyForkJoinBookTextParser())) {
+            var statistics = new TextStatistics();
+            var words = parser.countWords(sentences.spliterator(), statistics, new Cancellation());
+
+            assertEquals(expected, describe(statistics), parser.getClass().getSimpleName());
+            assertEquals(parser.countWords(sentences).keySet(), words.keySet());
+        }
+    }
+
+    private static int syllables(final String word) {
+        return TextStatistics.countSyllables(word.toCharArray(), word.length());
+    }
+
+    private static TextStatistics collect(final List<String> sentences) {
+        var statistics = new TextStatistics();
+        sentences.forEach(statistics::addSentence);
+        return statistics;
+    }
+
+    private static List<String> describe(final TextStatistics statistics) {
+        return statistics.getChapters().stream()
+                .map(c -> c.getTitle() + ":" + c.getSentences() + ":" + c.getWords() + ":" + c.getSyllables())
+                .toList();
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.ilyavy.service.parser;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VocabularyTest {
+
+    @Test
+    void idsAreDenseAndStable() {
+        var vocabulary = new Vocabulary();
+
+        assertEquals(0, vocabulary.idOf("prince"));
+        assertEquals(1, vocabulary.idOf("genoa"));
+        assertEquals(0, vocabulary.idOf("prince"));
+        assertEquals(2, vocabulary.size());
+        assertEquals("genoa", vocabulary.word(1));
+    }
+
+    @Test
+    void tokenAndStringOfTheSameWordHaveTheSameId() {
+        var vocabulary = new Vocabulary();
+        var tokenizer = new CharTokenizer().reset("Prince");
+        tokenizer.next();
+
+        int id = vocabulary.idOf(tokenizer);
+
+        assertEquals(id, vocabulary.idOf("prince"));
+        assertEquals(id, vocabulary.find("prince"));
+        assertEquals(-1, vocabulary.find("lucca"));
+    }
+
+    @Test
+    void addAllReturnsMappingOfIds() {
+        var vocabulary = new Vocabulary();
+        vocabulary.idOf("prince");
+        var other = new Vocabulary();
+        other.idOf("genoa");
+        other.idOf("prince");
+
+        int[] mapping = vocabulary.addAll(other);
+
+        assertArrayEquals(new int[] {1, 0}, mapping);
+        assertEquals(2, vocabulary.size());
+    }
+
+    @Test
+    void wordWithUnknownIdThrowsException() {
+        var vocabulary = new Vocabulary();
+
+        assertThrows(IndexOutOfBoundsException.class, () -> vocabulary.word(0));
+    }
+
+    @Test
+    void allWordsAreKeptAfterRehash() {
+        var vocabulary = new Vocabulary();
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, vocabulary.idOf("w" + i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, vocabulary.find("w" + i));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.ilyavy.service.parser;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WordCountTableTest {
+
+    @Test
+    void incrementCountsTokensAndKeepsFirstContext() {
+        var table = new WordCountTable();
+        var tokenizer = new CharTokenizer();
+
+        tokenizer.reset("Prince prince");
+        while (tokenizer.next()) {
+            table.increment(tokenizer, "first");
+        }
+        tokenizer.reset("PRINCE");
+        tokenizer.next();
+        table.increment(tokenizer, "second");
+
+        var words = table.toWordsMap();
+        assertEquals(1, words.size());
+        assertEquals(3, words.get("prince").getCount());
+        assertEquals("first", words.get("prince").getContext());
+    }
+
+    @Test
+    void allWordsAreKeptAfterResize() {
+        var table = new WordCountTable();
+        var tokenizer = new CharTokenizer();
+        var text = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            for (int n = i; n > 0; n /= 26) {
+                text.append((char) ('a' + n % 26));
+            }
+            text.append("x ");
+        }
+
+        tokenizer.reset(text);
+        while (tokenizer.next()) {
+            table.increment(tokenizer, "");
+        }
+        tokenizer.reset(text);
+        while (tokenizer.next()) {
+            table.increment(tokenizer, "");
+        }
+
+        assertEquals(10_000, table.size());
+        table.toWordsMap().values().forEach(w -> assertEquals(2, w.getCount()));
+    }
+
+    @Test
+    void spanContextsAreKeptAsOffsetsAndMutableContextsAreCopied() {
+        var text = "Prince Andrew came. Prince Vasili left.";
+        var context = new StringBuilder("Anna Pavlovna smiled.");
+        var table = new WordCountTable();
+
+        table.increment("prince", new TextSpan(text, 0, 19));
+        table.increment("prince", new TextSpan(text, 20, 39));
+        table.increment("anna", context);
+        context.setLength(0);
+
+        var words = table.toWordsMap();
+        assertEquals("Prince Andrew came.", words.get("prince").getContext());
+        assertEquals("Anna Pavlovna smiled.", words.get("anna").getContext());
+    }
+
+    @Test
+    void mergedTablesKeepSampleOfContexts() {
+        var left = new WordCountTable();
+        var right = new WordCountTable();
+        for (int i = 0; i < 10; i++) {
+            left.increment("prince", "left " + i);
+            right.increment("prince", "right " + i);
+        }
+        right.increment("anna", "right");
+
+        var words = left.addAll(right).toWordsMap();
+        assertEquals(20, words.get("prince").getCount());
+        assertEquals(BookTextParser.CONTEXTS_PER_WORD, words.get("prince").getContexts().size());
+        assertEquals(List.of("right"), words.get("anna").getContexts());
+    }
+
+    @Test
+    void topWordsAreTheMostFrequentInDescendingOrder() {
+        var table = new WordCountTable();
+        for (String word : "prince said prince anna said prince pierre".split(" ")) {
+            table.increment(word, "context");
+        }
+
+        var top = table.topWords(2);
+
+        assertEquals(2, top.size());
+        assertEquals("prince", top.get(0).getWord());
+        assertEquals(3, top.get(0).getCount());
+        assertEquals("said", top.get(1).getWord());
+        assertEquals(2, top.get(1).getCount());
+    }
+
+    @Test
+    void topWordsAreSelectedFromManyWords() {
+        var table = new WordCountTable();
+        for (int i = 1; i <= 1000; i++) {
+            // The counts are distinct, the words go in a scrambled order
+            String word = "word" + (i * 7919 % 1000);
+            for (int n = 0; n < i * 7919 % 1000 + 1; n++) {
+                table.increment(word, "context");
+            }
+        }
+
+        var top = table.topWords(10);
+
+        assertEquals(10, top.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("word" + (999 - i), top.get(i).getWord());
+        }
+        assertTrue(table.topWords(0).isEmpty());
+        assertEquals(1000, table.topWords(2000).size());
+    }
+
+    @Test
+    void wordsAddedToSharedVocabularyByAnotherTableAreNotCounted() {
+        var vocabulary = new Vocabulary();
+        var table = new WordCountTable(vocabulary);
+        var other = new WordCountTable(vocabulary);
+        table.increment("prince", "context");
+        for (int i = 0; i < 10_000; i++) {
+            other.increment("word" + i, "context");
+        }
+
+        assertEquals(1, table.size());
+        assertEquals(List.of("prince"), List.copyOf(table.toWordsMap().keySet()));
+        assertEquals("prince", table.topWords(5).get(0).getWord());
+        assertEquals(1, table.topWords(5).size());
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.ilyavy.service.parser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.github.ilyavy.model.Word;
+import com.github.ilyavy.service.parser.word.SimpleWord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WordFrequenciesTest {
+
+    @Test
+    void ranksAreLookedUpInMappedTable(@TempDir Path dir) throws IOException {
+        var file = dir.resolve("frequencies.bin");
+        WordFrequencies.write(List.of("the", "of", "The", "and", "o'clock", "a", "ab", "abandon"), file);
+
+        var frequencies = WordFrequencies.open(file);
+
+        assertEquals(6, frequencies.size());
+        assertEquals(1, frequencies.rankOf("the"));
+        assertEquals(2, frequencies.rankOf("Of"));
+        assertEquals(3, frequencies.rankOf("and"));
+        assertEquals(4, frequencies.rankOf("a"));
+        assertEquals(5, frequencies.rankOf("ab"));
+        assertEquals(6, frequencies.rankOf("abandon"));
+        assertEquals(7, frequencies.rankOf("abandoned"));
+        assertEquals(7, frequencies.rankOf("o'clock"));
+        assertEquals(7, frequencies.rankOf(""));
+    }
+
+    @Test
+    void everyWordOfLargeTableIsFound(@TempDir Path dir) throws IOException {
+        var file = dir.resolve("frequencies.bin");
+        List<String> words = IntStream.range(0, 50_000)
+                .mapToObj(i -> Integer.toString(i, 26).chars()
+                        .mapToObj(c -> String.valueOf((char) (Character.digit(c, 26) + 'a')))
+                        .collect(Collectors.joining("", "w", "")))
+                .collect(Collectors.toList());
+        WordFrequencies.write(words, file);
+
+        var frequencies = WordFrequencies.open(file);
+
+        for (int i = 0; i < words.size(); i++) {
+            assertEquals(i + 1, frequencies.rankOf(words.get(i)), words.get(i));
+        }
+    }
+
+    @Test
+    void frequencyListIsConverted(@TempDir Path dir) throws IOException {
+        var list = dir.resolve("list.txt");
+        Files.writeString(list, "the\t23135851162\nof 13151942776\n\nand\t12997637966\n");
+        var file = dir.resolve("frequencies.bin");
+
+        WordFrequencies.convert(list, file);
+
+        assertEquals(3, WordFrequencies.open(file).rankOf("and"));
+    }
+
+    @Test
+    void invalidFileIsRejected(@TempDir Path dir) throws IOException {
+        var file = dir.resolve("frequencies.bin");
+        Files.writeString(file, "the\nof\nand\n");
+
+        assertThrows(IOException.class, () -> WordFrequencies.open(file));
+    }
+
+    @Test
+    void difficultyOrderPutsRareWordsFirst(@TempDir Path dir) throws IOException {
+        var file = dir.resolve("frequencies.bin");
+        WordFrequencies.write(List.of("the", "said", "prince"), file);
+        var frequencies = WordFrequencies.open(file);
+        List<Word> words = List.of(new SimpleWord("the").setCount(100), new SimpleWord("said").setCount(60),
+                new SimpleWord("prince").setCount(55), new SimpleWord("aide").setCount(45));
+
+        var byDifficulty = new LazilySortedWords(words, WordsOrder.DIFFICULTY.comparator(frequencies));
+        var byDifficultyWithoutTable = new LazilySortedWords(words,
+                WordsOrder.DIFFICULTY.comparator(WordFrequencies.empty()));
+
+        assertEquals(List.of("prince", "aide", "the", "said"), byDifficulty.stream().map(Word::getWord).toList());
+        assertEquals(List.of("the", "said", "prince", "aide"),
+                byDifficultyWithoutTable.stream().map(Word::getWord).toList());
+    }
+
+    @Test
+    void difficultyOrderIsNotAvailableWithoutTable(@TempDir Path dir) throws IOException {
+        var file = dir.resolve("frequencies.bin");
+        WordFrequencies.write(List.of("the", "said", "prince"), file);
+
+        assertTrue(WordsOrder.DIFFICULTY.isAvailable(WordFrequencies.open(file)));
+        assertFalse(WordsOrder.DIFFICULTY.isAvailable(WordFrequencies.empty()));
+        assertTrue(WordsOrder.COUNT.isAvailable(WordFrequencies.empty()));
+    }
+}
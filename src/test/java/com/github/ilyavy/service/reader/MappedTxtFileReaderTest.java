@@ -0,0 +1,77 @@
+package com.github.ilyavy.service.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedTxtFileReaderTest {
+
+    private static final String SIMPLE_BOOK = "./src/test/resources/SimplePlainTextBook.txt";
+
+    @Test
+    void createInstanceMemoryMappedModeIsSupported() {
+        var reader = BookFileReader.createInstance(new File(SIMPLE_BOOK), BookFileReader.Mode.MEMORY_MAPPED);
+        assertTrue(reader instanceof MappedTxtFileReader);
+    }
+
+    @Test
+    void readIntoCharSequenceSimpleBookWithTwoSentences() throws IOException {
+        var reader = BookFileReader.createInstance(new File(SIMPLE_BOOK), BookFileReader.Mode.MEMORY_MAPPED);
+        var text = reader.readIntoCharSequence();
+
+        assertTrue(text instanceof MappedTxtFileReader.AsciiText);
+        assertEquals("This is simple plain text book. It is in .txt format.", text.toString());
+        assertEquals("plain", text.subSequence(15, 20).toString());
+        assertEquals(' ', text.charAt(37));
+    }
+
+    @Test
+    void readIntoCharSequenceNonAsciiTextIsDecodedAndByteOrderMarkSkipped(@TempDir Path dir) throws IOException {
+        var book = dir.resolve("book.txt");
+        Files.write(book, ("\uFEFFÜber\r\nalles").getBytes(StandardCharsets.UTF_8));
+
+        var text = new MappedTxtFileReader(book.toFile()).readIntoCharSequence();
+
+        assertEquals("Über alles", text.toString());
+    }
+
+    @Test
+    void textIsTheSameInAllModes(@TempDir Path dir) throws IOException {
+        var book = dir.resolve("book.txt");
+        Files.write(book, ("\uFEFFÜber alles.\nNaïve café, señor.").getBytes(StandardCharsets.UTF_8));
+
+        var mapped = BookFileReader.createInstance(book.toFile(), BookFileReader.Mode.MEMORY_MAPPED);
+        var regular = BookFileReader.createInstance(book.toFile(), BookFileReader.Mode.DEFAULT);
+        var chunks = regular.readInChunks(4).map(CharSequence::toString).collectList().block();
+
+        assertEquals("Über alles. Naïve café, señor.", mapped.readIntoCharSequence().toString());
+        assertEquals("Über alles. Naïve café, señor.", regular.readIntoString());
+        assertEquals("Über alles. Naïve café, señor.", String.join("", chunks));
+    }
+
+    @Test
+    void lineBreaksAreJoinedLikeInDefaultMode(@TempDir Path dir) throws IOException {
+        var book = dir.resolve("book.txt");
+        for (String text : new String[] {"War\r\nand\r\n\r\npeace.\r\n", "War\nand\n\npeace.\n", "War\rand\n\rpeace.",
+                "War and peace.\n\n", "\n", ""}) {
+            Files.write(book, text.getBytes(StandardCharsets.UTF_8));
+            var mapped = BookFileReader.createInstance(book.toFile(), BookFileReader.Mode.MEMORY_MAPPED);
+            var regular = BookFileReader.createInstance(book.toFile(), BookFileReader.Mode.DEFAULT);
+
+            assertEquals(regular.readIntoString(), mapped.readIntoCharSequence().toString(), text);
+        }
+    }
+
+    @Test
+    void readIntoCharSequenceIOExceptionIsRethrown() {
+        var reader = new MappedTxtFileReader(new File("non-existing-file.txt"));
+        assertThrows(IOException.class, reader::readIntoCharSequence);
+    }
+}
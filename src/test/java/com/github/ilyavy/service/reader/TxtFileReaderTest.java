@@ -24,4 +24,21 @@ class TxtFileReaderTest {
         var txtFileReader = new TxtFileReader(new File("non-existing-file.txt"));
         assertThrows(IOException.class, txtFileReader::readIntoString);
     }
+
+    @Test
+    void readInChunksSimpleBookWithTwoSentences() {
+        var txtFileReader = BookFileReader
+                .createInstance(new File("./src/test/resources/SimplePlainTextBook.txt"));
+        var text = txtFileReader.readInChunks(7)
+                .reduce(new StringBuilder(), StringBuilder::append)
+                .block();
+
+        assertEquals("This is simple plain text book. It is in .txt format.", text.toString());
+    }
+
+    @Test
+    void readInChunksIOExceptionIsPropagated() {
+        var txtFileReader = new TxtFileReader(new File("non-existing-file.txt"));
+        assertThrows(Exception.class, () -> txtFileReader.readInChunks(1024).blockLast());
+    }
 }